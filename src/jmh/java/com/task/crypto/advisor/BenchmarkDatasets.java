@@ -0,0 +1,189 @@
+package com.task.crypto.advisor;
+
+import com.task.crypto.advisor.configurations.CsvStorageProperties;
+import com.task.crypto.advisor.services.impl.CryptoDataServiceImpl;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import com.task.crypto.advisor.storage.CsvSegmentConverter;
+import com.task.crypto.advisor.storage.DailyRollup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The `BenchmarkDatasets` class generates price ticks for benchmarks. Every dataset spans the same
+ * `SPAN_DAYS` days with the last tick at noon of yesterday, so the number of rows only changes density of ticks
+ * and date ranges of the same width cover the same share of any dataset.
+ * Prices are a seeded random walk with two fraction digits, so runs of different commits read the same data.
+ */
+public final class BenchmarkDatasets {
+
+    public static final int SPAN_DAYS = 1095;
+    public static final LocalDate LAST_DAY = LocalDate.now().minusDays(1);
+    public static final LocalDate FIRST_DAY = LAST_DAY.minusDays(SPAN_DAYS - 1L);
+
+    private static final String HEADER = "timestamp,symbol,price\n";
+    private static final long FIRST_TIMESTAMP = FIRST_DAY.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    private static final long LAST_TIMESTAMP = LAST_DAY.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    private BenchmarkDatasets() {
+    }
+
+    /**
+     * Generates series of `rows` ticks of the cryptocurrency.
+     */
+    public static CryptoSeries series(String symbol, int rows, long seed) {
+        CryptoSeries.Builder builder = CryptoSeries.builder(symbol);
+        Ticks ticks = new Ticks(rows, seed);
+        for (int i = 0; i < rows; i++) {
+            builder.add(ticks.timestamp(i), ticks.nextPrice(), 2);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Formats ticks of the series in the upload format, prices must have at most two fraction digits.
+     */
+    public static byte[] csv(CryptoSeries series) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            writer.write(HEADER);
+            for (int i = 0; i < series.size(); i++) {
+                writeRow(writer, series.timestampAt(i), series.getSymbol(),
+                        series.priceAt(i).movePointRight(2).longValueExact());
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Creates storage of segment files in the directory.
+     */
+    public static CryptoSeriesStorage storage(Path dir) {
+        return new CachedSeriesStorage(new CsvStorageProperties(null, dir.toString()));
+    }
+
+    /**
+     * Creates data service over the storage, with `cached` set to false cryptocurrency data is computed on every call.
+     */
+    public static CryptoDataServiceImpl dataService(CryptoSeriesStorage storage, boolean cached) {
+        CacheManager cacheManager = cached ? new ConcurrentMapCacheManager() : new NoOpCacheManager();
+        CryptoDataServiceImpl service = new CryptoDataServiceImpl(storage, cacheManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "cryptoDataCacheName", "cryptoData");
+        ReflectionTestUtils.setField(service, "cryptoPyramidsCacheName", "cryptoPyramids");
+        service.registerMetrics();
+        return service;
+    }
+
+    public static void delete(Path dir) throws IOException {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, long timestamp, String symbol, long price) throws IOException {
+        writer.write(Long.toString(timestamp));
+        writer.write(',');
+        writer.write(symbol);
+        writer.write(',');
+        writer.write(Long.toString(price / 100));
+        writer.write('.');
+        writer.write(Long.toString(price % 100 + 100).substring(1));
+        writer.write('\n');
+    }
+
+    /**
+     * Storage keeping loaded series, rollups and symbols in memory the way 'cryptoSeries', 'cryptoRollups' and 'cryptos' caches
+     * do in the application, the storage itself is given a no-op cache manager, so series are kept by the overridden load.
+     * Saved series are not kept, so the first load maps their segment files as after restart of the application.
+     */
+    private static class CachedSeriesStorage extends CryptoSeriesStorage {
+
+        private final Map<String, CryptoSeries> series = new ConcurrentHashMap<>();
+        private final Map<String, DailyRollup> rollups = new ConcurrentHashMap<>();
+        private volatile Set<String> symbols;
+
+        CachedSeriesStorage(CsvStorageProperties properties) {
+            super(properties, new CsvSegmentConverter(), new NoOpCacheManager());
+        }
+
+        @Override
+        public CryptoSeries load(String crypto) {
+            return series.computeIfAbsent(crypto.toUpperCase(), super::load);
+        }
+
+        @Override
+        public DailyRollup loadRollup(CryptoSeries loaded) {
+            DailyRollup rollup = rollups.get(loaded.getSymbol());
+            if (rollup != null && rollup.covers(loaded, ZoneId.systemDefault())) {
+                return rollup;
+            }
+            rollup = super.loadRollup(loaded);
+            rollups.put(loaded.getSymbol(), rollup);
+            return rollup;
+        }
+
+        @Override
+        public CryptoSeries save(CryptoSeries saved) {
+            symbols = null;
+            series.remove(saved.getSymbol());
+            rollups.remove(saved.getSymbol());
+            return super.save(saved);
+        }
+
+        @Override
+        public Set<String> getSymbols() {
+            Set<String> cached = symbols;
+            if (cached == null) {
+                symbols = cached = super.getSymbols();
+            }
+            return cached;
+        }
+    }
+
+    private static class Ticks {
+
+        private final int rows;
+        private final long interval;
+        private final Random random;
+        private long price = 1_000_000;
+
+        Ticks(int rows, long seed) {
+            this.rows = rows;
+            this.interval = Math.max(1, (LAST_TIMESTAMP - FIRST_TIMESTAMP) / rows);
+            this.random = new Random(seed);
+        }
+
+        long timestamp(int index) {
+            return LAST_TIMESTAMP - (rows - 1L - index) * interval;
+        }
+
+        long nextPrice() {
+            price = Math.max(100, price + random.nextInt(2001) - 1000);
+            return price;
+        }
+    }
+}
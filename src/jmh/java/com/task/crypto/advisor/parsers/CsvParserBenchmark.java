@@ -0,0 +1,146 @@
+package com.task.crypto.advisor.parsers;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.bean.ColumnPositionMappingStrategy;
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.exceptions.CsvValidationException;
+import com.opencsv.validators.RowValidator;
+import com.task.crypto.advisor.entities.csv.CryptoEntry;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The `CsvParserBenchmark` class compares rows per second of CryptoCsvParser with the OpenCSV bean binding
+ * and regex row validation it replaced, both read a generated csv file of `sizeMb` megabytes
+ * and build a CryptoSeries from it. Rows per second are reported as the `rows` secondary result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class CsvParserBenchmark {
+
+    @Param("200")
+    public int sizeMb;
+
+    private Path file;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        file = Files.createTempFile("BENCH_values", ".csv");
+        long targetSize = sizeMb * 1024L * 1024L;
+        Random random = new Random(42);
+        long timestamp = 1641016800000L;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("timestamp,symbol,price\n");
+            while (Files.size(file) < targetSize) {
+                for (int i = 0; i < 100_000; i++) {
+                    timestamp += random.nextInt(60_000);
+                    writer.write(Long.toString(timestamp));
+                    writer.write(",BENCH,");
+                    writer.write(Integer.toString(random.nextInt(100_000)));
+                    writer.write('.');
+                    writer.write(Integer.toString(random.nextInt(10_000)));
+                    writer.write('\n');
+                }
+                writer.flush();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public CryptoSeries streamingParser(Counters counters) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            CryptoSeries series = CryptoCsvParser.parse(inputStream);
+            counters.rows += series.size();
+            return series;
+        }
+    }
+
+    @Benchmark
+    public CryptoSeries openCsvBeanBinding(Counters counters) throws Exception {
+        try (CSVReader csvReader = new CSVReaderBuilder(new InputStreamReader(Files.newInputStream(file)))
+                .withRowValidator(new RegexRowValidator())
+                .build()) {
+            csvReader.readNext();
+            CsvToBean<CryptoEntry> csvToBean = new CsvToBean<>();
+            csvToBean.setCsvReader(csvReader);
+            ColumnPositionMappingStrategy<CryptoEntry> strategy = new ColumnPositionMappingStrategy<>();
+            strategy.setType(CryptoEntry.class);
+            csvToBean.setMappingStrategy(strategy);
+            List<CryptoEntry> entries = csvToBean.parse();
+            CryptoSeries.Builder builder = CryptoSeries.builder(entries.get(0).getSymbol());
+            entries.forEach(entry -> builder.add(Long.parseLong(entry.getTimeStamp()), entry.getPrice()));
+            counters.rows += entries.size();
+            return builder.build();
+        }
+    }
+
+    /**
+     * Row validation of the OpenCSV based upload path.
+     */
+    private static class RegexRowValidator implements RowValidator {
+
+        private String symbol;
+        private boolean headerSkipped;
+
+        @Override
+        public boolean isValid(String[] row) {
+            if (!headerSkipped) {
+                headerSkipped = true;
+                return true;
+            }
+            return row.length == 3
+                    && row[0].matches("^\\d+")
+                    && Long.parseLong(row[0]) < System.currentTimeMillis()
+                    && row[2].matches("^\\d+.?\\d*$")
+                    && row[1].equals(symbol == null ? symbol = row[1] : symbol);
+        }
+
+        @Override
+        public void validate(String[] row) throws CsvValidationException {
+            if (!isValid(row)) {
+                throw new CsvValidationException("Invalid row");
+            }
+        }
+    }
+}
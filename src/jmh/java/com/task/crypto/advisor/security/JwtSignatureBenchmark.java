@@ -0,0 +1,86 @@
+package com.task.crypto.advisor.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `JwtSignatureBenchmark` class compares signing and verification throughput of tokens issued
+ * like TokenGenerationServiceImpl does with RS256 and 2048 bit key against ES256 and P-256 key.
+ * Lengths of signatures of both algorithms are asserted by JwtKeysTest.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSignatureBenchmark {
+
+    @Param({"RS256", "ES256"})
+    public String algorithm;
+
+    private SignatureAlgorithm signatureAlgorithm;
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwtEncoderParameters parameters;
+    private String token;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        signatureAlgorithm = SignatureAlgorithm.from(algorithm);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(signatureAlgorithm == SignatureAlgorithm.ES256 ? "EC" : "RSA");
+        generator.initialize(signatureAlgorithm == SignatureAlgorithm.ES256 ? 256 : 2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        JWK jwk = JwtKeys.toJwk(signatureAlgorithm, keyPair.getPublic(), keyPair.getPrivate());
+        encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+        decoder = JwtKeys.decoder(List.of(jwk));
+        Instant now = Instant.now();
+        JwtClaimsSet claimsSet = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plus(4, ChronoUnit.HOURS))
+                .subject("admin")
+                .claim("scope", "AUTHORITY_READ AUTHORITY_WRITE")
+                .build();
+        parameters = JwtEncoderParameters.from(JwsHeader.with(signatureAlgorithm).build(), claimsSet);
+        token = encoder.encode(parameters).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt sign() {
+        return encoder.encode(parameters);
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.BenchmarkDatasets;
+import com.task.crypto.advisor.entities.csv.CryptoData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `CryptoDataServiceBenchmark` class measures time of CryptoDataServiceImpl.getCryptoData for date ranges
+ * of `rangeDays` days ending on the last day of a stored series of `rows` ticks.
+ * With `cached` set to false every call computes data from the series, otherwise it is served from the cached range map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class CryptoDataServiceBenchmark {
+
+    @Param({"1000", "1000000", "100000000"})
+    public int rows;
+
+    @Param({"1", "30", "365", "1095"})
+    public int rangeDays;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private Path dir;
+    private CryptoDataServiceImpl cryptoDataService;
+    private LocalDate dateFrom;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-data");
+        cryptoDataService = BenchmarkDatasets.dataService(BenchmarkDatasets.storage(dir), cached);
+        BenchmarkDatasets.storage(dir).save(BenchmarkDatasets.series("BENCH", rows, 42));
+        dateFrom = BenchmarkDatasets.LAST_DAY.minusDays(rangeDays - 1L);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkDatasets.delete(dir);
+    }
+
+    @Benchmark
+    public CryptoData getCryptoData() {
+        return cryptoDataService.getCryptoData("BENCH", dateFrom, BenchmarkDatasets.LAST_DAY);
+    }
+}
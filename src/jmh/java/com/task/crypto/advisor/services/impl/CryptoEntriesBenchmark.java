@@ -0,0 +1,59 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.BenchmarkDatasets;
+import com.task.crypto.advisor.entities.csv.CryptoEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `CryptoEntriesBenchmark` class measures time of CryptoDataServiceImpl.getCryptoEntries materializing
+ * all ticks of a stored series of `rows` ticks. Every entry takes about 200 bytes of heap,
+ * so the largest dataset is 10M rows; series of 100M rows are covered by CryptoDataServiceBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class CryptoEntriesBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int rows;
+
+    private Path dir;
+    private CryptoDataServiceImpl cryptoDataService;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-entries");
+        cryptoDataService = BenchmarkDatasets.dataService(BenchmarkDatasets.storage(dir), true);
+        BenchmarkDatasets.storage(dir).save(BenchmarkDatasets.series("BENCH", rows, 42));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkDatasets.delete(dir);
+    }
+
+    @Benchmark
+    public List<CryptoEntry> getCryptoEntries() {
+        return cryptoDataService.getCryptoEntries("BENCH");
+    }
+}
@@ -0,0 +1,76 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.BenchmarkDatasets;
+import com.task.crypto.advisor.configurations.StatisticsProperties;
+import com.task.crypto.advisor.dtos.NormalizedRange;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `CryptoStatisticsServiceBenchmark` class measures time of CryptoStatisticsServiceImpl.getNormalizedRangeForAllCryptos
+ * over `cryptos` stored cryptocurrencies of `rows` ticks each, so the largest dataset holds 100M rows in total.
+ * Statistics executor is configured with defaults of application.properties.
+ * With `cached` set to false data of every cryptocurrency is computed from its series on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class CryptoStatisticsServiceBenchmark {
+
+    @Param({"1000", "1000000", "20000000"})
+    public int rows;
+
+    @Param("5")
+    public int cryptos;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private Path dir;
+    private CryptoStatisticsServiceImpl cryptoStatisticsService;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-statistics");
+        CryptoSeriesStorage storage = BenchmarkDatasets.storage(dir);
+        for (int i = 0; i < cryptos; i++) {
+            storage.save(BenchmarkDatasets.series("BENCH" + i, rows, i));
+        }
+        cryptoStatisticsService = new CryptoStatisticsServiceImpl(BenchmarkDatasets.dataService(storage, cached),
+                new StatisticsProperties(4, 1024, Duration.ofSeconds(10)), new SimpleMeterRegistry());
+        cryptoStatisticsService.startExecutor();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cryptoStatisticsService.shutdownExecutor();
+        BenchmarkDatasets.delete(dir);
+    }
+
+    @Benchmark
+    public List<NormalizedRange> getNormalizedRangeForAllCryptos() {
+        return cryptoStatisticsService.getNormalizedRangeForAllCryptos();
+    }
+}
@@ -0,0 +1,108 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.BenchmarkDatasets;
+import com.task.crypto.advisor.dtos.UploadResponse;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import com.task.crypto.advisor.storage.DailyRollupFile;
+import com.task.crypto.advisor.storage.SegmentFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `CsvUploadServiceBenchmark` class measures time of CsvUploadServiceImpl.uploadCsv merging an upload
+ * of `uploadRows` ticks into a stored series of `rows` ticks. Half of uploaded ticks duplicate the newest stored ones
+ * and are dropped, the other half is newer and written as a delta segment.
+ * The delta is removed and the daily rollup restored after every call, so every call merges into the same stored series.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class CsvUploadServiceBenchmark {
+
+    @Param({"1000", "1000000", "100000000"})
+    public int rows;
+
+    @Param({"1000", "100000"})
+    public int uploadRows;
+
+    private Path dir;
+    private CsvUploadServiceImpl csvUploadService;
+    private MockMultipartFile file;
+    private Path rollup;
+    private byte[] storedRollup;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-upload");
+        CryptoSeriesStorage storage = BenchmarkDatasets.storage(dir);
+        CryptoSeries stored = BenchmarkDatasets.series("BENCH", rows, 42);
+        storage.save(stored);
+        rollup = dir.resolve("BENCH" + CryptoSeriesStorage.DAILY_SUFFIX + DailyRollupFile.SUFFIX);
+        storedRollup = Files.readAllBytes(rollup);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CsvValidationServiceImpl csvValidationService = new CsvValidationServiceImpl(meterRegistry);
+        csvValidationService.registerMetrics();
+        csvUploadService = new CsvUploadServiceImpl(csvValidationService,
+                BenchmarkDatasets.dataService(storage, true), storage, event -> {
+        }, meterRegistry);
+        csvUploadService.registerMetrics();
+        file = new MockMultipartFile("file", "BENCH_values.csv", "text/csv", BenchmarkDatasets.csv(upload(stored)));
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDeltas() throws IOException {
+        try (DirectoryStream<Path> deltas = Files.newDirectoryStream(dir, "BENCH_values.*" + SegmentFile.SUFFIX)) {
+            for (Path delta : deltas) {
+                Files.delete(delta);
+            }
+        }
+        Files.write(rollup, storedRollup);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkDatasets.delete(dir);
+    }
+
+    @Benchmark
+    public UploadResponse uploadCsv() {
+        return csvUploadService.uploadCsv(file);
+    }
+
+    private CryptoSeries upload(CryptoSeries stored) {
+        int duplicates = Math.min(uploadRows / 2, stored.size());
+        CryptoSeries.Builder builder = CryptoSeries.builder(stored.getSymbol());
+        for (int i = stored.size() - duplicates; i < stored.size(); i++) {
+            builder.add(stored.timestampAt(i), stored.priceAt(i));
+        }
+        long timestamp = stored.timestampAt(stored.size() - 1);
+        for (int i = duplicates; i < uploadRows; i++) {
+            builder.add(++timestamp, stored.priceAt(stored.size() - 1));
+        }
+        return builder.build();
+    }
+}
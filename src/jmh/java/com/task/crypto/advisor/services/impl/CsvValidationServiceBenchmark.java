@@ -0,0 +1,74 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.BenchmarkDatasets;
+import com.task.crypto.advisor.MarketDataGenerator;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `CsvValidationServiceBenchmark` class measures time of CsvValidationServiceImpl.readAndValidate
+ * reading a csv file of `rows` ticks generated by MarketDataGenerator into a CryptoSeries.
+ * `outOfOrderRatio` share of ticks is written out of order, which makes the series sorted after parsing.
+ * The file of 100M rows takes about 3GB of disk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class CsvValidationServiceBenchmark {
+
+    @Param({"1000", "1000000", "100000000"})
+    public int rows;
+
+    @Param({"0", "0.01"})
+    public double outOfOrderRatio;
+
+    private Path dir;
+    private Path file;
+    private final CsvValidationServiceImpl csvValidationService = new CsvValidationServiceImpl(new SimpleMeterRegistry());
+
+    @Setup
+    public void setUp() throws IOException {
+        csvValidationService.registerMetrics();
+        dir = Files.createTempDirectory("bench-validation");
+        Duration history = Duration.ofDays(BenchmarkDatasets.SPAN_DAYS);
+        file = MarketDataGenerator.builder()
+                .symbolCount(1)
+                .history(history)
+                .tickInterval(history.dividedBy(rows))
+                .outOfOrderRatio(outOfOrderRatio)
+                .build()
+                .generate(dir)
+                .get(0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkDatasets.delete(dir);
+    }
+
+    @Benchmark
+    public CryptoSeries readAndValidate() throws IOException {
+        return csvValidationService.readAndValidate(Files.newInputStream(file));
+    }
+}
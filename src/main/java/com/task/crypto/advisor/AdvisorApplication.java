@@ -1,18 +1,26 @@
 package com.task.crypto.advisor;
 
+import com.task.crypto.advisor.configurations.CaffeineCacheProperties;
 import com.task.crypto.advisor.configurations.CsvStorageProperties;
+import com.task.crypto.advisor.configurations.EcKeyProperties;
+import com.task.crypto.advisor.configurations.JwtProperties;
+import com.task.crypto.advisor.configurations.RateLimitProperties;
 import com.task.crypto.advisor.configurations.RsaKeyProperties;
+import com.task.crypto.advisor.configurations.StatisticsProperties;
+import com.task.crypto.advisor.configurations.WorkloadRecordingProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
 @EnableScheduling
-@EnableConfigurationProperties({RsaKeyProperties.class, CsvStorageProperties.class})
+@EnableAsync
+@EnableConfigurationProperties({RsaKeyProperties.class, EcKeyProperties.class, JwtProperties.class, CsvStorageProperties.class, CaffeineCacheProperties.class, StatisticsProperties.class, RateLimitProperties.class, WorkloadRecordingProperties.class})
 @EnableAspectJAutoProxy
 public class AdvisorApplication {
 
@@ -2,59 +2,114 @@ package com.task.crypto.advisor.aspects;
 
 import com.task.crypto.advisor.aspects.annotations.RateLimited;
 import com.task.crypto.advisor.exceptions.RateLimitException;
+import com.task.crypto.advisor.metrics.Metrics;
+import com.task.crypto.advisor.services.RateLimitService;
+import com.task.crypto.advisor.timing.RateLimitEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
-import org.aspectj.lang.annotation.Pointcut;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The `RateLimitAspect` class limits requests to controllers and methods annotated with RateLimited.
+ * Clients are identified by subject of their token or by IP if the request is not authenticated,
+ * tier of a client is given by scopes of its token. Limits of an annotated method take precedence over limits
+ * of its controller. Rate limiting is switched off by 'application.rate-limit.enabled=false'.
+ */
 @Aspect
 @Configuration
+@ConditionalOnProperty(prefix = "application.rate-limit", name = "enabled", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class RateLimitAspect {
 
-    private static final int REQUEST_LIMIT = 5;
     private static final String X_FORWARDED_HEADER = "X-FORWARDED-FOR";
-    private final CacheManager cacheManager;
-    @Value("${application.cache.requestCount}")
-    private String requestCountCacheName;
+    private static final String SCOPE_PREFIX = "SCOPE_";
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+    private final RateLimitService rateLimitService;
+    private final BeanFactory beanFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Expression> costExpressions = new ConcurrentHashMap<>();
 
-    @Pointcut("@within(rateLimited) || @annotation(rateLimited)")
-    public void rateLimitedClassOrMethod(RateLimited rateLimited) {
-    }
-
-    @Before(value = "@within(rateLimited) || @annotation(rateLimited)", argNames = "rateLimited")
-    public void checkRateLimit(RateLimited rateLimited) {
-        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
-        String ipAddress = getIpAddress(request);
-        AtomicInteger requestCount = getRequestCount(ipAddress);
-        if (requestCount.get() >= REQUEST_LIMIT) {
-            log.error("Rate limit exceeded for IP: " + ipAddress);
-            throw new RateLimitException("Rate limit exceeded for IP: " + ipAddress);
+    @Before("@within(com.task.crypto.advisor.aspects.annotations.RateLimited) || @annotation(com.task.crypto.advisor.aspects.annotations.RateLimited)")
+    public void checkRateLimit(JoinPoint joinPoint) {
+        RateLimitEvent event = new RateLimitEvent();
+        event.start();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        AnnotatedElement scope = method;
+        RateLimited rateLimited = AnnotationUtils.findAnnotation(method, RateLimited.class);
+        if (rateLimited == null) {
+            Class<?> controller = AopUtils.getTargetClass(joinPoint.getTarget());
+            scope = controller;
+            rateLimited = AnnotationUtils.findAnnotation(controller, RateLimited.class);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String client;
+        List<String> scopes;
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            client = "principal:" + authentication.getName();
+            scopes = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .filter(authority -> authority.startsWith(SCOPE_PREFIX))
+                    .map(authority -> authority.substring(SCOPE_PREFIX.length()))
+                    .toList();
+        } else {
+            HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+            client = "ip:" + getIpAddress(request);
+            scopes = List.of();
+        }
+        long cost = getCost(rateLimited, method, joinPoint.getArgs());
+        String methodName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        boolean allowed = rateLimitService.tryAcquire(client, scopes, scope, rateLimited, cost);
+        event.setChecked(methodName, cost, allowed);
+        event.finish();
+        if (!allowed) {
+            log.error("Rate limit exceeded for {} on request of cost {}", client, cost);
+            Counter.builder(Metrics.RATE_LIMIT_REJECTIONS)
+                    .description("Requests rejected by rate limiting")
+                    .tag("method", methodName)
+                    .register(meterRegistry)
+                    .increment();
+            throw new RateLimitException("Rate limit exceeded for " + client);
         }
-        requestCount.incrementAndGet();
     }
 
-    public AtomicInteger getRequestCount(String ipAddress) {
-        return Optional
-                .ofNullable(cacheManager.getCache(requestCountCacheName))
-                .map(cache -> cache.get(ipAddress, AtomicInteger.class))
-                .orElseGet(() -> {
-                    AtomicInteger returnAtomic = new AtomicInteger(0);
-                    Objects.requireNonNull(cacheManager.getCache(requestCountCacheName)).put(ipAddress, returnAtomic);
-                    return returnAtomic;
-                });
+    private long getCost(RateLimited rateLimited, Method method, Object[] args) {
+        Expression expression = costExpressions.computeIfAbsent(rateLimited.cost(), PARSER::parseExpression);
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null, method, args, PARAMETER_NAME_DISCOVERER);
+        context.setBeanResolver(new BeanFactoryResolver(beanFactory));
+        Long cost = expression.getValue(context, Long.class);
+        return cost == null ? 1 : Math.max(1, cost);
     }
 
     private String getIpAddress(HttpServletRequest request) {
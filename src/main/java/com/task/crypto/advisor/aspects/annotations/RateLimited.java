@@ -4,8 +4,28 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Limits rate of requests of a client to the annotated controller or method by token bucket:
+ * a client may send up to `capacity` requests at once, spent tokens are refilled at `refillTokens` per `refillPeriod`.
+ * Methods of an annotated controller share one bucket, an annotated method has its own bucket and limits,
+ * which override limits of the controller.
+ * Every request takes `cost` tokens, the cost is SpEL expression evaluated against arguments of the annotated method
+ * by their names, beans are referenced by '@beanName'. Cost above the capacity of the bucket takes the full bucket. Limits are multiplied by the tier of the client,
+ * see RateLimitProperties.
+ */
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RateLimited {
+
+    int capacity() default 5;
+
+    int refillTokens() default 5;
+
+    long refillPeriod() default 60;
+
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    String cost() default "1";
 }
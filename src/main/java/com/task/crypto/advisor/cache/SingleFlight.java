@@ -0,0 +1,99 @@
+package com.task.crypto.advisor.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The `SingleFlight` class coalesces concurrent loads of the same key: the first caller runs the loader,
+ * callers arriving while it is in flight wait for its result instead of running the loader again.
+ * A key is forgotten as soon as its load completes, so results are never cached here.
+ * If the loader fails, all waiters of the load get the same exception, unless the failing caller was interrupted:
+ * failure of a cancelled caller is not theirs, so waiters start the load again instead.
+ *
+ * @param <K> Type of load keys.
+ * @param <V> Type of loaded values.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Loads value of the key or joins load of the key that is already in flight.
+     *
+     * @param key    The key to load.
+     * @param loader Loader of the value, it runs in the calling thread.
+     * @return Loaded value.
+     */
+    public V load(K key, Supplier<V> loader) {
+        while (true) {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+            if (running == null) {
+                return lead(key, future, loader);
+            }
+            coalesced.increment();
+            try {
+                return join(running);
+            } catch (LeaderInterruptedException e) {
+                // the load is started again by this caller or joined if another waiter was faster
+            }
+        }
+    }
+
+    /**
+     * @return Number of callers which joined a load in flight instead of running the loader.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Number of loads currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> future, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(Thread.currentThread().isInterrupted() ? new LeaderInterruptedException() : e);
+            throw e;
+        }
+        inFlight.remove(key, future);
+        future.complete(value);
+        return value;
+    }
+
+    private V join(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Completes load of an interrupted caller, so its waiters load the key again.
+     */
+    private static final class LeaderInterruptedException extends RuntimeException {
+
+        private LeaderInterruptedException() {
+            super("Load was interrupted", null, false, false);
+        }
+    }
+}
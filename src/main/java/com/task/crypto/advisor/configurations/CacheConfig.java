@@ -0,0 +1,54 @@
+package com.task.crypto.advisor.configurations;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.SeriesPyramid;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * The `CacheConfig` class registers bounded Caffeine caches described by CaffeineCacheProperties.
+ * All caches record hit, miss and eviction statistics, which are published as 'cache.*' metrics.
+ */
+@Configuration
+public class CacheConfig {
+
+    private static final Weigher<Object, Object> SINGLE_WEIGHER = (key, value) -> 1;
+    private static final Map<String, Weigher<Object, Object>> WEIGHERS = Map.of(
+            "cryptoSeries", (key, value) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, ((CryptoSeries) value).getHeapBytes())),
+            "cryptoPyramids", (key, value) -> Math.max(1, ((SeriesPyramid) value).getDownsampledSize())
+    );
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> caffeineCacheManagerCustomizer(CaffeineCacheProperties caffeineCacheProperties) {
+        return cacheManager -> {
+            cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+            if (caffeineCacheProperties.caches() != null) {
+                caffeineCacheProperties.caches().forEach((name, spec) ->
+                        cacheManager.registerCustomCache(name, configure(name, spec).build()));
+            }
+        };
+    }
+
+    private Caffeine<Object, Object> configure(String name, CaffeineCacheProperties.Spec spec) {
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+        if (spec.maximumSize() != null) {
+            caffeine.maximumSize(spec.maximumSize());
+        }
+        if (spec.maximumWeight() != null) {
+            caffeine.maximumWeight(spec.maximumWeight()).weigher(WEIGHERS.getOrDefault(name, SINGLE_WEIGHER));
+        }
+        if (spec.expireAfterWrite() != null) {
+            caffeine.expireAfterWrite(spec.expireAfterWrite());
+        }
+        if (spec.expireAfterAccess() != null) {
+            caffeine.expireAfterAccess(spec.expireAfterAccess());
+        }
+        return caffeine;
+    }
+}
@@ -0,0 +1,18 @@
+package com.task.crypto.advisor.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Bounds and expiration of application caches by cache name, absent values are not applied.
+ * Maximum weight is measured in heap bytes for 'cryptoSeries', series mapped from segment files weigh next to nothing,
+ * in downsampled ticks for 'cryptoPyramids', in entries otherwise.
+ */
+@ConfigurationProperties(prefix = "application.caffeine")
+public record CaffeineCacheProperties(Map<String, Spec> caches) {
+
+    public record Spec(Long maximumSize, Long maximumWeight, Duration expireAfterWrite, Duration expireAfterAccess) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.task.crypto.advisor.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+/**
+ * PEM encoded EC key pair for ES* signature algorithms, public key in X.509 and private key in PKCS#8 format.
+ */
+@ConfigurationProperties(prefix = "ec")
+public record EcKeyProperties(Resource publicKey, Resource privateKey) {
+}
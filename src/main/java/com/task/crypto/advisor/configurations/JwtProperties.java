@@ -0,0 +1,15 @@
+package com.task.crypto.advisor.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import java.util.List;
+
+/**
+ * Signing of issued tokens: signature algorithm, RS* algorithms sign with 'rsa.*' keys, ES* algorithms with 'ec.*' keys,
+ * and PEM public keys of previously used signing keys, tokens signed by them are still accepted during rotation.
+ */
+@ConfigurationProperties(prefix = "jwt")
+public record JwtProperties(SignatureAlgorithm algorithm, List<Resource> previousPublicKeys) {
+}
@@ -0,0 +1,16 @@
+package com.task.crypto.advisor.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Rate limiting of requests: maximum number of client buckets kept in memory,
+ * least recently used buckets are evicted above it, and tiers of clients by authority of their 'scope' claim.
+ * Capacity and refill rate of a client are multiplied by the biggest tier of its authorities, 1 if none matches.
+ * With shared 'jdbc' backend replicas lease up to `leaseTokens` tokens at once and return unspent ones after `leaseDuration`.
+ */
+@ConfigurationProperties(prefix = "application.rate-limit")
+public record RateLimitProperties(long maximumClients, Map<String, Integer> tiers, int leaseTokens, Duration leaseDuration) {
+}
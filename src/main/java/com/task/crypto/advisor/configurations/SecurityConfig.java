@@ -2,12 +2,22 @@ package com.task.crypto.advisor.configurations;
 
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.task.crypto.advisor.security.CachingJwtDecoder;
+import com.task.crypto.advisor.security.CachingPasswordEncoder;
+import com.task.crypto.advisor.security.JwtKeys;
 import com.task.crypto.advisor.services.impl.ApplicationUserDetailsService;
+import com.task.crypto.advisor.timing.ServerTimingFilter;
+import com.task.crypto.advisor.workload.WorkloadRecorder;
+import com.task.crypto.advisor.workload.WorkloadRecordingFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,13 +29,20 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.ExceptionTranslationFilter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 @Configuration
 @EnableWebSecurity
@@ -35,25 +52,49 @@ public class SecurityConfig {
 
     private final ApplicationUserDetailsService applicationUserDetailsService;
     private final RsaKeyProperties rsaKeyProperties;
+    private final EcKeyProperties ecKeyProperties;
+    private final JwtProperties jwtProperties;
+    private final CacheManager cacheManager;
+
+    @Value("${application.cache.users}")
+    private String usersCacheName;
+    @Value("${application.credentials-cache.maximum-size:1000}")
+    private long credentialsCacheMaximumSize;
+    @Value("${application.credentials-cache.expire-after-write:5m}")
+    private Duration credentialsCacheExpireAfterWrite;
+    @Value("${application.server-timing.authority:AUTHORITY_DEBUG}")
+    private String serverTimingAuthority;
+    @Value("${application.actuator.authority:AUTHORITY_METRICS}")
+    private String actuatorAuthority;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new CachingPasswordEncoder(new BCryptPasswordEncoder(), credentialsCacheMaximumSize, credentialsCacheExpireAfterWrite);
     }
 
+    /**
+     * User details are cached in 'users' cache, the principal of authentication is its user name,
+     * so erasing credentials of authentication doesn't erase password of cached user details.
+     */
     @Bean
     public AuthenticationManager authenticationManager() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setPasswordEncoder(passwordEncoder());
         authProvider.setUserDetailsService(applicationUserDetailsService);
+        authProvider.setUserCache(new SpringCacheBasedUserCache(Objects.requireNonNull(cacheManager.getCache(usersCacheName))));
+        authProvider.setForcePrincipalAsString(true);
         return new ProviderManager(authProvider);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectProvider<WorkloadRecorder> workloadRecorder) throws Exception {
+        http.addFilterBefore(new ServerTimingFilter(serverTimingAuthority), BearerTokenAuthenticationFilter.class);
+        workloadRecorder.ifAvailable(recorder -> http.addFilterBefore(new WorkloadRecordingFilter(recorder), ExceptionTranslationFilter.class));
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAuthority("SCOPE_" + actuatorAuthority)
                         .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2ResServerConf -> oauth2ResServerConf
                         .jwt(Customizer.withDefaults()))
@@ -63,17 +104,33 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(rsaKeyProperties.publicKey()).build();
+    public CachingJwtDecoder jwtDecoder(@Value("${application.jwt-cache.maximum-size:10000}") long maximumSize) {
+        List<JWK> verificationKeys = new ArrayList<>();
+        verificationKeys.add(signingKey());
+        if (jwtProperties.previousPublicKeys() != null) {
+            jwtProperties.previousPublicKeys().stream().map(JwtKeys::toJwk).forEach(verificationKeys::add);
+        }
+        return new CachingJwtDecoder(JwtKeys.decoder(verificationKeys), maximumSize);
     }
 
     @Bean
     public JwtEncoder jwtEncoder() {
-        JWK jwk = new RSAKey
-                .Builder(rsaKeyProperties.publicKey())
-                .privateKey(rsaKeyProperties.privateKey())
-                .build();
-        JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(new JWKSet(jwk));
+        JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(new JWKSet(signingKey()));
         return new NimbusJwtEncoder(jwkSource);
     }
+
+    /**
+     * Signing key of 'jwt.algorithm', RSA key pair for RS* algorithms and EC key pair for ES* algorithms.
+     */
+    private JWK signingKey() {
+        SignatureAlgorithm algorithm = jwtProperties.algorithm();
+        if (algorithm.getName().startsWith("ES")) {
+            if (ecKeyProperties.publicKey() == null || ecKeyProperties.privateKey() == null) {
+                throw new IllegalStateException("ec.public-key and ec.private-key are required for " + algorithm + " algorithm");
+            }
+            return JwtKeys.toJwk(algorithm, JwtKeys.readPublicKey(ecKeyProperties.publicKey()),
+                    JwtKeys.readPrivateKey(ecKeyProperties.privateKey()));
+        }
+        return JwtKeys.toJwk(algorithm, rsaKeyProperties.publicKey(), rsaKeyProperties.privateKey());
+    }
 }
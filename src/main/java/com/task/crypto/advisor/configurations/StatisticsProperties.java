@@ -0,0 +1,13 @@
+package com.task.crypto.advisor.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Parallel computation of statistics over all cryptocurrencies: number of worker threads,
+ * capacity of the queue of pending per-cryptocurrency tasks and deadline of a single request.
+ */
+@ConfigurationProperties(prefix = "application.statistics")
+public record StatisticsProperties(int parallelism, int queueCapacity, Duration deadline) {
+}
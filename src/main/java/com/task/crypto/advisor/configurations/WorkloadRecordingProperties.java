@@ -0,0 +1,11 @@
+package com.task.crypto.advisor.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Recording of requests to controllers: file the workload log is appended to and capacity of the queue
+ * of records waiting to be written, records are dropped while the queue is full.
+ */
+@ConfigurationProperties(prefix = "application.workload-recording")
+public record WorkloadRecordingProperties(String file, int queueCapacity) {
+}
@@ -14,10 +14,12 @@ import java.time.LocalDateTime;
 public class ApplicationExceptionHandler {
 
     @ExceptionHandler({
+            BatchSizeException.class,
             CryptoDataNotFoundException.class,
             CryptoStatisticException.class,
             CryptoValuesCsvValidationException.class,
             RateLimitException.class,
+            StatisticsTimeoutException.class,
             UploadCsvException.class
     })
     public ResponseEntity<ErrorResponse> mapExceptionToErrorResponse(Exception e) {
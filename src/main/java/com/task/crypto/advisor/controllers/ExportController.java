@@ -0,0 +1,116 @@
+package com.task.crypto.advisor.controllers;
+
+import com.task.crypto.advisor.aspects.annotations.RateLimited;
+import com.task.crypto.advisor.exceptions.CryptoDataNotFoundException;
+import com.task.crypto.advisor.exceptions.CryptoStatisticException;
+import com.task.crypto.advisor.services.CryptoExportService;
+import com.task.crypto.advisor.storage.SegmentExport;
+import com.task.crypto.advisor.storage.SegmentFile;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The `ExportController` class handles RESTful endpoints exporting raw price ticks of cryptocurrencies.
+ * Ticks are streamed in segment file format straight from the storage, so exports of any size don't load entries
+ * into heap. Single byte ranges are supported, so interrupted exports are resumed with 'Range' header,
+ * 'If-Range' header with ETag of the export makes sure the resumed export has the same content.
+ * The base request mapping for this controller is "/export".
+ */
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+@RateLimited(capacity = 20, refillTokens = 20)
+@Slf4j
+public class ExportController {
+
+    private static final String BYTES = "bytes";
+    private final CryptoExportService cryptoExportService;
+
+    /**
+     * Streams raw price ticks of a specific cryptocurrency as segment file:
+     * 24 bytes little-endian header (magic "CSEG", version, scale, reserved byte, tick count, generation),
+     * followed by timestamps, unscaled prices and scales of ticks.
+     *
+     * @param crypto   The name of the cryptocurrency.
+     * @param dateFrom Optional first date of time period in yyyy-MM-dd format.
+     * @param dateTo   Optional last date of time period in yyyy-MM-dd format.
+     * @param range    Optional single byte range of the export to stream.
+     * @param ifRange  Optional ETag of the export the range is requested for.
+     * @param response Response the export is streamed to.
+     * @throws CryptoDataNotFoundException if there is no data for such crypto name
+     * @throws CryptoStatisticException if the time period is inappropriate
+     */
+    @GetMapping("/{crypto}")
+    public void exportTicks(@PathVariable("crypto") String crypto,
+                            @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateFrom,
+                            @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateTo,
+                            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                            HttpServletResponse response) throws IOException {
+        if (dateFrom != null && dateTo != null && dateTo.isBefore(dateFrom)) {
+            log.error("Inappropriate dates dateFrom: {} dateTo: {} ", dateFrom, dateTo);
+            throw new CryptoStatisticException("Can`t export ticks for inappropriate date period");
+        }
+        try (SegmentExport export = cryptoExportService.openExport(crypto, dateFrom, dateTo)) {
+            long length = export.length();
+            String etag = "\"" + export.getVersion() + "\"";
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(export.getSymbol() + SegmentFile.SUFFIX).build().toString());
+            long start = 0;
+            long end = length - 1;
+            HttpRange httpRange = ifRange == null || ifRange.equals(etag) ? parseRange(range) : null;
+            if (httpRange != null) {
+                start = httpRange.getRangeStart(length);
+                end = httpRange.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    log.error("Unsatisfiable range {} of export of {} bytes", range, length);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + length);
+            }
+            response.setContentLengthLong(end - start + 1);
+            cryptoExportService.transfer(export, start, end - start + 1, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * @return The requested range, null if there is none, it's malformed or there are several of them,
+     * in which case the whole export is streamed.
+     */
+    private HttpRange parseRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed range {}", range);
+            return null;
+        }
+    }
+}
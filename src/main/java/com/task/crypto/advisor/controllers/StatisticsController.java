@@ -1,33 +1,52 @@
 package com.task.crypto.advisor.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.task.crypto.advisor.aspects.annotations.RateLimited;
+import com.task.crypto.advisor.dtos.Candle;
 import com.task.crypto.advisor.dtos.CryptoStats;
+import com.task.crypto.advisor.dtos.DownsampledSeries;
+import com.task.crypto.advisor.dtos.Downsampling;
 import com.task.crypto.advisor.dtos.NormalizedRange;
+import com.task.crypto.advisor.dtos.StatisticsQuery;
+import com.task.crypto.advisor.exceptions.BatchSizeException;
 import com.task.crypto.advisor.exceptions.CryptoDataNotFoundException;
 import com.task.crypto.advisor.exceptions.CryptoStatisticException;
 import com.task.crypto.advisor.services.CryptoStatisticsService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
 /**
  * The `StatisticsController` class handles RESTful endpoints related to cryptocurrency statistics.
  * It provides methods to retrieve normalized ranges, specific cryptocurrency statistics, and highest
- * normalized values within a given time period.
+ * normalized values within a given time period, daily candles and downsampled price series of a cryptocurrency.
  * The base request mapping for this controller is "/statistics".
+ * Requests scanning all cryptocurrencies cost one rate limit token per cryptocurrency,
+ * batch requests cost one token per distinct requested cryptocurrency and one more per 10 queries.
  */
 @RestController
 @RequestMapping("/statistics")
 @RequiredArgsConstructor
-@RateLimited
+@RateLimited(capacity = 20, refillTokens = 20)
 @Slf4j
 public class StatisticsController {
 
+    private static final String SYMBOLS_SCANNED = "@statisticsCosts.symbolsScanned()";
+    private static final String BATCH_COST = "@statisticsCosts.batch(#queries)";
+    private static final int MAX_BATCH_QUERIES = 1000;
+    private static final int MIN_POINTS = 2;
+    private static final int MAX_POINTS = 10000;
     private final CryptoStatisticsService cryptoStatisticsService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Retrieves a list of normalized ranges for all cryptocurrencies, sorted in descending order
@@ -35,6 +54,7 @@ public class StatisticsController {
      * @return NormalizedRange of all available cryptos
      */
     @GetMapping("/normalized-values")
+    @RateLimited(capacity = 20, refillTokens = 20, cost = SYMBOLS_SCANNED)
     public List<NormalizedRange> getSortedNormalizedValues() {
         return cryptoStatisticsService.getNormalizedRangeForAllCryptos();
     }
@@ -51,6 +71,91 @@ public class StatisticsController {
         return cryptoStatisticsService.getCryptoStatisticsByName(crypto);
     }
 
+    /**
+     * Retrieves statistics of many cryptocurrencies and date ranges in one request. Queries of the same cryptocurrency
+     * are answered together and results are streamed as a JSON array while they are computed,
+     * grouped by cryptocurrency and identified by the index of their query.
+     * Queries which couldn't be answered get results with error instead of statistics.
+     *
+     * @param queries  Up to 1000 queries of cryptocurrency name and optional first and last dates in yyyy-MM-dd format.
+     * @param response Response the results are streamed to.
+     * @throws BatchSizeException if there are too many queries
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @RateLimited(capacity = 20, refillTokens = 20, cost = BATCH_COST)
+    public void getBatchStatistics(@RequestBody List<StatisticsQuery> queries, HttpServletResponse response) throws IOException {
+        if (queries.size() > MAX_BATCH_QUERIES) {
+            log.error("Inappropriate number of queries: {}", queries.size());
+            throw new BatchSizeException(String.format("Number of queries shouldn't exceed %d", MAX_BATCH_QUERIES));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            cryptoStatisticsService.getBatchStatistics(queries, result -> {
+                try {
+                    generator.writeObject(result);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Retrieves daily open, high, low and close prices of a specific cryptocurrency.
+     *
+     * @param crypto   The name of the cryptocurrency.
+     * @param dateFrom Optional first date of time period in yyyy-MM-dd format.
+     * @param dateTo   Optional last date of time period in yyyy-MM-dd format.
+     * @return Daily candles of the cryptocurrency ordered by date.
+     * @throws CryptoDataNotFoundException if there is no data for such crypto name
+     * @throws CryptoStatisticException if the time period is inappropriate
+     */
+    @GetMapping("/candles/{crypto}")
+    public List<Candle> getDailyCandles(@PathVariable("crypto") String crypto,
+                                        @RequestParam(value = "dateFrom", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateFrom,
+                                        @RequestParam(value = "dateTo", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateTo) {
+        if (dateFrom != null && dateTo != null && dateTo.isBefore(dateFrom)) {
+            log.error("Inappropriate dates dateFrom: {} dateTo: {} ", dateFrom, dateTo);
+            throw new CryptoStatisticException("Can`t obtain candles for inappropriate date period");
+        }
+        return cryptoStatisticsService.getDailyCandles(crypto, dateFrom, dateTo);
+    }
+
+    /**
+     * Retrieves price series of a specific cryptocurrency reduced to at most the given number of points,
+     * taken from the finest resolution from raw ticks to weeks fitting them.
+     *
+     * @param crypto       The name of the cryptocurrency.
+     * @param dateFrom     Optional first date of time period in yyyy-MM-dd format.
+     * @param dateTo       Optional last date of time period in yyyy-MM-dd format.
+     * @param points       Maximal number of points, from 2 to 10000.
+     * @param downsampling NONE or LTTB, the way of reducing the series.
+     * @return Downsampled series of the cryptocurrency ordered by time.
+     * @throws CryptoDataNotFoundException if there is no data for such crypto name
+     * @throws CryptoStatisticException if the time period or the number of points is inappropriate,
+     *                                  or the series doesn't fit the points without downsampling
+     */
+    @GetMapping("/series/{crypto}")
+    public DownsampledSeries getDownsampledSeries(@PathVariable("crypto") String crypto,
+                                                  @RequestParam(value = "dateFrom", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateFrom,
+                                                  @RequestParam(value = "dateTo", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateTo,
+                                                  @RequestParam(value = "points", defaultValue = "1000") int points,
+                                                  @RequestParam(value = "downsampling", defaultValue = "LTTB") Downsampling downsampling) {
+        if (dateFrom != null && dateTo != null && dateTo.isBefore(dateFrom)) {
+            log.error("Inappropriate dates dateFrom: {} dateTo: {} ", dateFrom, dateTo);
+            throw new CryptoStatisticException("Can`t obtain series for inappropriate date period");
+        }
+        if (points < MIN_POINTS || points > MAX_POINTS) {
+            log.error("Inappropriate number of points: {}", points);
+            throw new CryptoStatisticException(String.format("Number of points should be from %d to %d", MIN_POINTS, MAX_POINTS));
+        }
+        return cryptoStatisticsService.getDownsampledSeries(crypto, dateFrom, dateTo, points, downsampling);
+    }
+
     /**
      * Retrieves the highest normalized value for a specific time period.
      *
@@ -60,6 +165,7 @@ public class StatisticsController {
      * @throws CryptoStatisticException if there no data for such date period
      */
     @GetMapping("/highest-normalized-range/{dateFrom}/{dateTo}")
+    @RateLimited(capacity = 20, refillTokens = 20, cost = SYMBOLS_SCANNED)
     public NormalizedRange getHighestNormalizedValueCrypto(@PathVariable("dateFrom") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateFrom, @PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateTo) {
         if (dateTo.isBefore(dateFrom) || dateFrom.isAfter(LocalDate.now())) {
             log.error("Inappropriate dates dateFrom: {} dateTo: {} ", dateFrom, dateTo);
@@ -17,11 +17,12 @@ import org.springframework.web.multipart.MultipartFile;
 /**
  * The `UploadController` class is responsible for handling data uploads via RESTful endpoints.
  * It provides a method to upload new data from a CSV file and receive a response about the upload process.
+ * Uploads cost one rate limit token per started 10MB of the file.
  **/
 @RestController
 @RequiredArgsConstructor
 @Slf4j
-@RateLimited
+@RateLimited(capacity = 25, refillTokens = 25, cost = "#file.size / 10485760 + 1")
 @RequestMapping("/upload")
 public class UploadController {
 
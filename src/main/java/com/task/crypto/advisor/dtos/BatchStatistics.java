@@ -0,0 +1,23 @@
+package com.task.crypto.advisor.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchStatistics {
+    private int index;
+    private String symbol;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal oldest;
+    private BigDecimal newest;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.task.crypto.advisor.dtos;
+
+import com.task.crypto.advisor.storage.Resolution;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class DownsampledSeries {
+    private String crypto;
+    private Resolution resolution;
+    private Downsampling downsampling;
+    private List<PricePoint> points;
+}
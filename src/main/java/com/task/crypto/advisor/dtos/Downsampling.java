@@ -0,0 +1,11 @@
+package com.task.crypto.advisor.dtos;
+
+/**
+ * The `Downsampling` enum lists ways of reducing a price series to the requested number of points.
+ * NONE returns all ticks of the finest resolution fitting the number of points and fails if even weeks don't fit,
+ * LTTB takes a finer resolution and keeps the ticks preserving the shape of the series by Largest-Triangle-Three-Buckets.
+ */
+public enum Downsampling {
+    NONE,
+    LTTB
+}
@@ -0,0 +1,13 @@
+package com.task.crypto.advisor.dtos;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class PricePoint {
+    private long timestamp;
+    private BigDecimal price;
+}
@@ -0,0 +1,18 @@
+package com.task.crypto.advisor.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsQuery {
+    private String crypto;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+}
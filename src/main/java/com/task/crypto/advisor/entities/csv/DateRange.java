@@ -0,0 +1,8 @@
+package com.task.crypto.advisor.entities.csv;
+
+import java.time.LocalDate;
+
+
+public record DateRange(LocalDate dateFrom, LocalDate dateTo) {
+
+}
@@ -1,5 +1,6 @@
 package com.task.crypto.advisor.entities.db;
 
+import com.task.crypto.advisor.listeners.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,6 +9,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
+@EntityListeners(UserCacheEvictionListener.class)
 @Data
 @Table(name = "application_user")
 @EqualsAndHashCode(exclude = {"roles"})
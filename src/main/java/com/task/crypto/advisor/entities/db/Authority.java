@@ -1,5 +1,6 @@
 package com.task.crypto.advisor.entities.db;
 
+import com.task.crypto.advisor.listeners.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,6 +9,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(UserCacheEvictionListener.class)
 @Data
 @Table(name = "authority")
 @EqualsAndHashCode(exclude = {"roles"})
@@ -1,5 +1,6 @@
 package com.task.crypto.advisor.entities.db;
 
+import com.task.crypto.advisor.listeners.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +8,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(UserCacheEvictionListener.class)
 @Data
 @Table(name = "role")
 @EqualsAndHashCode(exclude = {"authorities", "applicationUsers"})
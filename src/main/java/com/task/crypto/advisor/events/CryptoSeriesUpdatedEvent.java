@@ -0,0 +1,18 @@
+package com.task.crypto.advisor.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * The `CryptoSeriesUpdatedEvent` class is published when stored price ticks of a cryptocurrency change.
+ */
+@Getter
+public class CryptoSeriesUpdatedEvent extends ApplicationEvent {
+
+    private final String symbol;
+
+    public CryptoSeriesUpdatedEvent(Object source, String symbol) {
+        super(source);
+        this.symbol = symbol;
+    }
+}
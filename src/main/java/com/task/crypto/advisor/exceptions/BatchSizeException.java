@@ -0,0 +1,12 @@
+package com.task.crypto.advisor.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Batch contains too many queries, split it into smaller batches")
+public class BatchSizeException extends RuntimeException {
+
+    public BatchSizeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.task.crypto.advisor.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Statistics couldn't be computed in time, try again later")
+public class StatisticsTimeoutException extends RuntimeException {
+
+    public StatisticsTimeoutException(String message) {
+        super(message);
+    }
+
+    public StatisticsTimeoutException(String message, Exception cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+package com.task.crypto.advisor.listeners;
+
+import com.task.crypto.advisor.events.CryptoSeriesUpdatedEvent;
+import com.task.crypto.advisor.services.CryptoDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * The `CryptoDataRefreshListener` class recomputes cached statistics of an updated cryptocurrency in background,
+ * so requests keep being served from cache while the upload is applied.
+ */
+@RequiredArgsConstructor
+@Component
+@Slf4j
+public class CryptoDataRefreshListener implements ApplicationListener<CryptoSeriesUpdatedEvent> {
+
+    private final CryptoDataService cryptoDataService;
+
+    @Async
+    @Override
+    public void onApplicationEvent(CryptoSeriesUpdatedEvent event) {
+        log.info("Refreshing cached statistics of {}", event.getSymbol());
+        cryptoDataService.refreshCryptoData(event.getSymbol());
+    }
+}
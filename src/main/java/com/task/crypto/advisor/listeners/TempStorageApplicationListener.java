@@ -1,6 +1,8 @@
 package com.task.crypto.advisor.listeners;
 
 import com.task.crypto.advisor.configurations.CsvStorageProperties;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import com.task.crypto.advisor.storage.CsvSegmentConverter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationListener;
@@ -11,31 +13,46 @@ import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 
-
+/**
+ * The `TempStorageApplicationListener` class prepares data storage directory on application start,
+ * initial csv price files are converted into binary segment files of the storage.
+ * Legacy csv price files of an existing storage directory are migrated to segment files once on start.
+ */
 @RequiredArgsConstructor
 @Component
 @Slf4j
 public class TempStorageApplicationListener implements ApplicationListener<ContextRefreshedEvent> {
 
     private final CsvStorageProperties csvStorageProperties;
+    private final CryptoSeriesStorage cryptoSeriesStorage;
+    private final CsvSegmentConverter csvSegmentConverter;
 
 
     @Override
     public void onApplicationEvent(ContextRefreshedEvent event) {
         if (Files.exists(Path.of(csvStorageProperties.targetDir()))) {
+            int migrated = cryptoSeriesStorage.migrateLegacyCsv();
+            if (migrated > 0) {
+                log.info("Migrated {} legacy csv files of temporary resource folder.", migrated);
+            }
             return;
         }
         log.info("Creating temporary resource folder.");
         try {
             ResourcePatternResolver resourcePatResolver = new PathMatchingResourcePatternResolver();
             Resource[] csvResources = resourcePatResolver.getResources("classpath*:" + csvStorageProperties.initialDir() + "/*.csv");
-            Path tempDirectory = Files.createDirectory(Path.of(csvStorageProperties.targetDir()));
+            Files.createDirectory(Path.of(csvStorageProperties.targetDir()));
             for (Resource resource : csvResources) {
-                Files.copy(resource.getInputStream(), tempDirectory.resolve(Objects.requireNonNull(resource.getFilename())));
+                String fileName = Objects.requireNonNull(resource.getFilename());
+                String symbol = fileName.substring(0, fileName.lastIndexOf(CryptoSeriesStorage.VALUES_SUFFIX));
+                try (InputStream inputStream = resource.getInputStream()) {
+                    csvSegmentConverter.convert(inputStream, symbol, cryptoSeriesStorage.getSegmentPath(symbol));
+                }
             }
         } catch (IOException e) {
             log.error("Couldn't obtain resource files and place them in temporary directory", e);
@@ -0,0 +1,64 @@
+package com.task.crypto.advisor.listeners;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The `UserCacheEvictionListener` class is JPA entity listener of users, roles and authorities,
+ * it clears cached user details when any of them is persisted, updated or removed, as a role or authority change
+ * affects all users having it. Within a transaction the cache is cleared once after commit, so a login
+ * running before the commit can't cache details read before the change.
+ */
+@RequiredArgsConstructor
+@Component
+@Slf4j
+public class UserCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @Value("${application.cache.users}")
+    private String usersCacheName;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evictUsers(Object entity) {
+        String entityName = entity.getClass().getSimpleName();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clearUsers(entityName);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, entityName);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clearUsers(entityName);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(UserCacheEvictionListener.this);
+            }
+        });
+    }
+
+    private void clearUsers(String entityName) {
+        Cache cache = cacheManager.getCache(usersCacheName);
+        if (cache != null) {
+            log.info("Evicting cached user details on change of {}", entityName);
+            cache.clear();
+        }
+    }
+}
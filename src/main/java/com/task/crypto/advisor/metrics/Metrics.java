@@ -0,0 +1,78 @@
+package com.task.crypto.advisor.metrics;
+
+/**
+ * The `Metrics` class lists names of application meters, they are published with Prometheus endpoint.
+ * Caches additionally publish 'cache.*' metrics of Caffeine statistics.
+ */
+public final class Metrics {
+
+    /**
+     * Parsing and validation of uploaded csv files, timer.
+     */
+    public static final String CSV_PARSE = "crypto.csv.parse";
+    /**
+     * Rows of successfully parsed csv files, counter.
+     */
+    public static final String CSV_PARSE_ROWS = "crypto.csv.parse.rows";
+    /**
+     * Sizes of uploaded csv files, summary in bytes.
+     */
+    public static final String UPLOAD_BYTES = "crypto.upload.bytes";
+    /**
+     * Rows of uploaded csv files, counters tagged by 'result': 'merged' or 'duplicate'.
+     */
+    public static final String UPLOAD_ROWS = "crypto.upload.rows";
+    /**
+     * Date range lookups of cryptocurrency data, counters tagged by 'result': 'hit' or 'miss'.
+     */
+    public static final String DATA_RANGES = "crypto.data.ranges";
+    /**
+     * Ratio of date range lookups served from cache, gauge.
+     */
+    public static final String DATA_RANGES_HIT_RATIO = "crypto.data.ranges.hit.ratio";
+    /**
+     * Duration of date range lookups, timer tagged by 'result': 'hit' or 'miss'.
+     */
+    public static final String DATA_AGGREGATION = "crypto.data.aggregation";
+    /**
+     * Series loads which joined a load of the same cryptocurrency in flight, counter.
+     */
+    public static final String SERIES_LOADS_COALESCED = "crypto.series.loads.coalesced";
+    /**
+     * Series loads currently in flight, gauge.
+     */
+    public static final String SERIES_LOADS_IN_FLIGHT = "crypto.series.loads.in.flight";
+    /**
+     * Loading and materialization of all entries of a cryptocurrency, timer.
+     */
+    public static final String ENTRIES = "crypto.entries";
+    /**
+     * Materialized entries of cryptocurrencies, counter.
+     */
+    public static final String ENTRIES_ROWS = "crypto.entries.rows";
+    /**
+     * Computation of normalized ranges of all cryptocurrencies, timer.
+     */
+    public static final String STATISTICS_FANOUT = "crypto.statistics.fanout";
+    /**
+     * Computation of normalized range of one cryptocurrency in fan-out, timer.
+     * It isn't tagged by symbol to keep the number of series bounded,
+     * aggregations of single cryptocurrencies are recorded by AggregateEvent JFR events.
+     */
+    public static final String STATISTICS_TASK = "crypto.statistics.task";
+    /**
+     * Exported bytes of raw price ticks, counters tagged by 'transfer': 'file' or 'series'.
+     */
+    public static final String EXPORT_BYTES = "crypto.export.bytes";
+    /**
+     * Requests rejected by rate limiting, counter tagged by limited 'method'.
+     */
+    public static final String RATE_LIMIT_REJECTIONS = "rate.limit.rejections";
+    /**
+     * Records of requests in the workload log, counters tagged by 'result': 'written' or 'dropped'.
+     */
+    public static final String WORKLOAD_RECORDS = "workload.records";
+
+    private Metrics() {
+    }
+}
@@ -0,0 +1,229 @@
+package com.task.crypto.advisor.parsers;
+
+import com.task.crypto.advisor.exceptions.CryptoValuesCsvValidationException;
+import com.task.crypto.advisor.storage.CryptoSeries;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The `CryptoCsvParser` class parses csv price files of fixed 'timestamp,symbol,price' column layout straight into CryptoSeries.
+ * Bytes are scanned directly from a read buffer, timestamps are accumulated into longs and prices into unscaled longs
+ * with their scale, so no strings or objects are created per row. Rows are validated in the same pass:
+ * -> first row must consist column names such as 'timestamp symbol price'
+ * -> every row must consist 3 columns
+ * -> mills timestamp must be for pastime
+ * -> all rows(excluding first) must have same symbol of letters, digits, '-' or '_' in second column
+ * -> third column must be int or decimal value of at most 18 digits
+ * -> across all rows, every price rescaled to the largest fraction scale of the file must still fit into a long,
+ *    e.g. '99999999999' and '0.00000001' can't be stored in one file
+ */
+public final class CryptoCsvParser {
+
+    private static final Set<String> HEADERS = Set.of("timestamp", "symbol", "price");
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_PRICE_DIGITS = 18;
+    private static final int TIMESTAMP = 0;
+    private static final int SYMBOL = 1;
+    private static final int PRICE = 2;
+
+    private final long now;
+    private byte[] symbol;
+    private CryptoSeries.Builder builder;
+    private int row;
+    private int column;
+    private long timestamp;
+    private int timestampDigits;
+    private byte[] rowSymbol = new byte[16];
+    private int symbolLength;
+    private long unscaledPrice;
+    private int priceDigits;
+    private int priceScale;
+    private boolean priceFraction;
+
+    private CryptoCsvParser(String symbol, long now) {
+        this.symbol = symbol == null ? null : symbol.getBytes(StandardCharsets.US_ASCII);
+        this.now = now;
+    }
+
+    /**
+     * Parses and validates csv price data, the cryptocurrency name is taken from the first data row.
+     *
+     * @param inputStream Stream of the csv content.
+     * @return Time-sorted series of all rows.
+     * @throws CryptoValuesCsvValidationException if the content violates any constraint or has no data rows.
+     * @throws IOException                        if the stream couldn't be read.
+     */
+    public static CryptoSeries parse(InputStream inputStream) throws IOException {
+        CryptoSeries series = new CryptoCsvParser(null, System.currentTimeMillis()).parseStream(inputStream);
+        if (series == null) {
+            throw new CryptoValuesCsvValidationException("Csv file has no data rows");
+        }
+        return series;
+    }
+
+    /**
+     * Parses and validates csv price data of the given cryptocurrency.
+     *
+     * @param inputStream Stream of the csv content.
+     * @param symbol      The name of the cryptocurrency every row must have.
+     * @return Time-sorted series of all rows, empty if there are no data rows.
+     * @throws CryptoValuesCsvValidationException if the content violates any constraint.
+     * @throws IOException                        if the stream couldn't be read.
+     */
+    public static CryptoSeries parse(InputStream inputStream, String symbol) throws IOException {
+        CryptoSeries series = new CryptoCsvParser(symbol, System.currentTimeMillis()).parseStream(inputStream);
+        return series == null ? CryptoSeries.builder(symbol).build() : series;
+    }
+
+    private CryptoSeries parseStream(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length = inputStream.readNBytes(buffer, 0, BUFFER_SIZE);
+        int position = parseHeader(inputStream, buffer, length);
+        if (position < 0) {
+            return null;
+        }
+        boolean rowStarted = false;
+        while (length > 0) {
+            for (; position < length; position++) {
+                byte current = buffer[position];
+                if (current == '\n') {
+                    endRow();
+                    rowStarted = false;
+                } else if (current != '\r') {
+                    acceptByte(current);
+                    rowStarted = true;
+                }
+            }
+            length = inputStream.readNBytes(buffer, 0, BUFFER_SIZE);
+            position = 0;
+        }
+        if (rowStarted) {
+            endRow();
+        }
+        return builder == null ? null : builder.build();
+    }
+
+    /**
+     * Reads and checks the header line, returns position of the first data byte in the buffer
+     * or -1 if the stream ends within the header.
+     */
+    private int parseHeader(InputStream inputStream, byte[] buffer, int length) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        while (length > 0) {
+            for (int position = 0; position < length; position++) {
+                if (buffer[position] == '\n') {
+                    checkHeader(header.toString(StandardCharsets.UTF_8));
+                    return position + 1;
+                }
+                header.write(buffer[position]);
+            }
+            length = inputStream.readNBytes(buffer, 0, BUFFER_SIZE);
+        }
+        checkHeader(header.toString(StandardCharsets.UTF_8));
+        return -1;
+    }
+
+    private void checkHeader(String header) {
+        Set<String> columns = Arrays.stream(header.strip().split(","))
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        if (!columns.containsAll(HEADERS)) {
+            throw new CryptoValuesCsvValidationException("Header mismatch");
+        }
+        row = 1;
+    }
+
+    private void acceptByte(byte current) {
+        if (current == ',') {
+            if (++column > PRICE) {
+                throw invalidRow();
+            }
+            return;
+        }
+        switch (column) {
+            case TIMESTAMP -> acceptTimestampByte(current);
+            case SYMBOL -> acceptSymbolByte(current);
+            default -> acceptPriceByte(current);
+        }
+    }
+
+    private void acceptTimestampByte(byte current) {
+        int digit = current - '0';
+        if (digit < 0 || digit > 9 || timestamp > (Long.MAX_VALUE - digit) / 10) {
+            throw invalidRow();
+        }
+        timestamp = timestamp * 10 + digit;
+        timestampDigits++;
+    }
+
+    private void acceptSymbolByte(byte current) {
+        if (!isSymbolByte(current)) {
+            throw invalidRow();
+        }
+        if (symbolLength == rowSymbol.length) {
+            rowSymbol = Arrays.copyOf(rowSymbol, rowSymbol.length * 2);
+        }
+        rowSymbol[symbolLength++] = current;
+    }
+
+    private void acceptPriceByte(byte current) {
+        if (current == '.' && !priceFraction && priceDigits > 0) {
+            priceFraction = true;
+            return;
+        }
+        int digit = current - '0';
+        if (digit < 0 || digit > 9 || priceDigits == MAX_PRICE_DIGITS) {
+            throw invalidRow();
+        }
+        unscaledPrice = unscaledPrice * 10 + digit;
+        priceDigits++;
+        if (priceFraction) {
+            priceScale++;
+        }
+    }
+
+    private void endRow() {
+        if (column != PRICE || timestampDigits == 0 || symbolLength == 0 || priceDigits == 0 || timestamp >= now) {
+            throw invalidRow();
+        }
+        if (symbol == null) {
+            symbol = Arrays.copyOf(rowSymbol, symbolLength);
+        } else if (!Arrays.equals(symbol, 0, symbol.length, rowSymbol, 0, symbolLength)) {
+            throw invalidRow();
+        }
+        if (builder == null) {
+            builder = CryptoSeries.builder(new String(symbol, StandardCharsets.US_ASCII));
+        }
+        try {
+            builder.add(timestamp, unscaledPrice, priceScale);
+        } catch (ArithmeticException e) {
+            throw new CryptoValuesCsvValidationException(String.format(
+                    ".csv validation was failed on row %d, prices of the file don't fit into one scale", row));
+        }
+        row++;
+        column = TIMESTAMP;
+        timestamp = 0;
+        timestampDigits = 0;
+        symbolLength = 0;
+        unscaledPrice = 0;
+        priceDigits = 0;
+        priceScale = 0;
+        priceFraction = false;
+    }
+
+    private static boolean isSymbolByte(byte current) {
+        return (current >= 'A' && current <= 'Z') || (current >= 'a' && current <= 'z')
+                || (current >= '0' && current <= '9') || current == '-' || current == '_';
+    }
+
+    private CryptoValuesCsvValidationException invalidRow() {
+        return new CryptoValuesCsvValidationException(String.format(".csv validation was failed on row %d", row));
+    }
+}
@@ -0,0 +1,31 @@
+package com.task.crypto.advisor.ratelimit;
+
+/**
+ * Limit of a token bucket: the bucket holds up to `capacity` tokens and refills `refillTokens` per refill period.
+ *
+ * @param capacity          Maximum number of tokens.
+ * @param refillTokens      Number of tokens refilled per refill period.
+ * @param refillPeriodNanos Refill period in nanoseconds.
+ */
+public record BucketLimit(int capacity, int refillTokens, long refillPeriodNanos) {
+
+    public BucketLimit {
+        if (capacity <= 0 || refillTokens <= 0 || refillPeriodNanos <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity, refill tokens and refill period must be positive");
+        }
+    }
+
+    /**
+     * @return Nanoseconds of refill of a single token.
+     */
+    public long emissionInterval() {
+        return Math.max(1, refillPeriodNanos / refillTokens);
+    }
+
+    /**
+     * @return Nanoseconds needed to refill the empty bucket.
+     */
+    public long burstTolerance() {
+        return Math.multiplyExact(emissionInterval(), (long) capacity);
+    }
+}
@@ -0,0 +1,216 @@
+package com.task.crypto.advisor.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.task.crypto.advisor.cache.SingleFlight;
+import com.task.crypto.advisor.configurations.RateLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The `JdbcRateLimitBackend` class keeps token buckets in 'rate_limit_bucket' table of the shared database,
+ * so all replicas of the application enforce a common budget of a client. A bucket is stored as its theoretical
+ * arrival time in epoch nanoseconds and is updated by compare-and-set update statement.
+ * Replicas don't go to the database on every request: tokens are leased from the shared bucket in batches
+ * of up to 'application.rate-limit.lease-tokens' and spent locally, leased tokens which are not spent within
+ * 'application.rate-limit.lease-duration' are credited back to the shared bucket by the next lease of the bucket,
+ * or once the lease is evicted if the client doesn't come back. Concurrent lease requests of a bucket are coalesced into one.
+ * Leases make limits stricter, never looser, only while they are held, clocks of replicas are expected to be synchronized.
+ * It is selected by 'application.rate-limit.backend=jdbc'.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.rate-limit", name = "backend", havingValue = "jdbc")
+@Slf4j
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    private static final int MAX_ATTEMPTS = 16;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final String SELECT_ARRIVAL = "select theoretical_arrival from rate_limit_bucket where bucket_key = ?";
+    private static final String INSERT_ARRIVAL = "insert into rate_limit_bucket (bucket_key, theoretical_arrival) values (?, ?)";
+    private static final String UPDATE_ARRIVAL = "update rate_limit_bucket set theoretical_arrival = ? where bucket_key = ? and theoretical_arrival = ?";
+    private static final String CREDIT_ARRIVAL = "update rate_limit_bucket set theoretical_arrival = theoretical_arrival - ? where bucket_key = ?";
+    private static final String DELETE_FULL = "delete from rate_limit_bucket where theoretical_arrival < ?";
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Ticker ticker;
+    private final int leaseTokens;
+    private final long leaseNanos;
+    private final Cache<String, Lease> leases;
+    private final SingleFlight<String, Lease> leaseLoads = new SingleFlight<>();
+
+    @Autowired
+    public JdbcRateLimitBackend(JdbcTemplate jdbcTemplate, RateLimitProperties rateLimitProperties) {
+        this(jdbcTemplate, rateLimitProperties, Ticker.systemTicker(), Clock.systemUTC(), ForkJoinPool.commonPool(), Scheduler.systemScheduler());
+    }
+
+    /**
+     * Expired leases are kept for another lease duration, so the next lease of the bucket credits them back itself.
+     * Then they are removed and credited back by `scheduler`, so tokens leased by a replica
+     * which the client doesn't come back to are returned to other replicas too.
+     */
+    JdbcRateLimitBackend(JdbcTemplate jdbcTemplate, RateLimitProperties rateLimitProperties, Ticker ticker, Clock clock,
+                         Executor executor, Scheduler scheduler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.ticker = ticker;
+        this.leaseTokens = rateLimitProperties.leaseTokens();
+        this.leaseNanos = rateLimitProperties.leaseDuration().toNanos();
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.maximumClients())
+                .expireAfterWrite(rateLimitProperties.leaseDuration().multipliedBy(2))
+                .ticker(ticker)
+                .executor(executor)
+                .scheduler(scheduler)
+                .removalListener((String bucket, Lease lease, RemovalCause cause) -> credit(bucket, lease.drain(), lease.emissionInterval()))
+                .build();
+    }
+
+    /**
+     * Takes tokens from the local lease of the bucket, a new lease is taken from the shared bucket
+     * if the local one is missing, expired or has not enough tokens.
+     * An empty lease denies requests until it expires, so denied clients don't go to the database.
+     */
+    @Override
+    public boolean tryAcquire(String bucket, BucketLimit limit, long tokens) {
+        if (tokens > limit.capacity()) {
+            return false;
+        }
+        Lease lease = leases.getIfPresent(bucket);
+        if (lease != null && !lease.isExpired(ticker.read())) {
+            if (lease.tryTake(tokens)) {
+                return true;
+            }
+            if (lease.isEmpty()) {
+                return false;
+            }
+        }
+        return leaseLoads.load(bucket, () -> lease(bucket, limit, tokens)).tryTake(tokens);
+    }
+
+    @Override
+    public void cleanUp() {
+        int removed = jdbcTemplate.update(DELETE_FULL, epochNanos());
+        leases.cleanUp();
+        log.debug("Removed {} full rate limit buckets", removed);
+    }
+
+    /**
+     * Takes up to lease size tokens, but not less than requested ones, from the shared bucket.
+     * Unspent tokens of the replaced lease, expired or not, are credited back by the same update.
+     * The lease is empty if the bucket has less tokens than requested, so denied requests are answered locally too.
+     */
+    private Lease lease(String bucket, BucketLimit limit, long tokens) {
+        long wanted = Math.max(tokens, Math.min(leaseTokens, limit.capacity()));
+        long emissionInterval = limit.emissionInterval();
+        Lease previous = leases.getIfPresent(bucket);
+        long unspent = previous == null ? 0 : previous.drain();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long now = epochNanos();
+            List<Long> arrivals = jdbcTemplate.queryForList(SELECT_ARRIVAL, Long.class, bucket);
+            Long arrival = arrivals.isEmpty() ? null : arrivals.get(0);
+            long credited = arrival == null ? now : arrival - unspent * emissionInterval;
+            long base = Math.max(credited, now);
+            long available = (limit.burstTolerance() - (base - now)) / emissionInterval;
+            long granted = available < tokens ? 0 : Math.min(wanted, available);
+            long updated = granted > 0 ? base + granted * emissionInterval : credited;
+            if ((granted > 0 || unspent > 0) && !(arrival == null
+                    ? insert(bucket, updated)
+                    : jdbcTemplate.update(UPDATE_ARRIVAL, updated, bucket, arrival) == 1)) {
+                continue;
+            }
+            Lease lease = new Lease(granted, emissionInterval, ticker.read() + leaseNanos);
+            leases.put(bucket, lease);
+            return lease;
+        }
+        log.warn("Couldn't lease rate limit tokens of {} bucket in {} attempts", bucket, MAX_ATTEMPTS);
+        credit(bucket, unspent, emissionInterval);
+        return new Lease(0, emissionInterval, ticker.read() + leaseNanos);
+    }
+
+    /**
+     * Moves theoretical arrival of the shared bucket back by unspent tokens of a lease.
+     * A failed credit only leaves the bucket stricter until it refills.
+     */
+    private void credit(String bucket, long unspent, long emissionInterval) {
+        if (unspent == 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(CREDIT_ARRIVAL, unspent * emissionInterval, bucket);
+        } catch (DataAccessException e) {
+            log.warn("Couldn't credit {} unspent rate limit tokens back to {} bucket", unspent, bucket, e);
+        }
+    }
+
+    private boolean insert(String bucket, long arrival) {
+        try {
+            return jdbcTemplate.update(INSERT_ARRIVAL, bucket, arrival) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private long epochNanos() {
+        return Math.multiplyExact(clock.millis(), NANOS_PER_MILLI);
+    }
+
+    private static final class Lease {
+
+        private final AtomicLong remaining;
+        private final boolean empty;
+        private final long emissionInterval;
+        private final long deadline;
+
+        private Lease(long tokens, long emissionInterval, long deadline) {
+            this.remaining = new AtomicLong(tokens);
+            this.empty = tokens == 0;
+            this.emissionInterval = emissionInterval;
+            this.deadline = deadline;
+        }
+
+        private boolean isEmpty() {
+            return empty;
+        }
+
+        private boolean isExpired(long now) {
+            return now - deadline >= 0;
+        }
+
+        private long emissionInterval() {
+            return emissionInterval;
+        }
+
+        /**
+         * Takes all remaining tokens, so they are credited back once.
+         */
+        private long drain() {
+            return remaining.getAndSet(0);
+        }
+
+        private boolean tryTake(long tokens) {
+            while (true) {
+                long current = remaining.get();
+                if (current < tokens) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - tokens)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
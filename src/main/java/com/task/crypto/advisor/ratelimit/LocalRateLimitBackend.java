@@ -0,0 +1,74 @@
+package com.task.crypto.advisor.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.task.crypto.advisor.configurations.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * The `LocalRateLimitBackend` class keeps token buckets in memory of the application instance,
+ * so every replica enforces limits on its own. Buckets are kept in a bounded Caffeine cache, a bucket expires
+ * once it is refilled completely, as from then on it is equal to a new one.
+ * It is the default backend, selected by 'application.rate-limit.backend=local'.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.rate-limit", name = "backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final Ticker ticker;
+    private final Cache<String, TokenBucket> buckets;
+
+    @Autowired
+    public LocalRateLimitBackend(RateLimitProperties rateLimitProperties) {
+        this(rateLimitProperties, Ticker.systemTicker());
+    }
+
+    LocalRateLimitBackend(RateLimitProperties rateLimitProperties, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.maximumClients())
+                .expireAfter(new RefillExpiry())
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String bucket, BucketLimit limit, long tokens) {
+        return buckets.get(bucket, key -> new TokenBucket(limit, ticker.read())).tryAcquire(ticker.read(), tokens);
+    }
+
+    @Override
+    public void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    long getBucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Expires a bucket when it is full again, one more capacity of intervals covers tokens taken right after lookup.
+     */
+    private static final class RefillExpiry implements Expiry<String, TokenBucket> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+            return bucket.nanosUntilFull(currentTime) + bucket.getBurstTolerance();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, bucket, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, bucket, currentTime);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.task.crypto.advisor.ratelimit;
+
+/**
+ * The `RateLimitBackend` interface defines storage of token buckets of rate limited clients.
+ */
+public interface RateLimitBackend {
+    /**
+     * Takes the number of tokens from the bucket if all of them are available, no tokens are taken otherwise.
+     * The bucket is created full on first use.
+     *
+     * @param bucket Identifier of the bucket.
+     * @param limit  Limit of the bucket.
+     * @param tokens Number of tokens to take.
+     * @return true if the tokens were taken.
+     */
+    boolean tryAcquire(String bucket, BucketLimit limit, long tokens);
+
+    /**
+     * Removes buckets which are full again, they are equal to new ones.
+     */
+    void cleanUp();
+}
@@ -0,0 +1,39 @@
+package com.task.crypto.advisor.ratelimit;
+
+import com.task.crypto.advisor.dtos.StatisticsQuery;
+import com.task.crypto.advisor.services.CryptoDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The `StatisticsCosts` class computes rate limit costs of statistics requests, it is referenced
+ * from RateLimited cost expressions as '@statisticsCosts'.
+ */
+@Component("statisticsCosts")
+@RequiredArgsConstructor
+public class StatisticsCosts {
+
+    private final CryptoDataService cryptoDataService;
+
+    /**
+     * @return Cost of a request scanning all cryptocurrencies, one token per stored cryptocurrency.
+     */
+    public long symbolsScanned() {
+        return cryptoDataService.getCryptos().size();
+    }
+
+    /**
+     * @param queries Queries of a batch request.
+     * @return Cost of a batch request, one token per distinct requested cryptocurrency and one more per 10 queries.
+     */
+    public long batch(List<StatisticsQuery> queries) {
+        long symbols = queries.stream()
+                .filter(query -> query != null && query.getCrypto() != null)
+                .map(query -> query.getCrypto().toUpperCase())
+                .distinct()
+                .count();
+        return Math.max(1, symbols + queries.size() / 10);
+    }
+}
@@ -0,0 +1,86 @@
+package com.task.crypto.advisor.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The `TokenBucket` class is a lock-free token bucket kept as a single theoretical arrival time:
+ * every acquired token moves it forward by the emission interval, tokens are available while it stays
+ * within capacity intervals from now. Acquisition is a single compare-and-set, refill needs no background task.
+ * Time is measured in nanoseconds of a monotonic clock passed by caller.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param limit Limit of the bucket, the bucket is created full.
+     * @param now   Current time in nanoseconds.
+     */
+    public TokenBucket(BucketLimit limit, long now) {
+        this.capacity = limit.capacity();
+        this.emissionInterval = limit.emissionInterval();
+        this.burstTolerance = limit.burstTolerance();
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param now Current time in nanoseconds.
+     * @return true if the token was taken, false if the bucket is empty.
+     */
+    public boolean tryAcquire(long now) {
+        return tryAcquire(now, 1);
+    }
+
+    /**
+     * Takes the number of tokens if all of them are available, no tokens are taken otherwise.
+     * Requests of more tokens than capacity never succeed.
+     *
+     * @param now    Current time in nanoseconds.
+     * @param tokens Number of tokens to take.
+     * @return true if the tokens were taken, false if the bucket has not enough tokens.
+     */
+    public boolean tryAcquire(long now, long tokens) {
+        if (tokens > capacity) {
+            return false;
+        }
+        long increment = emissionInterval * Math.max(0, tokens);
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = (arrival - now < 0 ? now : arrival) + increment;
+            if (next - now > burstTolerance) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param now Current time in nanoseconds.
+     * @return Nanoseconds until the bucket is full again, after that it is equal to a new one.
+     */
+    public long nanosUntilFull(long now) {
+        return Math.max(0, theoreticalArrival.get() - now);
+    }
+
+    /**
+     * @param now Current time in nanoseconds.
+     * @return Nanoseconds until the next token is available, 0 if one is available now.
+     */
+    public long nanosUntilAvailable(long now) {
+        return Math.max(0, nanosUntilFull(now) + emissionInterval - burstTolerance);
+    }
+
+    /**
+     * @return Nanoseconds needed to refill the empty bucket.
+     */
+    public long getBurstTolerance() {
+        return burstTolerance;
+    }
+}
@@ -0,0 +1,22 @@
+package com.task.crypto.advisor.scheduled;
+
+import com.task.crypto.advisor.ratelimit.RateLimitBackend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The `RateLimitCleanupScheduledTask` class periodically removes rate limit buckets which are full again,
+ * so the store holds only buckets of recently active clients.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitCleanupScheduledTask {
+
+    private final RateLimitBackend rateLimitBackend;
+
+    @Scheduled(fixedDelayString = "${application.rate-limit.cleanup-delay:60000}")
+    public void cleanUpBuckets() {
+        rateLimitBackend.cleanUp();
+    }
+}
@@ -0,0 +1,32 @@
+package com.task.crypto.advisor.scheduled;
+
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * The `SegmentCompactionScheduledTask` class periodically merges delta segments written by uploads
+ * into base segments of their cryptocurrencies, so loading reads a bounded number of files.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentCompactionScheduledTask {
+
+    private final CryptoSeriesStorage cryptoSeriesStorage;
+
+    @Scheduled(fixedDelayString = "${csv.compaction-delay:600000}", initialDelayString = "${csv.compaction-delay:600000}")
+    public void compactSegments() {
+        for (String symbol : cryptoSeriesStorage.getSymbols()) {
+            try {
+                cryptoSeriesStorage.compact(symbol);
+            } catch (IOException e) {
+                log.error("Couldn't compact segments of {} cause {}", symbol, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.task.crypto.advisor.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.task.crypto.advisor.timing.RequestTiming;
+import com.task.crypto.advisor.timing.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.lang.NonNull;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The `CachingJwtDecoder` class keeps tokens verified by the delegate decoder in a bounded cache keyed by SHA-256
+ * of the token, so repeated requests with the same bearer token skip parsing and signature verification.
+ * A cached token is served only until its 'exp' claim, tokens without it are not cached. Tokens failing
+ * verification are never cached. Cache statistics are published as 'cache.*' metrics of 'jwt' cache.
+ */
+public class CachingJwtDecoder implements JwtDecoder, MeterBinder {
+
+    private static final String CACHE_NAME = "jwt";
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<ByteBuffer, Jwt> verifiedTokens;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+        this(delegate, maximumSize, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpiresAtExpiry(clock))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        try {
+            return decodeCached(token);
+        } finally {
+            RequestTiming.record(Stage.AUTH, start);
+        }
+    }
+
+    private Jwt decodeCached(String token) {
+        ByteBuffer key = hash(token);
+        Jwt cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.getTokenValue().equals(token) && isNotExpired(cached)) {
+            return cached;
+        }
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            verifiedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, CACHE_NAME);
+    }
+
+    private boolean isNotExpired(Jwt jwt) {
+        return jwt.getExpiresAt().isAfter(clock.instant());
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Expires a token at its 'exp' claim.
+     */
+    private record ExpiresAtExpiry(Clock clock) implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            return expiresAt == null ? 0 : Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
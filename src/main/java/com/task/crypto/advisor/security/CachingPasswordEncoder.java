@@ -0,0 +1,90 @@
+package com.task.crypto.advisor.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.crypto.advisor.timing.RequestTiming;
+import com.task.crypto.advisor.timing.Stage;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+
+/**
+ * The `CachingPasswordEncoder` class remembers successful password checks of the delegate encoder for a short time,
+ * so repeated authentication with the same credentials skips the deliberately slow hash function.
+ * Checks are kept by HMAC-SHA256 of the raw and encoded passwords under a random key of the process,
+ * so raw passwords are neither stored nor recoverable from the cache. A changed password has a new encoded value,
+ * so its previous checks never match. Failed checks are not cached.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private final PasswordEncoder delegate;
+    private final SecretKey secretKey;
+    private final Cache<ByteBuffer, Boolean> verifiedCredentials;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        try {
+            this.secretKey = KeyGenerator.getInstance(HMAC_ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not supported", e);
+        }
+        this.verifiedCredentials = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return matchesCached(rawPassword, encodedPassword);
+        } finally {
+            RequestTiming.record(Stage.AUTH, start);
+        }
+    }
+
+    private boolean matchesCached(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        ByteBuffer key = hmac(rawPassword, encodedPassword);
+        if (verifiedCredentials.getIfPresent(key) != null) {
+            return true;
+        }
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            verifiedCredentials.put(key, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private ByteBuffer hmac(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return ByteBuffer.wrap(mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not supported", e);
+        }
+    }
+}
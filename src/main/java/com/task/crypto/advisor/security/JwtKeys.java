@@ -0,0 +1,153 @@
+package com.task.crypto.advisor.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The `JwtKeys` class reads PEM encoded RSA and EC keys and builds JWKs of them, identified by their
+ * SHA-256 thumbprint, so tokens carry 'kid' of their signing key and are verified by the key of that 'kid'.
+ * Tokens issued without 'kid' are verified by any accepted key of their algorithm.
+ */
+public final class JwtKeys {
+
+    private static final List<String> KEY_ALGORITHMS = List.of("RSA", "EC");
+
+    private JwtKeys() {
+    }
+
+    /**
+     * Builds JWK of the key pair for the signature algorithm, private key is omitted for verification only keys.
+     *
+     * @param algorithm  Signature algorithm the key is used with.
+     * @param publicKey  RSA or EC public key.
+     * @param privateKey Matching private key or null.
+     * @return JWK of the key identified by its thumbprint.
+     * @throws IllegalArgumentException if the key doesn't fit the algorithm, EC keys must be on the curve of the algorithm.
+     */
+    public static JWK toJwk(SignatureAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey) {
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm.getName());
+        try {
+            if (JWSAlgorithm.Family.RSA.contains(jwsAlgorithm) && publicKey instanceof RSAPublicKey rsaPublicKey) {
+                RSAKey.Builder builder = new RSAKey.Builder(rsaPublicKey).algorithm(jwsAlgorithm).keyIDFromThumbprint();
+                return (privateKey == null ? builder : builder.privateKey((RSAPrivateKey) privateKey)).build();
+            }
+            if (JWSAlgorithm.Family.EC.contains(jwsAlgorithm) && publicKey instanceof ECPublicKey ecPublicKey
+                    && Curve.forJWSAlgorithm(jwsAlgorithm).contains(Curve.forECParameterSpec(ecPublicKey.getParams()))) {
+                ECKey.Builder builder = new ECKey.Builder(Curve.forECParameterSpec(ecPublicKey.getParams()), ecPublicKey)
+                        .algorithm(jwsAlgorithm)
+                        .keyIDFromThumbprint();
+                return (privateKey == null ? builder : builder.privateKey((ECPrivateKey) privateKey)).build();
+            }
+        } catch (JOSEException e) {
+            throw new IllegalArgumentException("Couldn't compute thumbprint of " + algorithm + " key", e);
+        }
+        throw new IllegalArgumentException(String.format("%s key couldn't be used with %s algorithm", publicKey.getAlgorithm(), algorithm));
+    }
+
+    /**
+     * Builds JWK of PEM encoded public key accepted for verification.
+     * RSA keys are used with RS256, EC keys with the algorithm of their curve: ES256, ES384 or ES512.
+     *
+     * @param publicKey Resource of X.509 PEM encoded RSA or EC public key.
+     * @return JWK of the key identified by its thumbprint.
+     * @throws IllegalArgumentException if the key is on a curve other than P-256, P-384 or P-521.
+     */
+    public static JWK toJwk(Resource publicKey) {
+        PublicKey key = readPublicKey(publicKey);
+        return toJwk(key instanceof ECPublicKey ecPublicKey ? getCurveAlgorithm(ecPublicKey) : SignatureAlgorithm.RS256, key, null);
+    }
+
+    private static SignatureAlgorithm getCurveAlgorithm(ECPublicKey publicKey) {
+        int fieldSize = publicKey.getParams().getCurve().getField().getFieldSize();
+        return switch (fieldSize) {
+            case 256 -> SignatureAlgorithm.ES256;
+            case 384 -> SignatureAlgorithm.ES384;
+            case 521 -> SignatureAlgorithm.ES512;
+            default -> throw new IllegalArgumentException(String.format("EC key of %d bit curve isn't supported", fieldSize));
+        };
+    }
+
+    /**
+     * Builds decoder of tokens signed by any of the keys with its algorithm, keys are selected by 'kid' and algorithm of the token.
+     *
+     * @param verificationKeys Public keys accepted for verification.
+     * @return Decoder validating signature, expiration and not-before time of tokens.
+     */
+    public static JwtDecoder decoder(List<JWK> verificationKeys) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        Set<JWSAlgorithm> algorithms = verificationKeys.stream()
+                .map(jwk -> JWSAlgorithm.parse(jwk.getAlgorithm().getName()))
+                .collect(Collectors.toSet());
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms,
+                new ImmutableJWKSet<>(new JWKSet(verificationKeys.stream().map(JWK::toPublicJWK).toList()))));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    public static PublicKey readPublicKey(Resource resource) {
+        byte[] encoded = readPem(resource);
+        for (String keyAlgorithm : KEY_ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(encoded));
+            } catch (GeneralSecurityException ignored) {
+                // key of another algorithm
+            }
+        }
+        throw new IllegalArgumentException("Unsupported public key " + resource.getDescription());
+    }
+
+    public static PrivateKey readPrivateKey(Resource resource) {
+        byte[] encoded = readPem(resource);
+        for (String keyAlgorithm : KEY_ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+            } catch (GeneralSecurityException ignored) {
+                // key of another algorithm
+            }
+        }
+        throw new IllegalArgumentException("Unsupported private key " + resource.getDescription());
+    }
+
+    private static byte[] readPem(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            String pem = new String(inputStream.readAllBytes(), StandardCharsets.US_ASCII)
+                    .replaceAll("-----[A-Z ]+-----", "")
+                    .replaceAll("\\s", "");
+            return Base64.getDecoder().decode(pem);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Couldn't read key " + resource.getDescription(), e);
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.task.crypto.advisor.services;
 
 import com.task.crypto.advisor.entities.csv.CryptoData;
 import com.task.crypto.advisor.entities.csv.CryptoEntry;
+import com.task.crypto.advisor.entities.csv.DateRange;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.DailyRollup;
+import com.task.crypto.advisor.storage.SeriesPyramid;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -24,6 +28,22 @@ public interface CryptoDataService {
      */
     CryptoData getCryptoData(String crypto, LocalDate dateFrom, LocalDate dateTo);
 
+    /**
+     * Retrieves cryptocurrency data for a specified cryptocurrency within every given date range at once.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @param ranges Date ranges to retrieve data for.
+     * @return CryptoData of every range in order of ranges, null for ranges without data.
+     */
+    List<CryptoData> getCryptoData(String crypto, List<DateRange> ranges);
+
+    /**
+     * Recomputes cached cryptocurrency data of the specified cryptocurrency from its current price ticks.
+     *
+     * @param crypto The name of the cryptocurrency.
+     */
+    void refreshCryptoData(String crypto);
+
     /**
      * Retrieves a list of cryptocurrency entries for a specific cryptocurrency.
      *
@@ -32,6 +52,30 @@ public interface CryptoDataService {
      */
     List<CryptoEntry> getCryptoEntries(String crypto);
 
+    /**
+     * Retrieves columnar time-sorted price series for a specific cryptocurrency.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @return CryptoSeries holding all price ticks of the cryptocurrency.
+     */
+    CryptoSeries getCryptoSeries(String crypto);
+
+    /**
+     * Retrieves daily open, high, low and close ticks of a specific cryptocurrency.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @return DailyRollup of all price ticks of the cryptocurrency.
+     */
+    DailyRollup getDailyRollup(String crypto);
+
+    /**
+     * Retrieves price series of a specific cryptocurrency at resolutions from raw ticks to weeks.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @return SeriesPyramid of all price ticks of the cryptocurrency.
+     */
+    SeriesPyramid getSeriesPyramid(String crypto);
+
     /**
      * Retrieves a set of available cryptocurrencies.
      *
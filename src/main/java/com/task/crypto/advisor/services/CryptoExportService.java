@@ -0,0 +1,35 @@
+package com.task.crypto.advisor.services;
+
+import com.task.crypto.advisor.storage.SegmentExport;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+
+/**
+ * The `CryptoExportService` interface defines methods for exporting raw price ticks of a cryptocurrency.
+ * It provides methods to open an export of ticks within a date range and to transfer any byte range of it.
+ */
+public interface CryptoExportService {
+
+    /**
+     * Opens export of raw price ticks of a specific cryptocurrency within a given date range.
+     *
+     * @param crypto   The name of the cryptocurrency.
+     * @param dateFrom The starting date of the date range, null for the first stored tick.
+     * @param dateTo   The ending date of the date range, null for the last stored tick.
+     * @return SegmentExport of the ticks, it has to be closed after the transfer.
+     */
+    SegmentExport openExport(String crypto, LocalDate dateFrom, LocalDate dateTo);
+
+    /**
+     * Transfers a byte range of the export to the target channel.
+     *
+     * @param export   Opened export.
+     * @param position First byte of the range.
+     * @param count    Number of bytes of the range.
+     * @param target   Channel to write bytes to.
+     * @throws IOException if the export couldn't be read or the target couldn't be written.
+     */
+    void transfer(SegmentExport export, long position, long count, WritableByteChannel target) throws IOException;
+}
@@ -1,10 +1,16 @@
 package com.task.crypto.advisor.services;
 
+import com.task.crypto.advisor.dtos.BatchStatistics;
+import com.task.crypto.advisor.dtos.Candle;
 import com.task.crypto.advisor.dtos.CryptoStats;
+import com.task.crypto.advisor.dtos.DownsampledSeries;
+import com.task.crypto.advisor.dtos.Downsampling;
 import com.task.crypto.advisor.dtos.NormalizedRange;
+import com.task.crypto.advisor.dtos.StatisticsQuery;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The `CryptoStatisticsService` interface outlines methods for retrieving cryptocurrency statistics.
@@ -36,4 +42,35 @@ public interface CryptoStatisticsService {
      */
     CryptoStats getCryptoStatisticsByName(String crypto);
 
+    /**
+     * Answers statistics queries of many cryptocurrencies and date ranges passing every result to the consumer
+     * as soon as it's computed.
+     *
+     * @param queries Queries of cryptocurrency and optional date range.
+     * @param results Consumer of BatchStatistics of every query, identified by the index of the query.
+     */
+    void getBatchStatistics(List<StatisticsQuery> queries, Consumer<BatchStatistics> results);
+
+    /**
+     * Retrieves daily candles of a specific cryptocurrency within a given date range.
+     *
+     * @param crypto   The name of the cryptocurrency.
+     * @param dateFrom The starting date of the date range, null for the first stored day.
+     * @param dateTo   The ending date of the date range, null for the last stored day.
+     * @return List of Candle objects of days having price ticks, ordered by date.
+     */
+    List<Candle> getDailyCandles(String crypto, LocalDate dateFrom, LocalDate dateTo);
+
+    /**
+     * Retrieves price series of a specific cryptocurrency within a given date range reduced to a number of points.
+     *
+     * @param crypto       The name of the cryptocurrency.
+     * @param dateFrom     The starting date of the date range, null for the first stored day.
+     * @param dateTo       The ending date of the date range, null for the last stored day.
+     * @param points       Maximal number of points of the series.
+     * @param downsampling The way of reducing the series, NONE fails if the range doesn't fit the points at any resolution.
+     * @return DownsampledSeries with points ordered by time.
+     */
+    DownsampledSeries getDownsampledSeries(String crypto, LocalDate dateFrom, LocalDate dateTo, int points, Downsampling downsampling);
+
 }
@@ -1,21 +1,20 @@
 package com.task.crypto.advisor.services;
 
-import com.task.crypto.advisor.entities.csv.CryptoEntry;
+import com.task.crypto.advisor.storage.CryptoSeries;
 
-import java.io.Reader;
-import java.util.List;
+import java.io.InputStream;
 
 /**
  * The `CsvValidationService` interface defines a method for reading and validating CSV data.
- * It provides a method to read data from a `Reader` and perform validation on the CSV content.
+ * It provides a method to read data from an `InputStream` and perform validation on the CSV content.
  */
 public interface CsvValidationService {
 
     /**
-     * Reads and validates CSV data from a provided `Reader`.
+     * Reads and validates CSV data from a provided `InputStream`.
      *
-     * @param reader The `Reader` object providing access to the CSV data.
-     * @return A list of CryptoEntry objects representing validated cryptocurrency data.
+     * @param inputStream The `InputStream` providing access to the CSV data.
+     * @return Time-sorted CryptoSeries representing validated cryptocurrency data.
      */
-    List<CryptoEntry> readAndValidate(Reader reader);
+    CryptoSeries readAndValidate(InputStream inputStream);
 }
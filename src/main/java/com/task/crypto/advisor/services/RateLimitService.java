@@ -0,0 +1,22 @@
+package com.task.crypto.advisor.services;
+
+import com.task.crypto.advisor.aspects.annotations.RateLimited;
+
+import java.util.Collection;
+
+/**
+ * The `RateLimitService` interface defines a method for taking request permits of clients.
+ */
+public interface RateLimitService {
+    /**
+     * Takes permits for a request of the client to the rate limited scope.
+     *
+     * @param client      Identifier of the client.
+     * @param scopes      Scopes of the client token, they define tier of its limits.
+     * @param scope       Controller class or method the limit is declared on, clients have a separate bucket per scope.
+     * @param rateLimited Limit of the scope.
+     * @param cost        Number of permits the request takes.
+     * @return true if the request is permitted, false if the client exceeded the limit.
+     */
+    boolean tryAcquire(String client, Collection<String> scopes, Object scope, RateLimited rateLimited, long cost);
+}
@@ -1,71 +1,273 @@
 package com.task.crypto.advisor.services.impl;
 
-import com.opencsv.bean.CsvToBeanBuilder;
-import com.opencsv.bean.HeaderColumnNameMappingStrategy;
-import com.opencsv.bean.MappingStrategy;
-import com.task.crypto.advisor.configurations.CsvStorageProperties;
+import com.task.crypto.advisor.cache.SingleFlight;
 import com.task.crypto.advisor.entities.csv.CryptoData;
 import com.task.crypto.advisor.entities.csv.CryptoEntry;
+import com.task.crypto.advisor.entities.csv.DateRange;
 import com.task.crypto.advisor.exceptions.CryptoDataNotFoundException;
 import com.task.crypto.advisor.exceptions.CryptoStatisticException;
+import com.task.crypto.advisor.metrics.Metrics;
 import com.task.crypto.advisor.services.CryptoDataService;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import com.task.crypto.advisor.storage.DailyRollup;
+import com.task.crypto.advisor.storage.SeriesPyramid;
+import com.task.crypto.advisor.timing.AggregateEvent;
+import com.task.crypto.advisor.timing.RequestTiming;
+import com.task.crypto.advisor.timing.Stage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The `CryptoDataServiceImpl` class implements the `CryptoDataService` interface and provides
- * methods to retrieve and process cryptocurrency data from csv data storage in application.
+ * methods to retrieve and process cryptocurrency data from segment data storage in application.
+ * Date range statistics are computed from daily rollups and cached per cryptocurrency and date range,
+ * so every range expires on its own and an upload refreshes only data of the uploaded cryptocurrency.
  */
 @RequiredArgsConstructor
 @Slf4j
 @Service
 public class CryptoDataServiceImpl implements CryptoDataService {
 
-    private static final String MIN = "min";
-    private static final String MAX = "max";
     private static final String OLDEST = "oldest";
-    private static final String NEWEST = "newest";
-    private static final String VALUES_SUFFIX = "_values.csv";
-    private final CsvStorageProperties csvStorageProperties;
+    private final CryptoSeriesStorage cryptoSeriesStorage;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Object> symbolLocks = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final LongAdder rangeHits = new LongAdder();
+    private final LongAdder rangeMisses = new LongAdder();
+    private final SingleFlight<String, CryptoSeries> seriesLoads = new SingleFlight<>();
+    private final SingleFlight<String, SeriesPyramid> pyramidBuilds = new SingleFlight<>();
+    private Timer aggregationHits;
+    private Timer aggregationMisses;
+    private Timer entriesTimer;
+    private Counter entriesRows;
 
+    @Value("${application.cache.cryptoData}")
+    private String cryptoDataCacheName;
+
+    @Value("${application.cache.cryptoPyramids}")
+    private String cryptoPyramidsCacheName;
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder(Metrics.DATA_RANGES, rangeHits, LongAdder::sum)
+                .description("Date range lookups of cryptocurrency data")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(Metrics.DATA_RANGES, rangeMisses, LongAdder::sum)
+                .description("Date range lookups of cryptocurrency data")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder(Metrics.DATA_RANGES_HIT_RATIO, this, CryptoDataServiceImpl::getRangeHitRatio)
+                .description("Ratio of date range lookups served from cache")
+                .register(meterRegistry);
+        FunctionCounter.builder(Metrics.SERIES_LOADS_COALESCED, seriesLoads, SingleFlight::getCoalesced)
+                .description("Series loads which joined a load of the same cryptocurrency in flight")
+                .register(meterRegistry);
+        Gauge.builder(Metrics.SERIES_LOADS_IN_FLIGHT, seriesLoads, SingleFlight::getInFlight)
+                .description("Series loads currently in flight")
+                .register(meterRegistry);
+        aggregationHits = aggregationTimer("hit");
+        aggregationMisses = aggregationTimer("miss");
+        entriesTimer = Timer.builder(Metrics.ENTRIES)
+                .description("Loading and materialization of all entries of a cryptocurrency")
+                .register(meterRegistry);
+        entriesRows = Counter.builder(Metrics.ENTRIES_ROWS)
+                .description("Materialized entries of cryptocurrencies")
+                .register(meterRegistry);
+    }
+
+    private Timer aggregationTimer(String result) {
+        return Timer.builder(Metrics.DATA_AGGREGATION)
+                .description("Date range lookups of cryptocurrency data")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     /**
      * Retrieves cryptocurrency data for the specified cryptocurrency within a given date range.
+     * Date range is resolved to a slice of days of the daily rollup by binary search,
+     * min and max values of the slice are obtained from indexes of rollup lows and highs in O(log days),
+     * so ranges of any length never touch raw ticks.
+     * Generation of cached data of the cryptocurrency is read before its rollup, so data computed from series
+     * replaced by an upload is never cached after refresh of the cryptocurrency.
+     * Date range is clamped to dates of the first and the last stored tick before lookup,
+     * so ranges covering the same ticks share one cached value.
      *
      * @param crypto   The name of the cryptocurrency.
      * @param dateFrom The starting date of the data range.
      * @param dateTo   The ending date of the data range.
      * @return CryptoData containing various statistics and information about the cryptocurrency.
      * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency.
+     * @throws CryptoStatisticException    if there is no data for the specified date range.
      */
-    @Cacheable("cryptoData")
     @Override
     public CryptoData getCryptoData(String crypto, LocalDate dateFrom, LocalDate dateTo) {
-        List<CryptoEntry> cryptoRecords = getCryptoEntries(crypto);
-        CryptoEntry oldestForCrypto = getOldestForCrypto(crypto, cryptoRecords, dateFrom, dateTo);
-        CryptoEntry newestForCrypto = getNewestForCrypto(crypto, cryptoRecords, dateFrom, dateTo);
+        CryptoData cryptoData = getCryptoData(crypto, List.of(new DateRange(dateFrom, dateTo))).get(0);
+        if (cryptoData == null) {
+            throw noDataException(crypto, dateFrom, dateTo);
+        }
+        return cryptoData;
+    }
+
+    /**
+     * Retrieves cryptocurrency data for the specified cryptocurrency within every given date range.
+     * Daily rollup of the cryptocurrency is obtained once for all ranges,
+     * every range is then looked up and computed as by {@link #getCryptoData(String, LocalDate, LocalDate)}.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @param ranges Date ranges to retrieve data for.
+     * @return CryptoData of every range in order of ranges, null for ranges without data.
+     * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency.
+     */
+    @Override
+    public List<CryptoData> getCryptoData(String crypto, List<DateRange> ranges) {
+        long start = System.nanoTime();
+        String symbol = crypto.toUpperCase();
+        long generation = generation(symbol).get();
+        DailyRollup rollup = getDailyRollup(crypto);
+        Cache cache = getCryptoDataCache();
+        List<CryptoData> results = new ArrayList<>(ranges.size());
+        Map<CryptoDataKey, CryptoData> computedData = new HashMap<>();
+        for (DateRange range : ranges) {
+            if (rollup.isEmpty()) {
+                results.add(null);
+                continue;
+            }
+            CryptoDataKey key = new CryptoDataKey(symbol,
+                    max(range.dateFrom(), rollup.dayAt(0)),
+                    min(range.dateTo(), rollup.dayAt(rollup.size() - 1)));
+            long lookup = System.nanoTime();
+            CryptoData cryptoData = computedData.get(key);
+            if (cryptoData == null) {
+                cryptoData = cache.get(key, CryptoData.class);
+            }
+            RequestTiming.record(Stage.CACHE, lookup);
+            if (cryptoData != null) {
+                rangeHits.increment();
+                aggregationHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                results.add(cryptoData.crypto().equals(crypto) ? cryptoData : withName(cryptoData, crypto));
+            } else {
+                rangeMisses.increment();
+                AggregateEvent event = new AggregateEvent();
+                event.start();
+                cryptoData = computeCryptoData(rollup, crypto, key);
+                event.setAggregated(symbol, key.dateFrom().toString(), key.dateTo().toString(), rollup.size());
+                event.finish();
+                if (cryptoData != null) {
+                    computedData.put(key, cryptoData);
+                    aggregationMisses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                results.add(cryptoData);
+            }
+            start = System.nanoTime();
+        }
+        if (!computedData.isEmpty()) {
+            cacheComputedData(symbol, generation, computedData);
+        }
+        return results;
+    }
+
+    /**
+     * Recomputes all cached date ranges of the cryptocurrency from its current series and puts them
+     * in place of the cached ones, ranges left without data are evicted. Refreshes of one cryptocurrency
+     * are serialized and start a new generation of its data, so data computed from the replaced series
+     * by readers in flight isn't cached afterwards.
+     *
+     * @param crypto The name of the cryptocurrency.
+     */
+    @Override
+    public void refreshCryptoData(String crypto) {
+        String symbol = crypto.toUpperCase();
+        synchronized (lock(symbol)) {
+            generation(symbol).incrementAndGet();
+            refreshSeriesPyramid(symbol);
+            Cache cache = getCryptoDataCache();
+            List<Map.Entry<CryptoDataKey, CryptoData>> cachedData = getCachedData(cache, symbol);
+            if (cachedData.isEmpty()) {
+                return;
+            }
+            DailyRollup rollup = getDailyRollup(symbol);
+            cachedData.forEach(entry -> {
+                CryptoData refreshed = computeCryptoData(rollup, entry.getValue().crypto(), entry.getKey());
+                if (refreshed != null) {
+                    cache.put(entry.getKey(), refreshed);
+                } else {
+                    cache.evict(entry.getKey());
+                }
+            });
+        }
+    }
+
+    /**
+     * Lists cached date ranges of the cryptocurrency by scanning the native map of the cache,
+     * caches without one, like the no-op cache, hold no ranges.
+     */
+    private static List<Map.Entry<CryptoDataKey, CryptoData>> getCachedData(Cache cache, String symbol) {
+        Map<?, ?> entries;
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeineCache) {
+            entries = caffeineCache.asMap();
+        } else if (cache.getNativeCache() instanceof Map<?, ?> map) {
+            entries = map;
+        } else {
+            return List.of();
+        }
+        List<Map.Entry<CryptoDataKey, CryptoData>> cachedData = new ArrayList<>();
+        entries.forEach((key, value) -> {
+            if (key instanceof CryptoDataKey dataKey && dataKey.symbol().equals(symbol) && value instanceof CryptoData data) {
+                cachedData.add(Map.entry(dataKey, data));
+            }
+        });
+        return cachedData;
+    }
+
+    private void refreshSeriesPyramid(String symbol) {
+        Cache cache = getSeriesPyramidCache();
+        if (cache.get(symbol, SeriesPyramid.class) != null) {
+            cache.put(symbol, SeriesPyramid.build(getCryptoSeries(symbol), ZoneId.systemDefault()));
+        }
+    }
+
+    private CryptoData computeCryptoData(DailyRollup rollup, String crypto, CryptoDataKey key) {
+        int from = rollup.lowerBound(toEpochMilli(key.dateFrom()));
+        int to = rollup.lowerBound(toEpochMilli(key.dateTo().plusDays(1)));
+        if (from >= to) {
+            return null;
+        }
+        CryptoEntry oldestForCrypto = rollup.getOpens().toEntry(from);
+        CryptoEntry newestForCrypto = rollup.getCloses().toEntry(to - 1);
         return new CryptoData(
                 crypto,
-                getMinForCrypto(crypto, cryptoRecords, dateFrom, dateTo),
-                getMaxForCrypto(crypto, cryptoRecords, dateFrom, dateTo),
+                rollup.getLows().toEntry(rollup.getLows().minPricePosition(from, to)),
+                rollup.getHighs().toEntry(rollup.getHighs().maxPricePosition(from, to)),
                 oldestForCrypto,
                 newestForCrypto,
                 oldestForCrypto.getDate(),
@@ -75,84 +277,146 @@ public class CryptoDataServiceImpl implements CryptoDataService {
 
 
     /**
-     * Retrieves a set of available cryptocurrencies from the provided CSV paths.
+     * Retrieves a set of available cryptocurrencies from the data storage.
      *
      * @return A set of strings representing the names of available cryptocurrencies.
      */
     @Cacheable("cryptos")
     @Override
     public Set<String> getCryptos() {
-        return Arrays.stream(Objects.requireNonNull(new File(csvStorageProperties.targetDir()).listFiles((dir, name) -> name.endsWith(VALUES_SUFFIX))))
-                .map(file -> file.getName().replace(VALUES_SUFFIX, ""))
-                .collect(Collectors.toSet());
+        return cryptoSeriesStorage.getSymbols();
     }
 
 
     /**
      * Retrieves a list of cryptocurrency entries for a specific cryptocurrency.
+     * Entries are materialized from the columnar series on every call and are not cached.
      *
      * @param crypto The name of the cryptocurrency.
      * @return List of CryptoEntry objects representing cryptocurrency data entries.
      * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency.
      */
-    @Cacheable("cryptoEntries")
     @Override
     public List<CryptoEntry> getCryptoEntries(String crypto) {
-        List<CryptoEntry> returnList;
-        try (InputStreamReader inputStreamReader = getInputStreamReader(crypto)) {
-            MappingStrategy<CryptoEntry> strategy = new HeaderColumnNameMappingStrategy<>();
-            strategy.setType(CryptoEntry.class);
-            returnList = new ArrayList<>(new CsvToBeanBuilder<CryptoEntry>(inputStreamReader)
-                    .withType(CryptoEntry.class)
-                    .withMappingStrategy(strategy)
-                    .build()
-                    .stream()
-                    .peek(CryptoEntry::setLocalDateByTimestamp)
-                    .toList());
-
-        } catch (IOException e) {
-            log.error("Couldn't obtain crypto info cause {}", e.getMessage());
-            throw new CryptoDataNotFoundException(String.format("There is no data for crypto %s", crypto), e);
+        List<CryptoEntry> entries = entriesTimer.record(() -> getCryptoSeries(crypto).toEntries());
+        entriesRows.increment(Objects.requireNonNull(entries).size());
+        return entries;
+    }
+
+    /**
+     * Retrieves columnar time-sorted price series for a specific cryptocurrency.
+     * Concurrent calls for the same cryptocurrency share one load, so a cold cache is filled by a single reader.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @return CryptoSeries holding all price ticks of the cryptocurrency.
+     * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency.
+     */
+    @Override
+    public CryptoSeries getCryptoSeries(String crypto) {
+        long start = System.nanoTime();
+        try {
+            return seriesLoads.load(crypto.toUpperCase(), () -> cryptoSeriesStorage.load(crypto));
+        } finally {
+            RequestTiming.record(Stage.LOAD, start);
         }
-        return returnList;
     }
 
-    private InputStreamReader getInputStreamReader(String crypto) throws IOException {
-        return new InputStreamReader(Files.newInputStream(Paths.get(csvStorageProperties.targetDir() + "/" + crypto.toUpperCase() + VALUES_SUFFIX)));
+    /**
+     * Retrieves daily open, high, low and close ticks of a specific cryptocurrency for days of the system zone.
+     * Rollup is loaded for the current series of the cryptocurrency, so it always covers all its ticks.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @return DailyRollup of all price ticks of the cryptocurrency.
+     * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency.
+     */
+    @Override
+    public DailyRollup getDailyRollup(String crypto) {
+        return cryptoSeriesStorage.loadRollup(getCryptoSeries(crypto));
     }
 
-    private CryptoEntry getEdgeCryptoEntryByParams(String crypto, List<CryptoEntry> cryptoEntries, LocalDate dateFrom, LocalDate dateTo, Comparator<CryptoEntry> comparator, String neededCase) {
-        return Optional.of(
-                        cryptoEntries
-                                .stream()
-                                .filter(cryptoEntry -> !(cryptoEntry.getDate().isBefore(dateFrom) || cryptoEntry.getDate().isAfter(dateTo)))
-                                .min(comparator))
-                .get()
-                .orElseThrow(
-                        () -> {
-                            log.error("Couldn't obtain {} value for {} crypto for {} to {} period", neededCase, crypto, dateFrom, dateTo);
-                            return new CryptoStatisticException(String.format("Couldn't obtain %s value for %s crypto for %s to %s period", neededCase, crypto, dateFrom.format(DateTimeFormatter.ISO_DATE), dateTo.format(DateTimeFormatter.ISO_DATE)));
-                        });
+    /**
+     * Retrieves resolution pyramid of the series of a specific cryptocurrency for buckets of the system zone.
+     * Cached pyramid is returned only if it's built from the current series, otherwise it's rebuilt
+     * in O(n) of the series and cached.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @return SeriesPyramid of all price ticks of the cryptocurrency.
+     * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency.
+     */
+    @Override
+    public SeriesPyramid getSeriesPyramid(String crypto) {
+        String symbol = crypto.toUpperCase();
+        CryptoSeries series = getCryptoSeries(crypto);
+        ZoneId zone = ZoneId.systemDefault();
+        long start = System.nanoTime();
+        Cache cache = getSeriesPyramidCache();
+        SeriesPyramid pyramid = cache.get(symbol, SeriesPyramid.class);
+        RequestTiming.record(Stage.CACHE, start);
+        if (pyramid != null && pyramid.covers(series, zone)) {
+            return pyramid;
+        }
+        pyramid = pyramidBuilds.load(symbol + ':' + series.size(), () -> SeriesPyramid.build(series, zone));
+        cache.put(symbol, pyramid);
+        return pyramid;
     }
 
+    /**
+     * Puts computed date ranges of the cryptocurrency into cache,
+     * unless refresh has started a new generation of its data since they were computed.
+     */
+    private void cacheComputedData(String symbol, long generation, Map<CryptoDataKey, CryptoData> computedData) {
+        synchronized (lock(symbol)) {
+            if (generation(symbol).get() == generation) {
+                Cache cache = getCryptoDataCache();
+                computedData.forEach(cache::put);
+            }
+        }
+    }
 
-    private CryptoEntry getMinForCrypto(String crypto, List<CryptoEntry> obtainedList, LocalDate dateFrom, LocalDate dateTo) {
-        return getEdgeCryptoEntryByParams(crypto, obtainedList, dateFrom, dateTo, Comparator.comparing(CryptoEntry::getPrice), MIN);
+    private CryptoStatisticException noDataException(String crypto, LocalDate dateFrom, LocalDate dateTo) {
+        log.error("Couldn't obtain {} value for {} crypto for {} to {} period", OLDEST, crypto, dateFrom, dateTo);
+        return new CryptoStatisticException(String.format("Couldn't obtain %s value for %s crypto for %s to %s period", OLDEST, crypto, dateFrom.format(DateTimeFormatter.ISO_DATE), dateTo.format(DateTimeFormatter.ISO_DATE)));
+    }
 
+    private CryptoData withName(CryptoData cryptoData, String crypto) {
+        return new CryptoData(crypto, cryptoData.min(), cryptoData.max(), cryptoData.oldest(), cryptoData.newest(),
+                cryptoData.dateFrom(), cryptoData.dateTo());
     }
 
-    private CryptoEntry getMaxForCrypto(String crypto, List<CryptoEntry> obtainedList, LocalDate dateFrom, LocalDate dateTo) {
-        return getEdgeCryptoEntryByParams(crypto, obtainedList, dateFrom, dateTo, Comparator.comparing(CryptoEntry::getPrice).reversed(), MAX);
+    private double getRangeHitRatio() {
+        long hits = rangeHits.sum();
+        long total = hits + rangeMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
 
+    private Object lock(String symbol) {
+        return symbolLocks.computeIfAbsent(symbol, key -> new Object());
     }
 
-    private CryptoEntry getNewestForCrypto(String crypto, List<CryptoEntry> obtainedList, LocalDate dateFrom, LocalDate dateTo) {
-        return getEdgeCryptoEntryByParams(crypto, obtainedList, dateFrom, dateTo, Comparator.comparing(CryptoEntry::getDate).reversed(), NEWEST);
+    private AtomicLong generation(String symbol) {
+        return generations.computeIfAbsent(symbol, key -> new AtomicLong());
     }
 
-    private CryptoEntry getOldestForCrypto(String crypto, List<CryptoEntry> obtainedList, LocalDate dateFrom, LocalDate dateTo) {
-        return getEdgeCryptoEntryByParams(crypto, obtainedList, dateFrom, dateTo, Comparator.comparing(CryptoEntry::getDate), OLDEST);
+    private Cache getCryptoDataCache() {
+        return Objects.requireNonNull(cacheManager.getCache(cryptoDataCacheName));
     }
 
+    private Cache getSeriesPyramidCache() {
+        return Objects.requireNonNull(cacheManager.getCache(cryptoPyramidsCacheName));
+    }
+
+    private static LocalDate max(LocalDate first, LocalDate second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDate min(LocalDate first, LocalDate second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private long toEpochMilli(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 
+    private record CryptoDataKey(String symbol, LocalDate dateFrom, LocalDate dateTo) {
+    }
 }
@@ -0,0 +1,80 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.exceptions.CryptoDataNotFoundException;
+import com.task.crypto.advisor.metrics.Metrics;
+import com.task.crypto.advisor.services.CryptoDataService;
+import com.task.crypto.advisor.services.CryptoExportService;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import com.task.crypto.advisor.storage.SegmentExport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The `CryptoExportServiceImpl` class implements the `CryptoExportService` interface and exports slices
+ * of cached series of cryptocurrencies from segment data storage. Date range is resolved to the slice by binary search,
+ * so opening an export costs O(log n) regardless of its size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CryptoExportServiceImpl implements CryptoExportService {
+
+    private final CryptoDataService cryptoDataService;
+    private final CryptoSeriesStorage cryptoSeriesStorage;
+    private final MeterRegistry meterRegistry;
+    private Counter fileBytes;
+    private Counter seriesBytes;
+
+    @PostConstruct
+    public void registerMetrics() {
+        fileBytes = exportBytesCounter("file");
+        seriesBytes = exportBytesCounter("series");
+    }
+
+    private Counter exportBytesCounter(String transfer) {
+        return Counter.builder(Metrics.EXPORT_BYTES)
+                .description("Exported bytes of raw price ticks")
+                .baseUnit("bytes")
+                .tag("transfer", transfer)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens export of ticks of the cryptocurrency from the start of `dateFrom` to the end of `dateTo` in the system zone.
+     *
+     * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency
+     *                                     or its segment couldn't be read.
+     */
+    @Override
+    public SegmentExport openExport(String crypto, LocalDate dateFrom, LocalDate dateTo) {
+        CryptoSeries series = cryptoDataService.getCryptoSeries(crypto);
+        int from = dateFrom == null ? 0 : series.lowerBound(toEpochMilli(dateFrom));
+        int to = dateTo == null ? series.size() : series.lowerBound(toEpochMilli(dateTo.plusDays(1)));
+        try {
+            return cryptoSeriesStorage.export(series, from, Math.max(from, to));
+        } catch (IOException e) {
+            log.error("Couldn't export crypto info cause {}", e.getMessage());
+            throw new CryptoDataNotFoundException(String.format("There is no data for crypto %s", crypto), e);
+        }
+    }
+
+    @Override
+    public void transfer(SegmentExport export, long position, long count, WritableByteChannel target) throws IOException {
+        export.transferTo(position, count, target);
+        (export.isFileTransfer() ? fileBytes : seriesBytes).increment(count);
+    }
+
+    private long toEpochMilli(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,28 +1,66 @@
 package com.task.crypto.advisor.services.impl;
 
 
+import com.task.crypto.advisor.dtos.BatchStatistics;
+import com.task.crypto.advisor.dtos.Candle;
 import com.task.crypto.advisor.dtos.CryptoStats;
+import com.task.crypto.advisor.dtos.DownsampledSeries;
+import com.task.crypto.advisor.dtos.Downsampling;
 import com.task.crypto.advisor.dtos.NormalizedRange;
+import com.task.crypto.advisor.dtos.PricePoint;
+import com.task.crypto.advisor.dtos.StatisticsQuery;
 import com.task.crypto.advisor.entities.csv.CryptoData;
+import com.task.crypto.advisor.entities.csv.DateRange;
+import com.task.crypto.advisor.configurations.StatisticsProperties;
+import com.task.crypto.advisor.exceptions.CryptoDataNotFoundException;
 import com.task.crypto.advisor.exceptions.CryptoStatisticException;
+import com.task.crypto.advisor.exceptions.StatisticsTimeoutException;
+import com.task.crypto.advisor.metrics.Metrics;
 import com.task.crypto.advisor.services.CryptoDataService;
 import com.task.crypto.advisor.services.CryptoStatisticsService;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.DailyRollup;
+import com.task.crypto.advisor.storage.LargestTriangleThreeBuckets;
+import com.task.crypto.advisor.storage.Resolution;
+import com.task.crypto.advisor.storage.SeriesPyramid;
+import com.task.crypto.advisor.timing.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The `CryptoStatisticsServiceImpl` class implements the `CryptoStatisticsService` interface
  * and provides methods for calculating and retrieving cryptocurrency statistics.
  * Class retrieves info from CryptoDataService bean.
+ * Statistics over all cryptocurrencies are computed per cryptocurrency in parallel on a bounded executor
+ * within the request deadline.
  */
 @Service
 @Slf4j
@@ -30,21 +68,55 @@ import java.util.stream.Collectors;
 public class CryptoStatisticsServiceImpl implements CryptoStatisticsService {
 
     private static final LocalDate FIRST_CRYPTO_INFO = LocalDate.of(2015, 11, 20);
+    private static final int LTTB_OVERSAMPLING = 8;
+
+    private static final Comparator<NormalizedRange> BY_VALUE_AND_SYMBOL = Comparator
+            .comparing(NormalizedRange::getNormalizedValue)
+            .reversed()
+            .thenComparing(NormalizedRange::getSymbol);
 
     private final CryptoDataService cryptoDataService;
+    private final StatisticsProperties statisticsProperties;
+    private final MeterRegistry meterRegistry;
+    private ExecutorService statisticsExecutor;
+    private Timer fanOutTimer;
+    private Timer taskTimer;
+
+    @PostConstruct
+    public void startExecutor() {
+        statisticsExecutor = new ThreadPoolExecutor(
+                statisticsProperties.parallelism(),
+                statisticsProperties.parallelism(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(statisticsProperties.queueCapacity()),
+                new CustomizableThreadFactory("statistics-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        fanOutTimer = Timer.builder(Metrics.STATISTICS_FANOUT)
+                .description("Computation of normalized ranges of all cryptocurrencies")
+                .register(meterRegistry);
+        taskTimer = Timer.builder(Metrics.STATISTICS_TASK)
+                .description("Computation of normalized range of one cryptocurrency in fan-out")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        statisticsExecutor.shutdownNow();
+    }
 
     /**
-     * Retrieves a list of normalized ranges for all available cryptocurrencies.
+     * Retrieves a list of normalized ranges for all available cryptocurrencies, ordered by normalized value
+     * and then by cryptocurrency name.
      *
      * @return List of NormalizedRange objects representing normalized ranges for cryptocurrencies.
+     * @throws StatisticsTimeoutException if ranges couldn't be computed before the deadline.
      */
     @Override
     public List<NormalizedRange> getNormalizedRangeForAllCryptos() {
-        return cryptoDataService
-                .getCryptos()
+        return computeNormalizedRanges(FIRST_CRYPTO_INFO, LocalDate.now())
                 .stream()
-                .map(crypto -> configureNormalizedRangeByName(crypto, FIRST_CRYPTO_INFO, LocalDate.now()))
-                .sorted(Comparator.comparing(NormalizedRange::getNormalizedValue).reversed())
+                .sorted(BY_VALUE_AND_SYMBOL)
                 .collect(Collectors.toList());
     }
 
@@ -55,14 +127,13 @@ public class CryptoStatisticsServiceImpl implements CryptoStatisticsService {
      * @param dateTo   The ending date of the date range.
      * @return NormalizedRange representing the biggest normalized range within the specified date range.
      * @throws CryptoStatisticException if the highest normalized range cannot be obtained.
+     * @throws StatisticsTimeoutException if ranges couldn't be computed before the deadline.
      */
     @Override
     public NormalizedRange getBiggestNormalizedRangeForDate(LocalDate dateFrom, LocalDate dateTo) {
-        return cryptoDataService
-                .getCryptos()
+        return computeNormalizedRanges(dateFrom, dateTo)
                 .stream()
-                .map(crypto -> configureNormalizedRangeByName(crypto, dateFrom, dateTo))
-                .max(Comparator.comparing(NormalizedRange::getNormalizedValue))
+                .min(BY_VALUE_AND_SYMBOL)
                 .orElseThrow(
                         () -> {
                             log.error("Couldn't obtain highest normalized range for period  from {} to {}", dateFrom, dateTo);
@@ -90,6 +161,197 @@ public class CryptoStatisticsServiceImpl implements CryptoStatisticsService {
     }
 
 
+    /**
+     * Groups queries by upper-cased cryptocurrency name in order of first occurrence, so data of every cryptocurrency
+     * is obtained once for all its date ranges. Results of a group are passed in order of its queries.
+     * Missing dates default to the whole available period as in `getCryptoStatisticsByName`.
+     * Queries without cryptocurrency, with inappropriate dates, of unknown cryptocurrency, without data
+     * for their period or failed otherwise get results with error instead of statistics,
+     * so a started response is never cut short by a failure of one cryptocurrency.
+     */
+    @Override
+    public void getBatchStatistics(List<StatisticsQuery> queries, Consumer<BatchStatistics> results) {
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int index = 0; index < queries.size(); index++) {
+            StatisticsQuery query = queries.get(index);
+            String error = validate(query);
+            if (error != null) {
+                results.accept(BatchStatistics.builder().index(index).symbol(query == null ? null : query.getCrypto()).error(error).build());
+            } else {
+                groups.computeIfAbsent(query.getCrypto().toUpperCase(), symbol -> new ArrayList<>()).add(index);
+            }
+        }
+        groups.forEach((symbol, indexes) -> {
+            List<DateRange> ranges = indexes.stream()
+                    .map(queries::get)
+                    .map(query -> new DateRange(
+                            query.getDateFrom() == null ? FIRST_CRYPTO_INFO : query.getDateFrom(),
+                            query.getDateTo() == null ? LocalDate.now() : query.getDateTo()))
+                    .toList();
+            List<CryptoData> data;
+            try {
+                data = cryptoDataService.getCryptoData(symbol, ranges);
+            } catch (CryptoDataNotFoundException e) {
+                indexes.forEach(index -> results.accept(BatchStatistics.builder().index(index).symbol(symbol)
+                        .error(String.format("There is no data for crypto %s", symbol)).build()));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Couldn't obtain batch statistics of {} crypto", symbol, e);
+                indexes.forEach(index -> results.accept(BatchStatistics.builder().index(index).symbol(symbol)
+                        .error(String.format("Couldn't obtain statistics for crypto %s", symbol)).build()));
+                return;
+            }
+            for (int i = 0; i < indexes.size(); i++) {
+                results.accept(toBatchStatistics(indexes.get(i), symbol, ranges.get(i), data.get(i)));
+            }
+        });
+    }
+
+    private String validate(StatisticsQuery query) {
+        if (query == null || query.getCrypto() == null || query.getCrypto().isBlank()) {
+            return "Crypto is missing";
+        }
+        if (query.getDateFrom() != null && query.getDateTo() != null && query.getDateTo().isBefore(query.getDateFrom())) {
+            return "Can`t obtain statistics for inappropriate date period";
+        }
+        return null;
+    }
+
+    private BatchStatistics toBatchStatistics(int index, String symbol, DateRange range, CryptoData data) {
+        if (data == null) {
+            return BatchStatistics.builder()
+                    .index(index)
+                    .symbol(symbol)
+                    .error(String.format("There is no data for crypto %s for %s to %s period", symbol,
+                            range.dateFrom().format(DateTimeFormatter.ISO_DATE), range.dateTo().format(DateTimeFormatter.ISO_DATE)))
+                    .build();
+        }
+        return BatchStatistics.builder()
+                .index(index)
+                .symbol(symbol)
+                .dateFrom(data.dateFrom())
+                .dateTo(data.dateTo())
+                .min(data.min().getPrice())
+                .max(data.max().getPrice())
+                .oldest(data.oldest().getPrice())
+                .newest(data.newest().getPrice())
+                .build();
+    }
+
+    /**
+     * Retrieves daily candles of a specific cryptocurrency within a given date range straight from its daily rollup.
+     *
+     * @param crypto   The name of the cryptocurrency.
+     * @param dateFrom The starting date of the date range, null for the first stored day.
+     * @param dateTo   The ending date of the date range, null for the last stored day.
+     * @return List of Candle objects of days having price ticks, ordered by date.
+     */
+    @Override
+    public List<Candle> getDailyCandles(String crypto, LocalDate dateFrom, LocalDate dateTo) {
+        DailyRollup rollup = cryptoDataService.getDailyRollup(crypto);
+        int from = dateFrom == null ? 0 : rollup.lowerBound(dateFrom.atStartOfDay(rollup.getZone()).toInstant().toEpochMilli());
+        int to = dateTo == null ? rollup.size() : rollup.lowerBound(dateTo.plusDays(1).atStartOfDay(rollup.getZone()).toInstant().toEpochMilli());
+        List<Candle> candles = new ArrayList<>(Math.max(0, to - from));
+        for (int day = from; day < to; day++) {
+            candles.add(Candle.builder()
+                    .date(rollup.dayAt(day))
+                    .open(rollup.getOpens().priceAt(day))
+                    .high(rollup.getHighs().priceAt(day))
+                    .low(rollup.getLows().priceAt(day))
+                    .close(rollup.getCloses().priceAt(day))
+                    .ticks(rollup.ticksAt(day))
+                    .build());
+        }
+        return candles;
+    }
+
+    /**
+     * Series is served from the finest level of the resolution pyramid fitting the requested number of points,
+     * so its size doesn't depend on length of the date range. With LTTB downsampling the level may hold up to
+     * `LTTB_OVERSAMPLING` times more points, which are reduced to the requested number keeping the shape.
+     * Ranges having more points than requested even at the weekly level are reduced the same way with LTTB
+     * and rejected without downsampling.
+     */
+    @Override
+    public DownsampledSeries getDownsampledSeries(String crypto, LocalDate dateFrom, LocalDate dateTo, int points, Downsampling downsampling) {
+        SeriesPyramid pyramid = cryptoDataService.getSeriesPyramid(crypto);
+        long from = dateFrom == null ? Long.MIN_VALUE : dateFrom.atStartOfDay(pyramid.getZone()).toInstant().toEpochMilli();
+        long to = dateTo == null ? Long.MAX_VALUE : dateTo.plusDays(1).atStartOfDay(pyramid.getZone()).toInstant().toEpochMilli();
+        int maxTicks = downsampling == Downsampling.LTTB ? points * LTTB_OVERSAMPLING : points;
+        Resolution resolution = pyramid.select(from, to, maxTicks);
+        CryptoSeries level = pyramid.getLevel(resolution);
+        int fromPosition = level.lowerBound(from);
+        int toPosition = level.lowerBound(to);
+        int[] positions;
+        if (downsampling == Downsampling.LTTB) {
+            positions = LargestTriangleThreeBuckets.downsample(level, fromPosition, toPosition, points);
+        } else if (toPosition - fromPosition <= points) {
+            positions = IntStream.range(fromPosition, toPosition).toArray();
+        } else {
+            log.error("Range of {} has {} points at {} resolution, more than requested {}", crypto, toPosition - fromPosition, resolution, points);
+            throw new CryptoStatisticException(String.format("Range has more than %d points at every resolution, downsampling is required", points));
+        }
+        List<PricePoint> pricePoints = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            pricePoints.add(PricePoint.builder()
+                    .timestamp(level.timestampAt(position))
+                    .price(level.priceAt(position))
+                    .build());
+        }
+        return DownsampledSeries.builder()
+                .crypto(crypto)
+                .resolution(resolution)
+                .downsampling(downsampling)
+                .points(pricePoints)
+                .build();
+    }
+
+    private List<NormalizedRange> computeNormalizedRanges(LocalDate dateFrom, LocalDate dateTo) {
+        List<Callable<NormalizedRange>> tasks = cryptoDataService
+                .getCryptos()
+                .stream()
+                .sorted()
+                .map(crypto -> RequestTiming.wrap(() -> taskTimer.recordCallable(() -> configureNormalizedRangeByName(crypto, dateFrom, dateTo))))
+                .toList();
+        List<Future<NormalizedRange>> futures;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            futures = statisticsExecutor.invokeAll(tasks, statisticsProperties.deadline().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StatisticsTimeoutException("Normalized ranges computation was interrupted", e);
+        } catch (RejectedExecutionException e) {
+            log.error("Normalized ranges for period from {} to {} were rejected by saturated executor", dateFrom, dateTo);
+            throw new StatisticsTimeoutException("Normalized ranges computation was rejected", e);
+        }
+        List<NormalizedRange> normalizedRanges = new ArrayList<>(futures.size());
+        try {
+            for (Future<NormalizedRange> future : futures) {
+                normalizedRanges.add(getNormalizedRange(future, dateFrom, dateTo));
+            }
+        } finally {
+            sample.stop(fanOutTimer);
+        }
+        return normalizedRanges;
+    }
+
+    private NormalizedRange getNormalizedRange(Future<NormalizedRange> future, LocalDate dateFrom, LocalDate dateTo) {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            log.error("Normalized ranges for period from {} to {} weren't computed in {}", dateFrom, dateTo, statisticsProperties.deadline());
+            throw new StatisticsTimeoutException(String.format("Normalized ranges for period from %s to %s weren't computed in time", dateFrom.format(DateTimeFormatter.ISO_DATE), dateTo.format(DateTimeFormatter.ISO_DATE)));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CryptoStatisticException("Couldn't obtain normalized range", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StatisticsTimeoutException("Normalized ranges computation was interrupted", e);
+        }
+    }
+
     private NormalizedRange configureNormalizedRangeByName(String cryptoName, LocalDate dateFrom, LocalDate dateTo) {
         CryptoData data = cryptoDataService.getCryptoData(cryptoName, dateFrom, dateTo);
         return NormalizedRange
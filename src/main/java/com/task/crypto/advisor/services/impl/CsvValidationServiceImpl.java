@@ -1,26 +1,22 @@
 package com.task.crypto.advisor.services.impl;
 
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.bean.ColumnPositionMappingStrategy;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.MappingStrategy;
-import com.opencsv.exceptions.CsvValidationException;
-import com.task.crypto.advisor.entities.csv.CryptoEntry;
 import com.task.crypto.advisor.exceptions.CryptoValuesCsvValidationException;
+import com.task.crypto.advisor.metrics.Metrics;
+import com.task.crypto.advisor.parsers.CryptoCsvParser;
 import com.task.crypto.advisor.services.CsvValidationService;
-import com.task.crypto.advisor.validators.CsvCryptoEntryRowValidator;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.timing.ParseEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The `CsvValidationServiceImpl` class implements the `CsvValidationService` interface and provides
@@ -31,16 +27,22 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CsvValidationServiceImpl implements CsvValidationService {
 
-    private static final List<String> HEADERS_LIST = new ArrayList<>();
+    private final MeterRegistry meterRegistry;
+    private Timer parseTimer;
+    private Counter parsedRows;
 
-    static {
-        HEADERS_LIST.add("timestamp");
-        HEADERS_LIST.add("price");
-        HEADERS_LIST.add("symbol");
+    @PostConstruct
+    public void registerMetrics() {
+        parseTimer = Timer.builder(Metrics.CSV_PARSE)
+                .description("Parsing and validation of uploaded csv files")
+                .register(meterRegistry);
+        parsedRows = Counter.builder(Metrics.CSV_PARSE_ROWS)
+                .description("Rows of successfully parsed csv files")
+                .register(meterRegistry);
     }
 
     /**
-     * Reads and validates CSV data from a provided `Reader`.
+     * Reads and validates CSV data from a provided `InputStream` in a single pass of CryptoCsvParser.
      * Constraints
      * -> first row must consist column names such as 'timestamp symbol price'
      * -> every row must consist 3 columns
@@ -48,40 +50,27 @@ public class CsvValidationServiceImpl implements CsvValidationService {
      * -> all rows(excluding first) must have same symbol column in second column
      * -> third column must be int or double value
      *
-     * @param reader The `Reader` object providing access to the CSV data.
-     * @return A list of CryptoEntry objects representing validated cryptocurrency data.
+     * @param inputStream The `InputStream` providing access to the CSV data.
+     * @return Time-sorted CryptoSeries representing validated cryptocurrency data.
      * @throws CryptoValuesCsvValidationException if an error occurs during CSV validation process.
      */
     @Override
-    public List<CryptoEntry> readAndValidate(Reader reader) {
+    public CryptoSeries readAndValidate(InputStream inputStream) {
         log.info("Validation of new file is starting");
-        List<CryptoEntry> cryptoEntries;
-        try (CSVReader csvReader = new CSVReaderBuilder(reader)
-                .withRowValidator(new CsvCryptoEntryRowValidator())
-                .build()) {
-            checkHeader(csvReader);
-            cryptoEntries = configureCsvToBean(csvReader).parse();
-        } catch (Exception e) {
-            log.error("File validation error");
+        long start = System.nanoTime();
+        ParseEvent event = new ParseEvent();
+        event.start();
+        try (inputStream) {
+            CryptoSeries series = CryptoCsvParser.parse(inputStream);
+            parsedRows.increment(series.size());
+            event.setParsed(series.getSymbol(), series.size());
+            return series;
+        } catch (IOException | RuntimeException e) {
+            log.error("File validation error {}", e.getMessage());
             throw new CryptoValuesCsvValidationException("Error occurred on csv validation process", e);
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.finish();
         }
-        return cryptoEntries;
-    }
-
-
-    private void checkHeader(CSVReader csvReader) throws CsvValidationException, IOException {
-        Set<String> collect = Arrays.stream(csvReader.readNext()).map(String::toLowerCase).collect(Collectors.toSet());
-        if (!collect.containsAll(HEADERS_LIST)) {
-            throw new CsvValidationException("Header mismatch");
-        }
-    }
-
-    private CsvToBean<CryptoEntry> configureCsvToBean(CSVReader csvReader) {
-        CsvToBean<CryptoEntry> csvToBean = new CsvToBean<>();
-        csvToBean.setCsvReader(csvReader);
-        MappingStrategy<CryptoEntry> strategy = new ColumnPositionMappingStrategy<>();
-        strategy.setType(CryptoEntry.class);
-        csvToBean.setMappingStrategy(strategy);
-        return csvToBean;
     }
 }
@@ -0,0 +1,59 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.aspects.annotations.RateLimited;
+import com.task.crypto.advisor.configurations.RateLimitProperties;
+import com.task.crypto.advisor.ratelimit.BucketLimit;
+import com.task.crypto.advisor.ratelimit.RateLimitBackend;
+import com.task.crypto.advisor.services.RateLimitService;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The `RateLimitServiceImpl` class implements the `RateLimitService` interface over token buckets of RateLimitBackend,
+ * clients have a bucket per tier and scope. Capacity and refill rate of a bucket are multiplied by the tier
+ * of the client scopes. Cost of a request is capped at the bucket capacity, so any request is admitted by a full bucket.
+ */
+@Service
+public class RateLimitServiceImpl implements RateLimitService {
+
+    private static final int DEFAULT_TIER = 1;
+    private final RateLimitBackend rateLimitBackend;
+    private final Map<String, Integer> tiers;
+
+    public RateLimitServiceImpl(RateLimitProperties rateLimitProperties, RateLimitBackend rateLimitBackend) {
+        this.rateLimitBackend = rateLimitBackend;
+        this.tiers = rateLimitProperties.tiers() == null ? Map.of() : rateLimitProperties.tiers().entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().toUpperCase(Locale.ROOT), Map.Entry::getValue));
+    }
+
+    @Override
+    public boolean tryAcquire(String client, Collection<String> scopes, Object scope, RateLimited rateLimited, long cost) {
+        int tier = getTier(scopes);
+        BucketLimit limit = new BucketLimit(Math.multiplyExact(rateLimited.capacity(), tier),
+                Math.multiplyExact(rateLimited.refillTokens(), tier), rateLimited.timeUnit().toNanos(rateLimited.refillPeriod()));
+        return rateLimitBackend.tryAcquire(client + '|' + tier + '|' + getScopeName(scope), limit, Math.min(cost, limit.capacity()));
+    }
+
+    int getTier(Collection<String> scopes) {
+        return scopes.stream()
+                .map(scope -> tiers.get(scope.toUpperCase(Locale.ROOT)))
+                .filter(tier -> tier != null && tier > 0)
+                .max(Integer::compare)
+                .orElse(DEFAULT_TIER);
+    }
+
+    private String getScopeName(Object scope) {
+        if (scope instanceof Method method) {
+            return method.getDeclaringClass().getName() + '#' + method.getName();
+        }
+        if (scope instanceof Class<?> type) {
+            return type.getName();
+        }
+        return String.valueOf(scope);
+    }
+}
@@ -1,9 +1,11 @@
 package com.task.crypto.advisor.services.impl;
 
+import com.task.crypto.advisor.configurations.JwtProperties;
 import com.task.crypto.advisor.services.TokenGenerationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 public class TokenGenerationServiceImpl implements TokenGenerationService {
 
     private final JwtEncoder encoder;
+    private final JwtProperties jwtProperties;
 
     @Override
     public String generateToken(Authentication authentication) {
@@ -36,6 +39,7 @@ public class TokenGenerationServiceImpl implements TokenGenerationService {
                 .subject(authentication.getName())
                 .claim("scope", authorities)
                 .build();
-        return encoder.encode(JwtEncoderParameters.from(claimsSet)).getTokenValue();
+        JwsHeader jwsHeader = JwsHeader.with(jwtProperties.algorithm()).build();
+        return encoder.encode(JwtEncoderParameters.from(jwsHeader, claimsSet)).getTokenValue();
     }
 }
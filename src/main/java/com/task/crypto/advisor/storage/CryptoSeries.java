@@ -0,0 +1,413 @@
+package com.task.crypto.advisor.storage;
+
+import com.task.crypto.advisor.entities.csv.CryptoEntry;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The `CryptoSeries` class is a columnar, time-sorted in-memory representation of all price ticks of one cryptocurrency.
+ * Ticks are kept in primitive columns: epoch-millis timestamps, prices as unscaled longs sharing one series scale
+ * and the original scale of every price, so values can be restored exactly as they were stored.
+ * The symbol is kept once per series instead of once per tick.
+ * CryptoEntry objects are created only on demand via {@link #toEntry(int)} and {@link #toEntries()}.
+ * Columns are primitive buffers, either heap ones or views of a memory-mapped segment file.
+ * Every series carries a lazily built CryptoSeriesIndex answering min and max price positions of any slice in O(log n).
+ * The index is built by the first min or max query only, which is made for daily rollup lows and highs,
+ * so series of raw ticks never build it and appends to them don't maintain it.
+ * Series is immutable for its readers: merging newer ticks produces a new series which may share
+ * columns with the old one, since appended ticks are placed beyond the old series size.
+ */
+public final class CryptoSeries {
+
+    private final String symbol;
+    private final Columns columns;
+    private final int size;
+
+    private CryptoSeries(String symbol, Columns columns, int size) {
+        this.symbol = symbol;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    public static Builder builder(String symbol) {
+        return new Builder(symbol);
+    }
+
+    /**
+     * Creates series over existing columns without copying them, columns must be sorted by timestamp.
+     */
+    static CryptoSeries wrap(String symbol, LongBuffer timestamps, LongBuffer prices, ByteBuffer scales, int scale, int size) {
+        return new CryptoSeries(symbol, new Columns(timestamps, prices, scales, scale, size), size);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getScale() {
+        return columns.scale;
+    }
+
+    public long timestampAt(int index) {
+        return columns.timestamps.get(index);
+    }
+
+    /**
+     * Returns price of the tick as unscaled long in series scale, values of one series are directly comparable.
+     */
+    public long unscaledPriceAt(int index) {
+        return columns.prices.get(index);
+    }
+
+    public int scaleAt(int index) {
+        return columns.scales.get(index);
+    }
+
+    public BigDecimal priceAt(int index) {
+        return BigDecimal.valueOf(unscaledPriceAt(index), columns.scale).setScale(scaleAt(index));
+    }
+
+    /**
+     * Finds the first tick with timestamp greater or equal to the given one.
+     *
+     * @param timestamp epoch millis to search for.
+     * @return index of the first tick not older than timestamp, or size of the series if there is no such tick.
+     */
+    public int lowerBound(long timestamp) {
+        LongBuffer timestamps = columns.timestamps;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps.get(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return position of the earliest tick with minimal price in slice from `from` (inclusive) to `to` (exclusive).
+     */
+    public int minPricePosition(int from, int to) {
+        checkSlice(from, to);
+        return columns.index().minPosition(columns.prices, from, to);
+    }
+
+    /**
+     * @return position of the earliest tick with maximal price in slice from `from` (inclusive) to `to` (exclusive).
+     */
+    public int maxPricePosition(int from, int to) {
+        checkSlice(from, to);
+        return columns.index().maxPosition(columns.prices, from, to);
+    }
+
+    /**
+     * @return bytes of heap held by columns and built index of the series, views of a mapped segment file hold none.
+     */
+    public long getHeapBytes() {
+        return columns.heapBytes();
+    }
+
+    public CryptoEntry toEntry(int index) {
+        return new CryptoEntry(Long.toString(timestampAt(index)), symbol, priceAt(index));
+    }
+
+    public List<CryptoEntry> toEntries() {
+        List<CryptoEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(toEntry(i));
+        }
+        return entries;
+    }
+
+    /**
+     * Merges ticks of other series into this one.
+     * If all ticks of other series are not older than the newest tick of this series and fit into
+     * the series scale, they are appended: columns are reused or grown, and if the index of reused columns
+     * is already built, only the new ticks are indexed.
+     * Otherwise both series are merged into newly built one.
+     *
+     * @param other Series of the same cryptocurrency to merge.
+     * @return New series containing ticks of both series.
+     */
+    public CryptoSeries merge(CryptoSeries other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        if (other.timestampAt(0) >= timestampAt(size - 1) && other.getScale() <= getScale()) {
+            return append(other);
+        }
+        Builder builder = builder(symbol);
+        int left = 0;
+        int right = 0;
+        while (left < size || right < other.size) {
+            if (right >= other.size || (left < size && timestampAt(left) <= other.timestampAt(right))) {
+                builder.add(timestampAt(left), unscaledPriceAt(left), getScale(), scaleAt(left));
+                left++;
+            } else {
+                builder.add(other.timestampAt(right), other.unscaledPriceAt(right), other.getScale(), other.scaleAt(right));
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    private CryptoSeries append(CryptoSeries other) {
+        synchronized (columns) {
+            int newSize = size + other.size;
+            Columns target = columns.canAppend(size, newSize)
+                    ? columns
+                    : columns.copy(size, newSize + (newSize >> 1));
+            long multiplier = Builder.pow10(getScale() - other.getScale());
+            for (int i = 0; i < other.size; i++) {
+                target.timestamps.put(size + i, other.timestampAt(i));
+                target.prices.put(size + i, Math.multiplyExact(other.unscaledPriceAt(i), multiplier));
+                target.scales.put(size + i, (byte) other.scaleAt(i));
+            }
+            if (target == columns) {
+                columns.appendIndex(size, newSize);
+            }
+            target.appendedSize = newSize;
+            return new CryptoSeries(symbol, target, newSize);
+        }
+    }
+
+    private void checkSlice(int from, int to) {
+        if (from < 0 || to > size || from >= to) {
+            throw new IndexOutOfBoundsException(String.format("Illegal slice from %d to %d of series with size %d", from, to, size));
+        }
+    }
+
+    /**
+     * Column storage shared by series snapshots, `appendedSize` tracks how many ticks were written,
+     * so only the latest snapshot is allowed to append in place. Read-only (mapped) columns are copied on append.
+     */
+    private static final class Columns {
+        private final LongBuffer timestamps;
+        private final LongBuffer prices;
+        private final ByteBuffer scales;
+        private final int scale;
+        private volatile CryptoSeriesIndex index;
+        private int appendedSize;
+
+        private Columns(LongBuffer timestamps, LongBuffer prices, ByteBuffer scales, int scale, int size) {
+            this.timestamps = timestamps;
+            this.prices = prices;
+            this.scales = scales;
+            this.scale = scale;
+            this.appendedSize = size;
+        }
+
+        private CryptoSeriesIndex index() {
+            CryptoSeriesIndex result = index;
+            if (result == null) {
+                synchronized (this) {
+                    result = index;
+                    if (result == null) {
+                        result = CryptoSeriesIndex.build(prices, appendedSize, appendedSize);
+                        index = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Indexes appended ticks only if the index is already built and has room for them,
+         * otherwise drops it to be rebuilt on the next query, so appends never build an index nobody queries.
+         */
+        private void appendIndex(int size, int newSize) {
+            CryptoSeriesIndex current = index;
+            if (current == null) {
+                return;
+            }
+            if (newSize <= current.capacity()) {
+                current.append(prices, size, newSize);
+            } else {
+                index = null;
+            }
+        }
+
+        private long heapBytes() {
+            long bytes = 0;
+            if (!timestamps.isDirect()) {
+                bytes += (long) timestamps.capacity() * Long.BYTES;
+            }
+            if (!prices.isDirect()) {
+                bytes += (long) prices.capacity() * Long.BYTES;
+            }
+            if (!scales.isDirect()) {
+                bytes += scales.capacity();
+            }
+            CryptoSeriesIndex current = index;
+            return current == null ? bytes : bytes + current.heapBytes();
+        }
+
+        private boolean canAppend(int size, int newSize) {
+            return appendedSize == size && !timestamps.isReadOnly() && newSize <= timestamps.capacity();
+        }
+
+        private Columns copy(int size, int capacity) {
+            long[] copiedTimestamps = new long[capacity];
+            long[] copiedPrices = new long[capacity];
+            byte[] copiedScales = new byte[capacity];
+            timestamps.get(0, copiedTimestamps, 0, size);
+            prices.get(0, copiedPrices, 0, size);
+            scales.get(0, copiedScales, 0, size);
+            return new Columns(LongBuffer.wrap(copiedTimestamps), LongBuffer.wrap(copiedPrices), ByteBuffer.wrap(copiedScales), scale, size);
+        }
+    }
+
+    /**
+     * The `Builder` collects ticks in arbitrary order and produces time-sorted series.
+     * Ticks with equal timestamps keep their insertion order.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final String symbol;
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+        private long[] prices = new long[INITIAL_CAPACITY];
+        private byte[] scales = new byte[INITIAL_CAPACITY];
+        private int scale;
+        private int size;
+        private boolean sorted = true;
+
+        private Builder(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public Builder add(long timestamp, BigDecimal price) {
+            BigDecimal normalized = price.scale() < 0 ? price.setScale(0) : price;
+            return add(timestamp, normalized.unscaledValue().longValueExact(), normalized.scale());
+        }
+
+        /**
+         * Adds tick with price represented as unscaled value and its scale (price = unscaledPrice * 10^-priceScale).
+         *
+         * @throws ArithmeticException if price can't be represented in the series scale without long overflow.
+         */
+        public Builder add(long timestamp, long unscaledPrice, int priceScale) {
+            return add(timestamp, unscaledPrice, priceScale, priceScale);
+        }
+
+        /**
+         * Adds tick with price given as unscaled value in `unscaledScale` and original scale of the price.
+         */
+        Builder add(long timestamp, long unscaledPrice, int unscaledScale, int priceScale) {
+            if (priceScale < 0 || priceScale > Byte.MAX_VALUE) {
+                throw new ArithmeticException("Unsupported price scale " + priceScale);
+            }
+            if (unscaledScale > scale) {
+                rescale(unscaledScale);
+            }
+            ensureCapacity(size + 1);
+            if (size > 0 && timestamps[size - 1] > timestamp) {
+                sorted = false;
+            }
+            timestamps[size] = timestamp;
+            prices[size] = Math.multiplyExact(unscaledPrice, pow10(scale - unscaledScale));
+            scales[size] = (byte) priceScale;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public CryptoSeries build() {
+            if (!sorted) {
+                sort();
+            }
+            return new CryptoSeries(symbol, new Columns(LongBuffer.wrap(timestamps), LongBuffer.wrap(prices), ByteBuffer.wrap(scales), scale, size), size);
+        }
+
+        private void rescale(int newScale) {
+            long multiplier = pow10(newScale - scale);
+            for (int i = 0; i < size; i++) {
+                prices[i] = Math.multiplyExact(prices[i], multiplier);
+            }
+            scale = newScale;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > timestamps.length) {
+                int newCapacity = Math.max(capacity, timestamps.length + (timestamps.length >> 1));
+                timestamps = Arrays.copyOf(timestamps, newCapacity);
+                prices = Arrays.copyOf(prices, newCapacity);
+                scales = Arrays.copyOf(scales, newCapacity);
+            }
+        }
+
+        private void sort() {
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            mergeSort(order, new int[size], 0, size);
+            long[] sortedTimestamps = new long[size];
+            long[] sortedPrices = new long[size];
+            byte[] sortedScales = new byte[size];
+            for (int i = 0; i < size; i++) {
+                sortedTimestamps[i] = timestamps[order[i]];
+                sortedPrices[i] = prices[order[i]];
+                sortedScales[i] = scales[order[i]];
+            }
+            timestamps = sortedTimestamps;
+            prices = sortedPrices;
+            scales = sortedScales;
+            sorted = true;
+        }
+
+        private void mergeSort(int[] order, int[] buffer, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            mergeSort(order, buffer, from, middle);
+            mergeSort(order, buffer, middle, to);
+            if (timestamps[order[middle - 1]] <= timestamps[order[middle]]) {
+                return;
+            }
+            System.arraycopy(order, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && timestamps[buffer[left]] <= timestamps[buffer[right]])) {
+                    order[i] = buffer[left++];
+                } else {
+                    order[i] = buffer[right++];
+                }
+            }
+        }
+
+        static long pow10(int exponent) {
+            long result = 1;
+            for (int i = 0; i < exponent; i++) {
+                result = Math.multiplyExact(result, 10L);
+            }
+            return result;
+        }
+    }
+}
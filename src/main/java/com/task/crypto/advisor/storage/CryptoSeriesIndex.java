@@ -0,0 +1,127 @@
+package com.task.crypto.advisor.storage;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * The `CryptoSeriesIndex` class is a segment tree over the price column of a CryptoSeries.
+ * It answers positions of minimal and maximal prices for any slice of the series in O(log n).
+ * Among equal prices the earliest tick wins.
+ * Tree is built over a power of two number of leaves, leaves beyond the series size are empty,
+ * so ticks appended to the series are indexed by updating their leaves only.
+ */
+final class CryptoSeriesIndex {
+
+    private static final int EMPTY = -1;
+
+    private final int leaves;
+    private final int[] minTree;
+    private final int[] maxTree;
+
+    private CryptoSeriesIndex(int leaves) {
+        this.leaves = leaves;
+        this.minTree = new int[leaves * 2];
+        this.maxTree = new int[leaves * 2];
+        Arrays.fill(minTree, EMPTY);
+        Arrays.fill(maxTree, EMPTY);
+    }
+
+    static CryptoSeriesIndex build(LongBuffer prices, int size, int capacity) {
+        CryptoSeriesIndex index = new CryptoSeriesIndex(Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        for (int i = 0; i < size; i++) {
+            index.minTree[index.leaves + i] = i;
+            index.maxTree[index.leaves + i] = i;
+        }
+        for (int node = index.leaves - 1; node > 0; node--) {
+            index.minTree[node] = min(prices, index.minTree[2 * node], index.minTree[2 * node + 1]);
+            index.maxTree[node] = max(prices, index.maxTree[2 * node], index.maxTree[2 * node + 1]);
+        }
+        return index;
+    }
+
+    int capacity() {
+        return leaves;
+    }
+
+    long heapBytes() {
+        return (long) (minTree.length + maxTree.length) * Integer.BYTES;
+    }
+
+    /**
+     * Indexes ticks from position `from` (inclusive) to `to` (exclusive), which must fit into index capacity.
+     * Only nodes above the new leaves are touched, so queries over older slices are not affected.
+     */
+    void append(LongBuffer prices, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int node = leaves + i;
+            minTree[node] = i;
+            maxTree[node] = i;
+            for (node >>= 1; node > 0; node >>= 1) {
+                minTree[node] = min(prices, minTree[2 * node], minTree[2 * node + 1]);
+                maxTree[node] = max(prices, maxTree[2 * node], maxTree[2 * node + 1]);
+            }
+        }
+    }
+
+    /**
+     * @return position of the minimal price in slice from `from` (inclusive) to `to` (exclusive).
+     */
+    int minPosition(LongBuffer prices, int from, int to) {
+        int result = EMPTY;
+        for (int left = from + leaves, right = to + leaves; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                result = min(prices, result, minTree[left++]);
+            }
+            if ((right & 1) == 1) {
+                result = min(prices, result, minTree[--right]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return position of the maximal price in slice from `from` (inclusive) to `to` (exclusive).
+     */
+    int maxPosition(LongBuffer prices, int from, int to) {
+        int result = EMPTY;
+        for (int left = from + leaves, right = to + leaves; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                result = max(prices, result, maxTree[left++]);
+            }
+            if ((right & 1) == 1) {
+                result = max(prices, result, maxTree[--right]);
+            }
+        }
+        return result;
+    }
+
+    private static int min(LongBuffer prices, int first, int second) {
+        if (first == EMPTY) {
+            return second;
+        }
+        if (second == EMPTY) {
+            return first;
+        }
+        long firstPrice = prices.get(first);
+        long secondPrice = prices.get(second);
+        if (firstPrice != secondPrice) {
+            return firstPrice < secondPrice ? first : second;
+        }
+        return Math.min(first, second);
+    }
+
+    private static int max(LongBuffer prices, int first, int second) {
+        if (first == EMPTY) {
+            return second;
+        }
+        if (second == EMPTY) {
+            return first;
+        }
+        long firstPrice = prices.get(first);
+        long secondPrice = prices.get(second);
+        if (firstPrice != secondPrice) {
+            return firstPrice > secondPrice ? first : second;
+        }
+        return Math.min(first, second);
+    }
+}
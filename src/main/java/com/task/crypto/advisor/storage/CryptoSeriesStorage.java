@@ -0,0 +1,381 @@
+package com.task.crypto.advisor.storage;
+
+import com.task.crypto.advisor.configurations.CsvStorageProperties;
+import com.task.crypto.advisor.exceptions.CryptoDataNotFoundException;
+import com.task.crypto.advisor.exceptions.CryptoValuesCsvValidationException;
+import com.task.crypto.advisor.exceptions.UploadCsvException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The `CryptoSeriesStorage` class keeps price ticks of every cryptocurrency in binary segment files of the storage directory:
+ * a base '&lt;SYMBOL&gt;_values.seg' segment and '&lt;SYMBOL&gt;_values.&lt;generation&gt;.seg' delta segments written by uploads.
+ * Loading a cryptocurrency maps its base segment and merges deltas newer than the base generation in generation order.
+ * Compaction merges deltas into the base, the base takes generation of the last merged delta.
+ * Legacy '&lt;SYMBOL&gt;_values.csv' files found in the storage directory are converted to segments once on application start
+ * and kept as '&lt;SYMBOL&gt;_values.csv.migrated'.
+ * Series are cached per upper-cased cryptocurrency name in 'cryptoSeries' cache, the cache is read and written
+ * under the lock of the cryptocurrency, so a load started before an upload can't replace the series cached by the upload.
+ * Daily rollups of every cryptocurrency are kept in '&lt;SYMBOL&gt;_daily.roll' file next to its segments for days
+ * of the system zone. Rollup is built on first load of the series, rebuilt on save and merged with rollup of uploaded
+ * ticks on append. A rollup file not covering the loaded series is rebuilt from it.
+ * Rollups are cached per cryptocurrency name in 'cryptoRollups' cache the same way, so an upload replaces
+ * only the rollup of the uploaded cryptocurrency.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CryptoSeriesStorage {
+
+    public static final String VALUES_SUFFIX = "_values";
+    public static final String CSV_SUFFIX = ".csv";
+    public static final String DAILY_SUFFIX = "_daily";
+    private static final String SERIES_CACHE_NAME = "cryptoSeries";
+    private static final String ROLLUP_CACHE_NAME = "cryptoRollups";
+    private final CsvStorageProperties csvStorageProperties;
+    private final CsvSegmentConverter csvSegmentConverter;
+    private final CacheManager cacheManager;
+    private final Map<String, Object> symbolLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Loads all price ticks of the cryptocurrency from storage.
+     *
+     * @param crypto The name of the cryptocurrency.
+     * @return Time-sorted CryptoSeries of the cryptocurrency backed by its mapped segment files.
+     * @throws CryptoDataNotFoundException if there is no data available for the specified cryptocurrency.
+     */
+    public CryptoSeries load(String crypto) {
+        String symbol = crypto.toUpperCase();
+        Cache cache = getSeriesCache();
+        CryptoSeries cached = cache.get(symbol, CryptoSeries.class);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (lock(symbol)) {
+            try {
+                cached = cache.get(symbol, CryptoSeries.class);
+                if (cached != null) {
+                    return cached;
+                }
+                CryptoSeries series = readSegments(symbol);
+                cache.put(symbol, series);
+                return series;
+            } catch (IOException e) {
+                log.error("Couldn't obtain crypto info cause {}", e.getMessage());
+                throw new CryptoDataNotFoundException(String.format("There is no data for crypto %s", crypto), e);
+            }
+        }
+    }
+
+    /**
+     * Writes all ticks of the series as base segment replacing previously stored ones, the series and its rollup
+     * become cached ones. Cached set of cryptocurrency names is evicted as the series may be of new cryptocurrency.
+     *
+     * @param series The series to store.
+     * @return Stored series.
+     * @throws UploadCsvException if series couldn't be written.
+     */
+    @CacheEvict(cacheNames = "cryptos", allEntries = true)
+    public CryptoSeries save(CryptoSeries series) {
+        synchronized (lock(series.getSymbol())) {
+            try {
+                NavigableMap<Long, Path> deltas = getDeltaPaths(series.getSymbol());
+                SegmentFile.write(getSegmentPath(series.getSymbol()), series, deltas.isEmpty() ? 0 : deltas.lastKey());
+                DailyRollup rollup = DailyRollup.build(series, ZoneId.systemDefault());
+                writeRollup(rollup);
+                getSeriesCache().put(series.getSymbol(), series);
+                getRollupCache().put(series.getSymbol(), rollup);
+            } catch (IOException e) {
+                log.error("Error occurred on uploading process exception -> {}", e.getMessage(), e);
+                throw new UploadCsvException("Error occurred on uploading process", e);
+            }
+        }
+        log.info("Upload successful");
+        return series;
+    }
+
+    /**
+     * Writes ticks of the upload as new delta segment, so the cost of writing doesn't depend on the stored history.
+     * The merged series becomes cached one. Rollup of the uploaded ticks is merged into the stored rollup,
+     * which becomes cached one, cached rollup is evicted if there is no stored rollup to merge into.
+     * Series are merged before the delta is written, and the delta is removed if anything after writing it fails,
+     * so a failed upload never leaves a delta that later loads couldn't merge.
+     *
+     * @param storedSeries   Currently stored series of the cryptocurrency.
+     * @param uploadedSeries Ticks to add, they must not duplicate timestamps of stored ones.
+     * @return Stored series merged with uploaded ticks.
+     * @throws CryptoValuesCsvValidationException if uploaded prices and stored ones don't fit into one scale.
+     * @throws UploadCsvException                 if the delta segment couldn't be written.
+     */
+    public CryptoSeries append(CryptoSeries storedSeries, CryptoSeries uploadedSeries) {
+        String symbol = storedSeries.getSymbol();
+        CryptoSeries mergedSeries;
+        synchronized (lock(symbol)) {
+            try {
+                mergedSeries = storedSeries.merge(uploadedSeries);
+            } catch (ArithmeticException e) {
+                throw new CryptoValuesCsvValidationException(String.format(
+                        "Prices of the upload don't fit into one scale with stored prices of %s", symbol), e);
+            }
+            Path delta = null;
+            try {
+                NavigableMap<Long, Path> deltas = getDeltaPaths(symbol);
+                long generation = Math.max(SegmentFile.readGeneration(getSegmentPath(symbol)), deltas.isEmpty() ? 0 : deltas.lastKey()) + 1;
+                delta = getDeltaPath(symbol, generation);
+                SegmentFile.write(delta, uploadedSeries, generation);
+                DailyRollup storedRollup = readRollup(symbol);
+                DailyRollup mergedRollup = null;
+                if (storedRollup != null && storedRollup.covers(storedSeries, ZoneId.systemDefault())) {
+                    mergedRollup = storedRollup.merge(DailyRollup.build(uploadedSeries, ZoneId.systemDefault()));
+                    writeRollup(mergedRollup);
+                }
+                getSeriesCache().put(symbol, mergedSeries);
+                if (mergedRollup == null) {
+                    getRollupCache().evict(symbol);
+                } else {
+                    getRollupCache().put(symbol, mergedRollup);
+                }
+            } catch (IOException | RuntimeException e) {
+                deleteDelta(delta);
+                log.error("Error occurred on uploading process exception -> {}", e.getMessage(), e);
+                throw new UploadCsvException("Error occurred on uploading process", e);
+            }
+        }
+        log.info("Upload successful");
+        return mergedSeries;
+    }
+
+    /**
+     * Loads daily rollup of the series from its rollup file, or builds and writes it if the file doesn't cover the series.
+     * Cached rollup of the cryptocurrency is returned only if it covers the series, otherwise the loaded one replaces it.
+     *
+     * @param series Series of the cryptocurrency loaded from storage.
+     * @return Daily rollup of all ticks of the series.
+     */
+    public DailyRollup loadRollup(CryptoSeries series) {
+        ZoneId zone = ZoneId.systemDefault();
+        String symbol = series.getSymbol();
+        Cache cache = getRollupCache();
+        DailyRollup cached = cache.get(symbol, DailyRollup.class);
+        if (cached != null && cached.covers(series, zone)) {
+            return cached;
+        }
+        synchronized (lock(symbol)) {
+            cached = cache.get(symbol, DailyRollup.class);
+            if (cached != null && cached.covers(series, zone)) {
+                return cached;
+            }
+            DailyRollup rollup = readRollup(symbol);
+            if (rollup == null || !rollup.covers(series, zone)) {
+                rollup = DailyRollup.build(series, zone);
+                writeRollup(rollup);
+                log.info("Built daily rollup of {} ticks of {} into {} days", series.size(), symbol, rollup.size());
+            }
+            cache.put(symbol, rollup);
+            return rollup;
+        }
+    }
+
+    /**
+     * Opens export of ticks of the series from position `from` (inclusive) to `to` (exclusive) in segment file format.
+     * If the base segment holds all ticks of the series, the slice is transferred from the segment file,
+     * otherwise it's written from the series.
+     *
+     * @param series Series of the cryptocurrency loaded from storage.
+     * @param from   First position of the slice.
+     * @param to     Position after the last one of the slice.
+     * @return Export of the slice, it has to be closed after the transfer.
+     * @throws IOException if the base segment couldn't be read.
+     */
+    public SegmentExport export(CryptoSeries series, int from, int to) throws IOException {
+        String symbol = series.getSymbol();
+        synchronized (lock(symbol)) {
+            Path segment = getSegmentPath(symbol);
+            long generation = SegmentFile.readGeneration(segment);
+            NavigableMap<Long, Path> deltas = getDeltaPaths(symbol).tailMap(generation, false);
+            if (deltas.isEmpty()) {
+                SegmentExport export = SegmentExport.open(segment, series, from, to, generation);
+                if (export != null) {
+                    return export;
+                }
+            }
+            return SegmentExport.of(series, from, to, deltas.isEmpty() ? generation : deltas.lastKey());
+        }
+    }
+
+    /**
+     * Merges delta segments of the cryptocurrency into its base segment and removes them.
+     * Stored ticks don't change, so cached series stays valid.
+     *
+     * @param symbol The name of the cryptocurrency.
+     * @return Number of removed delta segments.
+     * @throws IOException if segments couldn't be read or written.
+     */
+    public int compact(String symbol) throws IOException {
+        synchronized (lock(symbol)) {
+            NavigableMap<Long, Path> deltas = getDeltaPaths(symbol);
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            Path segment = getSegmentPath(symbol);
+            if (SegmentFile.readGeneration(segment) < deltas.lastKey()) {
+                SegmentFile.write(segment, readSegments(symbol), deltas.lastKey());
+            }
+            for (Path delta : deltas.values()) {
+                Files.deleteIfExists(delta);
+            }
+            log.info("Compacted {} delta segments of {}", deltas.size(), symbol);
+            return deltas.size();
+        }
+    }
+
+    /**
+     * Converts legacy '&lt;SYMBOL&gt;_values.csv' files of the storage directory into segments.
+     * A csv file is converted only if there is no segment of the cryptocurrency yet, it is renamed afterwards,
+     * a csv file that couldn't be converted is left in place.
+     *
+     * @return Number of converted csv files.
+     */
+    public int migrateLegacyCsv() {
+        File[] csvFiles = Objects.requireNonNull(new File(csvStorageProperties.targetDir())
+                .listFiles((dir, name) -> name.endsWith(VALUES_SUFFIX + CSV_SUFFIX)));
+        int migrated = 0;
+        for (File csvFile : csvFiles) {
+            String symbol = csvFile.getName().substring(0, csvFile.getName().lastIndexOf(VALUES_SUFFIX)).toUpperCase();
+            synchronized (lock(symbol)) {
+                try {
+                    csvSegmentConverter.convert(csvFile.toPath(), symbol, getSegmentPath(symbol));
+                    migrated++;
+                } catch (IOException e) {
+                    log.error("Couldn't migrate legacy csv file {} cause {}", csvFile, e.getMessage());
+                }
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * Retrieves names of all cryptocurrencies having base segment in storage.
+     * Legacy csv files are listed only once they are converted by {@link #migrateLegacyCsv()} at startup.
+     *
+     * @return A set of strings representing the names of stored cryptocurrencies.
+     */
+    public Set<String> getSymbols() {
+        return Arrays.stream(Objects.requireNonNull(new File(csvStorageProperties.targetDir())
+                        .listFiles((dir, name) -> name.endsWith(VALUES_SUFFIX + SegmentFile.SUFFIX))))
+                .map(file -> file.getName().substring(0, file.getName().lastIndexOf(VALUES_SUFFIX)))
+                .collect(Collectors.toSet());
+    }
+
+    public Path getSegmentPath(String symbol) {
+        return Paths.get(csvStorageProperties.targetDir(), symbol + VALUES_SUFFIX + SegmentFile.SUFFIX);
+    }
+
+    private Path getDeltaPath(String symbol, long generation) {
+        return Paths.get(csvStorageProperties.targetDir(), symbol + VALUES_SUFFIX + "." + generation + SegmentFile.SUFFIX);
+    }
+
+    private Path getRollupPath(String symbol) {
+        return Paths.get(csvStorageProperties.targetDir(), symbol + DAILY_SUFFIX + DailyRollupFile.SUFFIX);
+    }
+
+    /**
+     * @return Stored rollup of the cryptocurrency, null if there is none or it couldn't be read.
+     */
+    private DailyRollup readRollup(String symbol) {
+        Path path = getRollupPath(symbol);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return DailyRollupFile.read(path, symbol);
+        } catch (IOException e) {
+            log.warn("Couldn't read daily rollup of {} cause {}", symbol, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the rollup, failure is only logged as the rollup is rebuilt from segments on next load.
+     */
+    private void writeRollup(DailyRollup rollup) {
+        try {
+            DailyRollupFile.write(getRollupPath(rollup.getSymbol()), rollup);
+        } catch (IOException e) {
+            log.error("Couldn't write daily rollup of {} cause {}", rollup.getSymbol(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes delta segment of a failed append, failure is only logged as the upload has already failed.
+     */
+    private void deleteDelta(Path delta) {
+        if (delta == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(delta);
+        } catch (IOException e) {
+            log.error("Couldn't remove delta segment {} of failed upload cause {}", delta, e.getMessage());
+        }
+    }
+
+    private CryptoSeries readSegments(String symbol) throws IOException {
+        Path segment = getSegmentPath(symbol);
+        CryptoSeries series = SegmentFile.read(segment, symbol);
+        for (Path delta : getDeltaPaths(symbol).tailMap(SegmentFile.readGeneration(segment), false).values()) {
+            series = series.merge(SegmentFile.read(delta, symbol));
+        }
+        return series;
+    }
+
+    private NavigableMap<Long, Path> getDeltaPaths(String symbol) throws IOException {
+        String prefix = symbol + VALUES_SUFFIX + ".";
+        NavigableMap<Long, Path> deltas = new TreeMap<>();
+        try (Stream<Path> files = Files.list(Path.of(csvStorageProperties.targetDir()))) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.length() > prefix.length() + SegmentFile.SUFFIX.length()
+                        && name.startsWith(prefix) && name.endsWith(SegmentFile.SUFFIX)) {
+                    String generation = name.substring(prefix.length(), name.length() - SegmentFile.SUFFIX.length());
+                    if (generation.chars().allMatch(Character::isDigit)) {
+                        deltas.put(Long.parseLong(generation), file);
+                    }
+                }
+            });
+        }
+        return deltas;
+    }
+
+    private Cache getSeriesCache() {
+        return Objects.requireNonNull(cacheManager.getCache(SERIES_CACHE_NAME));
+    }
+
+    private Cache getRollupCache() {
+        return Objects.requireNonNull(cacheManager.getCache(ROLLUP_CACHE_NAME));
+    }
+
+    private Object lock(String symbol) {
+        return symbolLocks.computeIfAbsent(symbol, key -> new Object());
+    }
+}
@@ -0,0 +1,70 @@
+package com.task.crypto.advisor.storage;
+
+import com.task.crypto.advisor.exceptions.CryptoValuesCsvValidationException;
+import com.task.crypto.advisor.parsers.CryptoCsvParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The `CsvSegmentConverter` class converts csv price files in 'timestamp,symbol,price' format
+ * into binary segment files, it is used once per legacy csv file.
+ */
+@Component
+@Slf4j
+public class CsvSegmentConverter {
+
+    public static final String MIGRATED_SUFFIX = ".migrated";
+
+    /**
+     * Reads csv price file into series.
+     *
+     * @param inputStream Stream of the csv file content.
+     * @param symbol      The name of the cryptocurrency stored in the file.
+     * @return Time-sorted series of all rows of the file.
+     * @throws IOException if the stream couldn't be read or its content is malformed.
+     */
+    public CryptoSeries read(InputStream inputStream, String symbol) throws IOException {
+        try (inputStream) {
+            return CryptoCsvParser.parse(inputStream, symbol);
+        } catch (CryptoValuesCsvValidationException e) {
+            throw new IOException(String.format("Csv data of %s is malformed: %s", symbol, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Converts csv price stream into segment file.
+     *
+     * @param inputStream Stream of the csv file content.
+     * @param symbol      The name of the cryptocurrency stored in the file.
+     * @param segment     Path of the segment file to create.
+     * @throws IOException if the stream couldn't be read or segment couldn't be written.
+     */
+    public void convert(InputStream inputStream, String symbol, Path segment) throws IOException {
+        SegmentFile.write(segment, read(inputStream, symbol));
+        log.info("Csv data of {} converted to segment {}", symbol, segment);
+    }
+
+    /**
+     * Converts csv price file into segment file and renames the csv file to '&lt;name&gt;.csv.migrated',
+     * the csv file is only renamed if the segment file already exists.
+     *
+     * @param csv     Path of the csv file.
+     * @param symbol  The name of the cryptocurrency stored in the file.
+     * @param segment Path of the segment file to create.
+     * @throws IOException if the csv file couldn't be read or segment couldn't be written.
+     */
+    public synchronized void convert(Path csv, String symbol, Path segment) throws IOException {
+        if (!Files.exists(segment)) {
+            try (InputStream inputStream = Files.newInputStream(csv)) {
+                convert(inputStream, symbol, segment);
+            }
+        }
+        Files.move(csv, csv.resolveSibling(csv.getFileName() + MIGRATED_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,229 @@
+package com.task.crypto.advisor.storage;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * The `DailyRollup` class holds daily open, high, low and close ticks of one cryptocurrency for days of the given zone.
+ * Every column is a CryptoSeries with one tick per day, so ticks keep their timestamps and original prices
+ * and min and max over any range of days are answered by indexes of the high and low columns in O(log days).
+ * Among equal prices the earliest tick wins, as it does over raw ticks, so statistics of whole days computed
+ * from the rollup are equal to statistics computed from the series.
+ * Rollup records number and first and last timestamps of rolled up ticks to check it still covers the series.
+ */
+public final class DailyRollup {
+
+    private final ZoneId zone;
+    private final CryptoSeries opens;
+    private final CryptoSeries highs;
+    private final CryptoSeries lows;
+    private final CryptoSeries closes;
+    private final int[] ticks;
+    private final long tickCount;
+
+    DailyRollup(ZoneId zone, CryptoSeries opens, CryptoSeries highs, CryptoSeries lows, CryptoSeries closes, int[] ticks) {
+        this.zone = zone;
+        this.opens = opens;
+        this.highs = highs;
+        this.lows = lows;
+        this.closes = closes;
+        this.ticks = ticks;
+        this.tickCount = Arrays.stream(ticks).asLongStream().sum();
+    }
+
+    /**
+     * Rolls up ticks of the series into days of the zone in a single pass.
+     *
+     * @param series Time-sorted series of a cryptocurrency.
+     * @param zone   Zone of day boundaries.
+     * @return Rollup with one candle per day having ticks.
+     */
+    public static DailyRollup build(CryptoSeries series, ZoneId zone) {
+        Columns columns = new Columns(series.getSymbol());
+        int start = 0;
+        while (start < series.size()) {
+            int end = series.lowerBound(nextDayStart(series.timestampAt(start), zone));
+            int high = start;
+            int low = start;
+            for (int i = start + 1; i < end; i++) {
+                long price = series.unscaledPriceAt(i);
+                if (price > series.unscaledPriceAt(high)) {
+                    high = i;
+                } else if (price < series.unscaledPriceAt(low)) {
+                    low = i;
+                }
+            }
+            columns.add(series, start, series, high, series, low, series, end - 1, end - start);
+            start = end;
+        }
+        return columns.build(zone);
+    }
+
+    /**
+     * Merges candles of other rollup of the same cryptocurrency and zone into this one.
+     * Candles of the same day are combined, so merging rollups of two series equals the rollup of their merged series.
+     *
+     * @param other Rollup of ticks not present in this one.
+     * @return New rollup of ticks of both rollups.
+     */
+    public DailyRollup merge(DailyRollup other) {
+        if (!zone.equals(other.zone)) {
+            throw new IllegalArgumentException(String.format("Rollups of zones %s and %s can't be merged", zone, other.zone));
+        }
+        Columns columns = new Columns(opens.getSymbol());
+        int left = 0;
+        int right = 0;
+        while (left < size() || right < other.size()) {
+            long leftDay = left < size() ? epochDayAt(left) : Long.MAX_VALUE;
+            long rightDay = right < other.size() ? other.epochDayAt(right) : Long.MAX_VALUE;
+            if (leftDay < rightDay) {
+                columns.add(this, left++);
+            } else if (rightDay < leftDay) {
+                columns.add(other, right++);
+            } else {
+                boolean otherOpen = other.opens.timestampAt(right) < opens.timestampAt(left);
+                boolean otherHigh = isPreferred(other.highs, right, highs, left, true);
+                boolean otherLow = isPreferred(other.lows, right, lows, left, false);
+                boolean otherClose = other.closes.timestampAt(right) >= closes.timestampAt(left);
+                columns.add(
+                        otherOpen ? other.opens : opens, otherOpen ? right : left,
+                        otherHigh ? other.highs : highs, otherHigh ? right : left,
+                        otherLow ? other.lows : lows, otherLow ? right : left,
+                        otherClose ? other.closes : closes, otherClose ? right : left,
+                        ticks[left] + other.ticks[right]);
+                left++;
+                right++;
+            }
+        }
+        return columns.build(zone);
+    }
+
+    /**
+     * Checks the rollup is built for days of the zone from exactly the ticks of the series.
+     */
+    public boolean covers(CryptoSeries series, ZoneId zone) {
+        if (!this.zone.equals(zone) || tickCount != series.size()) {
+            return false;
+        }
+        return series.isEmpty() || (opens.timestampAt(0) == series.timestampAt(0)
+                && closes.timestampAt(size() - 1) == series.timestampAt(series.size() - 1));
+    }
+
+    /**
+     * Finds the first day with ticks not older than the given timestamp.
+     *
+     * @param timestamp epoch millis to search for, usually start of a day.
+     * @return index of the first day having its open tick not older than timestamp, or size if there is no such day.
+     */
+    public int lowerBound(long timestamp) {
+        return opens.lowerBound(timestamp);
+    }
+
+    public int size() {
+        return opens.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public String getSymbol() {
+        return opens.getSymbol();
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public LocalDate dayAt(int index) {
+        return Instant.ofEpochMilli(opens.timestampAt(index)).atZone(zone).toLocalDate();
+    }
+
+    public int ticksAt(int index) {
+        return ticks[index];
+    }
+
+    public CryptoSeries getOpens() {
+        return opens;
+    }
+
+    public CryptoSeries getHighs() {
+        return highs;
+    }
+
+    public CryptoSeries getLows() {
+        return lows;
+    }
+
+    public CryptoSeries getCloses() {
+        return closes;
+    }
+
+    private long epochDayAt(int index) {
+        return dayAt(index).toEpochDay();
+    }
+
+    /**
+     * @return true if price of the first tick is higher (or lower if `higher` is false), or equal and the first tick is earlier.
+     */
+    private static boolean isPreferred(CryptoSeries first, int firstIndex, CryptoSeries second, int secondIndex, boolean higher) {
+        int comparison = first.priceAt(firstIndex).compareTo(second.priceAt(secondIndex));
+        if (comparison != 0) {
+            return higher ? comparison > 0 : comparison < 0;
+        }
+        return first.timestampAt(firstIndex) < second.timestampAt(secondIndex);
+    }
+
+    private static long nextDayStart(long timestamp, ZoneId zone) {
+        return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Collects candles of a rollup being built, ticks are copied from source series with their original scales.
+     */
+    private static final class Columns {
+        private final CryptoSeries.Builder opens;
+        private final CryptoSeries.Builder highs;
+        private final CryptoSeries.Builder lows;
+        private final CryptoSeries.Builder closes;
+        private int[] ticks = new int[16];
+        private int size;
+
+        Columns(String symbol) {
+            opens = CryptoSeries.builder(symbol);
+            highs = CryptoSeries.builder(symbol);
+            lows = CryptoSeries.builder(symbol);
+            closes = CryptoSeries.builder(symbol);
+        }
+
+        void add(DailyRollup rollup, int index) {
+            add(rollup.opens, index, rollup.highs, index, rollup.lows, index, rollup.closes, index, rollup.ticks[index]);
+        }
+
+        void add(CryptoSeries open, int openIndex, CryptoSeries high, int highIndex,
+                 CryptoSeries low, int lowIndex, CryptoSeries close, int closeIndex, int count) {
+            copy(opens, open, openIndex);
+            copy(highs, high, highIndex);
+            copy(lows, low, lowIndex);
+            copy(closes, close, closeIndex);
+            if (size == ticks.length) {
+                ticks = Arrays.copyOf(ticks, size + (size >> 1));
+            }
+            ticks[size++] = count;
+        }
+
+        DailyRollup build(ZoneId zone) {
+            return new DailyRollup(zone, opens.build(), highs.build(), lows.build(), closes.build(), Arrays.copyOf(ticks, size));
+        }
+
+        private static void copy(CryptoSeries.Builder builder, CryptoSeries series, int index) {
+            builder.add(series.timestampAt(index), series.unscaledPriceAt(index), series.getScale(), series.scaleAt(index));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.task.crypto.advisor.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+
+/**
+ * The `DailyRollupFile` class reads and writes DailyRollup in big-endian binary format:
+ * <pre>
+ * header    magic "CROL" (int), version (short), zone id (modified UTF-8), day count (int)
+ * day       for open, high, low and close ticks: timestamp (long), unscaled price (long), price scale (byte);
+ *           tick count (int)
+ * </pre>
+ * Prices are stored unscaled in their original scale, so rollups are restored exactly.
+ * Rollups hold one row per day, so files are read into heap series instead of being mapped.
+ */
+public final class DailyRollupFile {
+
+    public static final String SUFFIX = ".roll";
+    private static final int MAGIC = 0x434F524C;
+    private static final short VERSION = 1;
+
+    private DailyRollupFile() {
+    }
+
+    /**
+     * Reads rollup file of the cryptocurrency.
+     *
+     * @param path   Path to the rollup file.
+     * @param symbol The name of the cryptocurrency stored in the rollup.
+     * @return Rollup restored from the file.
+     * @throws IOException if the file couldn't be read or has unsupported format.
+     */
+    public static DailyRollup read(Path path, String symbol) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != MAGIC || input.readShort() != VERSION) {
+                throw new IOException(String.format("File %s is not a rollup file of supported version", path));
+            }
+            ZoneId zone;
+            try {
+                zone = ZoneId.of(input.readUTF());
+            } catch (DateTimeException e) {
+                throw new IOException(String.format("Rollup file %s is corrupted", path), e);
+            }
+            int days = input.readInt();
+            if (days < 0) {
+                throw new IOException(String.format("Rollup file %s is corrupted", path));
+            }
+            CryptoSeries.Builder[] columns = new CryptoSeries.Builder[4];
+            for (int column = 0; column < columns.length; column++) {
+                columns[column] = CryptoSeries.builder(symbol);
+            }
+            int[] ticks = new int[days];
+            for (int day = 0; day < days; day++) {
+                for (CryptoSeries.Builder column : columns) {
+                    long timestamp = input.readLong();
+                    long unscaledPrice = input.readLong();
+                    column.add(timestamp, unscaledPrice, input.readByte());
+                }
+                ticks[day] = input.readInt();
+            }
+            return new DailyRollup(zone, columns[0].build(), columns[1].build(), columns[2].build(), columns[3].build(), ticks);
+        }
+    }
+
+    /**
+     * Writes rollup to temporary file and atomically moves it to the target path,
+     * so readers never observe partially written rollup.
+     *
+     * @param path   Target path of the rollup file.
+     * @param rollup Rollup to write.
+     * @throws IOException if the file couldn't be written.
+     */
+    public static void write(Path path, DailyRollup rollup) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        CryptoSeries[] columns = {rollup.getOpens(), rollup.getHighs(), rollup.getLows(), rollup.getCloses()};
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            output.writeUTF(rollup.getZone().getId());
+            output.writeInt(rollup.size());
+            for (int day = 0; day < rollup.size(); day++) {
+                for (CryptoSeries column : columns) {
+                    int scale = column.scaleAt(day);
+                    output.writeLong(column.timestampAt(day));
+                    output.writeLong(column.unscaledPriceAt(day) / CryptoSeries.Builder.pow10(column.getScale() - scale));
+                    output.writeByte(scale);
+                }
+                output.writeInt(rollup.ticksAt(day));
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,75 @@
+package com.task.crypto.advisor.storage;
+
+/**
+ * The `LargestTriangleThreeBuckets` class downsamples a slice of CryptoSeries to the given number of ticks
+ * keeping its visual shape. The first and the last tick are always kept, remaining ticks are split into equal buckets
+ * and from every bucket the tick forming the largest triangle with the previously kept tick and the average
+ * of the next bucket is kept. Time is linear in the slice length.
+ */
+public final class LargestTriangleThreeBuckets {
+
+    private LargestTriangleThreeBuckets() {
+    }
+
+    /**
+     * Selects positions of ticks to keep from slice from `from` (inclusive) to `to` (exclusive).
+     *
+     * @param series Time-sorted series.
+     * @param from   First position of the slice.
+     * @param to     Position after the last one of the slice.
+     * @param points Number of ticks to keep, all ticks are kept if the slice is not longer.
+     * @return Ascending positions of kept ticks.
+     */
+    public static int[] downsample(CryptoSeries series, int from, int to, int points) {
+        int size = Math.max(0, to - from);
+        if (size <= points) {
+            return positions(from, size);
+        }
+        if (points < 3) {
+            return points < 2 ? positions(from, points) : new int[]{from, to - 1};
+        }
+        int[] selected = new int[points];
+        selected[0] = from;
+        double bucketSize = (double) (size - 2) / (points - 2);
+        long origin = series.timestampAt(from);
+        int previous = from;
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            int bucketStart = from + 1 + (int) (bucket * bucketSize);
+            int bucketEnd = from + 1 + (int) ((bucket + 1) * bucketSize);
+            int nextStart = bucketEnd;
+            int nextEnd = bucket == points - 3 ? to : from + 1 + (int) ((bucket + 2) * bucketSize);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += series.timestampAt(i) - origin;
+                averageY += series.unscaledPriceAt(i);
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+            double previousX = series.timestampAt(previous) - origin;
+            double previousY = series.unscaledPriceAt(previous);
+            double maxArea = -1;
+            int chosen = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((previousX - averageX) * (series.unscaledPriceAt(i) - previousY)
+                        - (previousX - (series.timestampAt(i) - origin)) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        selected[points - 1] = to - 1;
+        return selected;
+    }
+
+    private static int[] positions(int from, int size) {
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = from + i;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,53 @@
+package com.task.crypto.advisor.storage;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The `Resolution` enum lists levels of SeriesPyramid from raw ticks to weekly buckets.
+ * Buckets of every resolution nest into buckets of the next one, hours, days and weeks start in the given zone,
+ * weeks start on Monday.
+ */
+public enum Resolution {
+    RAW {
+        @Override
+        long bucketEnd(long timestamp, ZoneId zone) {
+            return timestamp + 1;
+        }
+    },
+    MINUTE {
+        @Override
+        long bucketEnd(long timestamp, ZoneId zone) {
+            return (Math.floorDiv(timestamp, MINUTE_MILLIS) + 1) * MINUTE_MILLIS;
+        }
+    },
+    HOUR {
+        @Override
+        long bucketEnd(long timestamp, ZoneId zone) {
+            return Instant.ofEpochMilli(timestamp).atZone(zone).truncatedTo(ChronoUnit.HOURS).plusHours(1).toInstant().toEpochMilli();
+        }
+    },
+    DAY {
+        @Override
+        long bucketEnd(long timestamp, ZoneId zone) {
+            return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    },
+    WEEK {
+        @Override
+        long bucketEnd(long timestamp, ZoneId zone) {
+            return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate()
+                    .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    };
+
+    private static final long MINUTE_MILLIS = 60_000;
+
+    /**
+     * @return Start of the bucket following the bucket of the timestamp, epoch millis.
+     */
+    abstract long bucketEnd(long timestamp, ZoneId zone);
+}
@@ -0,0 +1,240 @@
+package com.task.crypto.advisor.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntToLongFunction;
+
+/**
+ * The `SegmentExport` class is a slice of stored ticks of a cryptocurrency in SegmentFile format, so the exported
+ * bytes are a valid segment file holding ticks of the slice. Any byte range of the export can be transferred,
+ * so interrupted exports are resumed from the last received byte.
+ * Slice of a series stored entirely in its base segment consists of the new header and three regions of the segment file,
+ * which are transferred by FileChannel.transferTo. The file is opened on creation, so the export stays consistent
+ * when the segment is replaced by a later save or compaction.
+ * Slice of a series having delta segments is written from columns of the mapped series through a direct buffer.
+ * Ticks are never materialized in heap either way.
+ */
+public final class SegmentExport implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String symbol;
+    private final String version;
+    private final FileChannel channel;
+    private final Region[] regions;
+    private final long length;
+
+    private SegmentExport(String symbol, String version, FileChannel channel, Region... regions) {
+        this.symbol = symbol;
+        this.version = version;
+        this.channel = channel;
+        this.regions = regions;
+        long total = 0;
+        for (Region region : regions) {
+            total += region.length();
+        }
+        this.length = total;
+    }
+
+    /**
+     * Opens export of the slice from the segment file, if the file holds exactly the ticks of the series.
+     *
+     * @param segment    Path to the base segment of the series.
+     * @param series     Series of the cryptocurrency.
+     * @param from       First position of the slice.
+     * @param to         Position after the last one of the slice.
+     * @param generation Generation of the stored series.
+     * @return Export transferring slice from the file, null if the file doesn't hold the series.
+     * @throws IOException if the file couldn't be read or has unsupported format.
+     */
+    static SegmentExport open(Path segment, CryptoSeries series, int from, int to, long generation) throws IOException {
+        FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(SegmentFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int read;
+            do {
+                read = channel.read(header, header.position());
+            } while (read > 0 && header.hasRemaining());
+            header.flip();
+            SegmentFile.checkHeader(segment, header);
+            int size = series.size();
+            if (header.get(6) != series.getScale() || header.getLong(8) != size
+                    || channel.size() != SegmentFile.HEADER_SIZE + size * (2L * Long.BYTES + 1)) {
+                channel.close();
+                return null;
+            }
+            int count = to - from;
+            return new SegmentExport(series.getSymbol(), version(series, from, to, generation), channel,
+                    header(series, count, generation),
+                    new FileRegion(channel, SegmentFile.timestampsOffset() + (long) from * Long.BYTES, (long) count * Long.BYTES),
+                    new FileRegion(channel, SegmentFile.pricesOffset(size) + (long) from * Long.BYTES, (long) count * Long.BYTES),
+                    new FileRegion(channel, SegmentFile.scalesOffset(size) + (long) from, count));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates export of the slice written from columns of the series.
+     *
+     * @param series     Series of the cryptocurrency.
+     * @param from       First position of the slice.
+     * @param to         Position after the last one of the slice.
+     * @param generation Generation of the stored series.
+     * @return Export writing slice from the series.
+     */
+    static SegmentExport of(CryptoSeries series, int from, int to, long generation) {
+        int count = to - from;
+        return new SegmentExport(series.getSymbol(), version(series, from, to, generation), null,
+                header(series, count, generation),
+                new ColumnRegion(Long.BYTES, from, count, series::timestampAt),
+                new ColumnRegion(Long.BYTES, from, count, series::unscaledPriceAt),
+                new ColumnRegion(1, from, count, series::scaleAt));
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return Identifier of the exported content, exports of the same slice of the same stored ticks have the same one.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Length of the export in bytes.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return True if ticks are transferred from the segment file by FileChannel.transferTo.
+     */
+    public boolean isFileTransfer() {
+        return channel != null;
+    }
+
+    /**
+     * Transfers `count` bytes of the export starting from `position` to the target channel.
+     *
+     * @param position First byte of the export to transfer.
+     * @param count    Number of bytes to transfer.
+     * @param target   Channel to write bytes to.
+     * @throws IOException if the segment couldn't be read or the target couldn't be written.
+     */
+    public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        if (position < 0 || count < 0 || position + count > length) {
+            throw new IndexOutOfBoundsException(String.format("Range %d+%d is out of export of %d bytes", position, count, length));
+        }
+        ByteBuffer buffer = null;
+        long offset = position;
+        long remaining = count;
+        for (Region region : regions) {
+            if (remaining == 0) {
+                break;
+            }
+            if (offset >= region.length()) {
+                offset -= region.length();
+                continue;
+            }
+            long transferred = Math.min(remaining, region.length() - offset);
+            if (!(region instanceof FileRegion) && buffer == null) {
+                buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            region.transferTo(offset, transferred, target, buffer);
+            remaining -= transferred;
+            offset = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private static Region header(CryptoSeries series, int count, long generation) {
+        ByteBuffer header = ByteBuffer.allocate(SegmentFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        SegmentFile.putHeader(header, series.getScale(), count, generation).flip();
+        return new ColumnRegion(1, 0, SegmentFile.HEADER_SIZE, header::get);
+    }
+
+    private static String version(CryptoSeries series, int from, int to, long generation) {
+        return String.format("%s-%x-%x-%x-%x", series.getSymbol(), generation, series.size(), from, to);
+    }
+
+    private static void write(WritableByteChannel target, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private interface Region {
+
+        long length();
+
+        void transferTo(long offset, long count, WritableByteChannel target, ByteBuffer buffer) throws IOException;
+    }
+
+    private record FileRegion(FileChannel channel, long position, long length) implements Region {
+
+        @Override
+        public void transferTo(long offset, long count, WritableByteChannel target, ByteBuffer buffer) throws IOException {
+            long transferred = 0;
+            while (transferred < count) {
+                long written = channel.transferTo(position + offset + transferred, count - transferred, target);
+                if (written <= 0) {
+                    throw new IOException("Segment file ended before the exported slice");
+                }
+                transferred += written;
+            }
+        }
+    }
+
+    /**
+     * Column of `count` little-endian values of `width` bytes, values of positions from `from` are supplied by `values`.
+     */
+    private record ColumnRegion(int width, int from, int count, IntToLongFunction values) implements Region {
+
+        @Override
+        public long length() {
+            return (long) width * count;
+        }
+
+        @Override
+        public void transferTo(long offset, long count, WritableByteChannel target, ByteBuffer buffer) throws IOException {
+            int index = (int) (offset / width);
+            int skip = (int) (offset % width);
+            long remaining = count;
+            while (remaining > 0) {
+                buffer.clear();
+                while (buffer.remaining() >= width && index < this.count) {
+                    long value = values.applyAsLong(from + index++);
+                    if (width == Long.BYTES) {
+                        buffer.putLong(value);
+                    } else {
+                        buffer.put((byte) value);
+                    }
+                }
+                buffer.flip().position(skip);
+                skip = 0;
+                if (buffer.remaining() > remaining) {
+                    buffer.limit(buffer.position() + (int) remaining);
+                }
+                remaining -= buffer.remaining();
+                write(target, buffer);
+            }
+        }
+    }
+}
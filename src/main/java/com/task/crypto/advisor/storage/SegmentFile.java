@@ -0,0 +1,168 @@
+package com.task.crypto.advisor.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The `SegmentFile` class reads and writes CryptoSeries in fixed-width little-endian binary format:
+ * <pre>
+ * header    24 bytes: magic "CSEG", version (short), series scale (byte), reserved (byte), tick count (long),
+ *           generation (long)
+ * timestamps   count * 8 bytes, epoch millis sorted ascending
+ * prices       count * 8 bytes, unscaled prices in series scale
+ * scales       count * 1 byte, original scale of every price
+ * </pre>
+ * Reading maps the file into memory, columns of the returned series are views of the mapping.
+ * The generation orders segments of one cryptocurrency.
+ */
+public final class SegmentFile {
+
+    public static final String SUFFIX = ".seg";
+    static final int HEADER_SIZE = 24;
+    private static final int MAGIC = 0x47455343;
+    private static final short VERSION = 1;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private SegmentFile() {
+    }
+
+    /**
+     * Maps segment file into memory without copying or parsing its content.
+     *
+     * @param path   Path to the segment file.
+     * @param symbol The name of the cryptocurrency stored in the segment.
+     * @return CryptoSeries backed by the mapped file.
+     * @throws IOException if the file couldn't be read or has unsupported format.
+     */
+    public static CryptoSeries read(Path path, String symbol) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(String.format("Segment file %s exceeds maximal mappable size", path));
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            checkHeader(path, buffer);
+            int scale = buffer.get(6);
+            long count = buffer.getLong(8);
+            if (count < 0 || count > Integer.MAX_VALUE || buffer.limit() != HEADER_SIZE + count * (2 * Long.BYTES + 1)) {
+                throw new IOException(String.format("Segment file %s is corrupted", path));
+            }
+            int size = (int) count;
+            return CryptoSeries.wrap(symbol,
+                    buffer.slice(timestampsOffset(), size * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer(),
+                    buffer.slice(pricesOffset(size), size * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer(),
+                    buffer.slice(scalesOffset(size), size),
+                    scale,
+                    size);
+        }
+    }
+
+    /**
+     * Reads generation of the segment file from its header.
+     *
+     * @param path Path to the segment file.
+     * @return Generation of the segment.
+     * @throws IOException if the file couldn't be read or has unsupported format.
+     */
+    public static long readGeneration(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read > 0 && buffer.hasRemaining());
+            buffer.flip();
+            checkHeader(path, buffer);
+            return buffer.getLong(16);
+        }
+    }
+
+    /**
+     * Writes series as segment of generation 0, see {@link #write(Path, CryptoSeries, long)}.
+     *
+     * @param path   Target path of the segment file.
+     * @param series Series to write.
+     * @throws IOException if the file couldn't be written.
+     */
+    public static void write(Path path, CryptoSeries series) throws IOException {
+        write(path, series, 0);
+    }
+
+    /**
+     * Writes series to temporary file and atomically moves it to the target path,
+     * so readers never observe partially written segment.
+     *
+     * @param path       Target path of the segment file.
+     * @param series     Series to write.
+     * @param generation Generation of the segment.
+     * @throws IOException if the file couldn't be written.
+     */
+    public static void write(Path path, CryptoSeries series, long generation) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = putHeader(ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN),
+                    series.getScale(), series.size(), generation);
+            for (int i = 0; i < series.size(); i++) {
+                buffer = flushIfFull(channel, buffer, Long.BYTES).putLong(series.timestampAt(i));
+            }
+            for (int i = 0; i < series.size(); i++) {
+                buffer = flushIfFull(channel, buffer, Long.BYTES).putLong(series.unscaledPriceAt(i));
+            }
+            for (int i = 0; i < series.size(); i++) {
+                buffer = flushIfFull(channel, buffer, 1).put((byte) series.scaleAt(i));
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static ByteBuffer putHeader(ByteBuffer buffer, int scale, long count, long generation) {
+        return buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .put((byte) scale)
+                .put((byte) 0)
+                .putLong(count)
+                .putLong(generation);
+    }
+
+    static int timestampsOffset() {
+        return HEADER_SIZE;
+    }
+
+    static int pricesOffset(int size) {
+        return HEADER_SIZE + size * Long.BYTES;
+    }
+
+    static int scalesOffset(int size) {
+        return HEADER_SIZE + 2 * size * Long.BYTES;
+    }
+
+    static void checkHeader(Path path, ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IOException(String.format("File %s is not a segment file of supported version", path));
+        }
+    }
+
+    private static ByteBuffer flushIfFull(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,117 @@
+package com.task.crypto.advisor.storage;
+
+import java.time.ZoneId;
+
+/**
+ * The `SeriesPyramid` class keeps a price series at every Resolution from raw ticks to weekly buckets.
+ * Every level above raw holds the minimal and the maximal tick of each of its buckets in time order,
+ * so extremes of any range survive at every level. Levels are built from the next finer level,
+ * which is exact as buckets nest, so only the minute level scans raw ticks.
+ * Range of any length is served from the finest level having few enough ticks in it, chosen in O(log n).
+ */
+public final class SeriesPyramid {
+
+    private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+    private final ZoneId zone;
+    private final CryptoSeries[] levels;
+
+    private SeriesPyramid(ZoneId zone, CryptoSeries[] levels) {
+        this.zone = zone;
+        this.levels = levels;
+    }
+
+    /**
+     * Builds all levels of the series for buckets of the zone.
+     *
+     * @param series Time-sorted series of a cryptocurrency.
+     * @param zone   Zone of hour, day and week boundaries.
+     * @return Pyramid of the series.
+     */
+    public static SeriesPyramid build(CryptoSeries series, ZoneId zone) {
+        CryptoSeries[] levels = new CryptoSeries[RESOLUTIONS.length];
+        levels[0] = series;
+        for (int level = 1; level < levels.length; level++) {
+            levels[level] = downsample(levels[level - 1], RESOLUTIONS[level], zone);
+        }
+        return new SeriesPyramid(zone, levels);
+    }
+
+    /**
+     * Checks the pyramid is built for buckets of the zone from exactly the ticks of the series.
+     */
+    public boolean covers(CryptoSeries series, ZoneId zone) {
+        CryptoSeries raw = levels[0];
+        if (raw == series) {
+            return this.zone.equals(zone);
+        }
+        return this.zone.equals(zone) && raw.size() == series.size() && (series.isEmpty()
+                || (raw.timestampAt(0) == series.timestampAt(0) && raw.timestampAt(raw.size() - 1) == series.timestampAt(series.size() - 1)));
+    }
+
+    /**
+     * Chooses the finest level having at most `maxTicks` ticks from `from` (inclusive) to `to` (exclusive),
+     * the weekly level if none has.
+     *
+     * @param from      Start of the range, epoch millis.
+     * @param to        End of the range, epoch millis.
+     * @param maxTicks  Maximal number of ticks in the range.
+     * @return Resolution of the chosen level.
+     */
+    public Resolution select(long from, long to, int maxTicks) {
+        for (Resolution resolution : RESOLUTIONS) {
+            CryptoSeries level = getLevel(resolution);
+            if (level.lowerBound(to) - level.lowerBound(from) <= maxTicks) {
+                return resolution;
+            }
+        }
+        return Resolution.WEEK;
+    }
+
+    public CryptoSeries getLevel(Resolution resolution) {
+        return levels[resolution.ordinal()];
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @return Number of ticks of all levels above raw, which are held by the pyramid itself.
+     */
+    public int getDownsampledSize() {
+        int size = 0;
+        for (int level = 1; level < levels.length; level++) {
+            size += levels[level].size();
+        }
+        return size;
+    }
+
+    private static CryptoSeries downsample(CryptoSeries finer, Resolution resolution, ZoneId zone) {
+        CryptoSeries.Builder builder = CryptoSeries.builder(finer.getSymbol());
+        int start = 0;
+        while (start < finer.size()) {
+            int end = finer.lowerBound(resolution.bucketEnd(finer.timestampAt(start), zone));
+            int min = start;
+            int max = start;
+            for (int i = start + 1; i < end; i++) {
+                long price = finer.unscaledPriceAt(i);
+                if (price < finer.unscaledPriceAt(min)) {
+                    min = i;
+                } else if (price > finer.unscaledPriceAt(max)) {
+                    max = i;
+                }
+            }
+            copy(builder, finer, Math.min(min, max));
+            if (min != max) {
+                copy(builder, finer, Math.max(min, max));
+            }
+            start = end;
+        }
+        return builder.build();
+    }
+
+    private static void copy(CryptoSeries.Builder builder, CryptoSeries series, int index) {
+        builder.add(series.timestampAt(index), series.unscaledPriceAt(index), series.getScale(), series.scaleAt(index));
+    }
+}
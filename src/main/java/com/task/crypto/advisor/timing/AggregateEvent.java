@@ -0,0 +1,35 @@
+package com.task.crypto.advisor.timing;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The `AggregateEvent` class is a JFR event of aggregation of a date range of a cryptocurrency series missed in cache.
+ */
+@Name("com.task.crypto.advisor.Aggregate")
+@Label("Date Range Aggregation")
+public class AggregateEvent extends StageEvent {
+
+    @Label("Symbol")
+    String symbol;
+
+    @Label("Date From")
+    String dateFrom;
+
+    @Label("Date To")
+    String dateTo;
+
+    @Label("Series Rows")
+    long seriesRows;
+
+    public AggregateEvent() {
+        super(Stage.AGGREGATE);
+    }
+
+    public void setAggregated(String symbol, String dateFrom, String dateTo, long seriesRows) {
+        this.symbol = symbol;
+        this.dateFrom = dateFrom;
+        this.dateTo = dateTo;
+        this.seriesRows = seriesRows;
+    }
+}
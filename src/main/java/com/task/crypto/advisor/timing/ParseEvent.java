@@ -0,0 +1,27 @@
+package com.task.crypto.advisor.timing;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The `ParseEvent` class is a JFR event of parsing and validation of an uploaded csv file.
+ */
+@Name("com.task.crypto.advisor.Parse")
+@Label("Csv Parse")
+public class ParseEvent extends StageEvent {
+
+    @Label("Symbol")
+    String symbol;
+
+    @Label("Rows")
+    long rows;
+
+    public ParseEvent() {
+        super(Stage.PARSE);
+    }
+
+    public void setParsed(String symbol, long rows) {
+        this.symbol = symbol;
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,31 @@
+package com.task.crypto.advisor.timing;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The `RateLimitEvent` class is a JFR event of rate limit check of a request to a limited method.
+ */
+@Name("com.task.crypto.advisor.RateLimit")
+@Label("Rate Limit Check")
+public class RateLimitEvent extends StageEvent {
+
+    @Label("Method")
+    String method;
+
+    @Label("Cost")
+    long cost;
+
+    @Label("Allowed")
+    boolean allowed;
+
+    public RateLimitEvent() {
+        super(Stage.RATE_LIMIT);
+    }
+
+    public void setChecked(String method, long cost, boolean allowed) {
+        this.method = method;
+        this.cost = cost;
+        this.allowed = allowed;
+    }
+}
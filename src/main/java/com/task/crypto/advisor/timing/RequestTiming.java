@@ -0,0 +1,129 @@
+package com.task.crypto.advisor.timing;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The `RequestTiming` class accumulates durations and counts of stages of the request bound to the current thread.
+ * Timing is bound by ServerTimingFilter for the whole request and carried to other threads by wrapping their tasks,
+ * so durations of stages run in parallel are summed. Recording without bound timing does nothing.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long id = IDS.incrementAndGet();
+    private final long start = System.nanoTime();
+    private final AtomicLongArray durations = new AtomicLongArray(STAGES.length);
+    private final AtomicLongArray counts = new AtomicLongArray(STAGES.length);
+
+    /**
+     * Binds new timing to the current thread.
+     *
+     * @return The bound timing.
+     */
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Unbinds timing from the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds duration from the start to now to the stage of the timing bound to the current thread.
+     *
+     * @param stage      The stage of request processing.
+     * @param startNanos Start of the stage in System.nanoTime units.
+     */
+    public static void record(Stage stage, long startNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * @return Identifier of the timing bound to the current thread, 0 if there is none.
+     */
+    public static long currentId() {
+        RequestTiming timing = CURRENT.get();
+        return timing == null ? 0 : timing.id;
+    }
+
+    /**
+     * Wraps the task to run with the timing bound to the current thread.
+     *
+     * @param task The task to be run by another thread.
+     * @return The task binding timing of the caller while it runs.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            RequestTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getDuration(Stage stage) {
+        return durations.get(stage.ordinal());
+    }
+
+    public long getCount(Stage stage) {
+        return counts.get(stage.ordinal());
+    }
+
+    /**
+     * Formats recorded stages and the total duration since the start as Server-Timing header value,
+     * durations are in milliseconds, stages are described by their description and count if recorded more than once.
+     *
+     * @return Server-Timing header value.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Stage stage : STAGES) {
+            long count = getCount(stage);
+            if (count == 0) {
+                continue;
+            }
+            appendMetric(header, stage.getMetricName(), getDuration(stage));
+            header.append(";desc=\"").append(stage.getDescription());
+            if (count > 1) {
+                header.append(", ").append(count).append(" calls");
+            }
+            header.append("\", ");
+        }
+        appendMetric(header, "total", System.nanoTime() - start);
+        return header.toString();
+    }
+
+    private void add(Stage stage, long nanos) {
+        durations.addAndGet(stage.ordinal(), nanos);
+        counts.incrementAndGet(stage.ordinal());
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
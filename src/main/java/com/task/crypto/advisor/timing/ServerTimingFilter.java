@@ -0,0 +1,115 @@
+package com.task.crypto.advisor.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * The `ServerTimingFilter` class binds RequestTiming to every request and returns recorded stages
+ * as 'Server-Timing' header to clients holding the debug authority, given either as token scope or as authority
+ * of basic authentication. The filter is added to the security filter chain before authentication, so token decoding
+ * is timed as well. Header is added right before the response body is written, as headers of committed response are ignored.
+ */
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    private static final String SCOPE_PREFIX = "SCOPE_";
+
+    private final String debugAuthority;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+            timedResponse.addServerTiming();
+        } finally {
+            RequestTiming.stop();
+        }
+    }
+
+    private boolean isDebugAllowed() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (debugAuthority.equals(name) || (name != null && name.startsWith(SCOPE_PREFIX) && debugAuthority.equals(name.substring(SCOPE_PREFIX.length())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean added;
+
+        private ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+
+        private void addServerTiming() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            if (isDebugAllowed()) {
+                setHeader(SERVER_TIMING_HEADER, timing.toServerTiming());
+            }
+        }
+    }
+}
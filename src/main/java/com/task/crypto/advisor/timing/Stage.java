@@ -0,0 +1,33 @@
+package com.task.crypto.advisor.timing;
+
+/**
+ * The `Stage` enum lists stages of request processing timed by RequestTiming, names and descriptions are used
+ * as Server-Timing metric names and descriptions.
+ * 'auth' is recorded by CachingJwtDecoder and CachingPasswordEncoder, 'cache' and 'load' by CryptoDataServiceImpl,
+ * other stages by their StageEvent, which is also committed as JFR event.
+ */
+public enum Stage {
+    AUTH("auth", "Token or credentials verification"),
+    RATE_LIMIT("rate-limit", "Rate limit check"),
+    CACHE("cache", "Cache lookup of date range data"),
+    LOAD("load", "Series load"),
+    AGGREGATE("aggregate", "Date range aggregation"),
+    PARSE("parse", "Csv parsing and validation"),
+    UPLOAD_MERGE("upload-merge", "Merge of uploaded series into stored one");
+
+    private final String metricName;
+    private final String description;
+
+    Stage(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,37 @@
+package com.task.crypto.advisor.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * The `StageEvent` class is a base of JFR events of request processing stages.
+ * Events are started and finished around the stage, finishing adds its duration to RequestTiming of the request
+ * and commits the event, so a recording shows the stages of every request grouped by request id.
+ */
+@Category("Crypto Advisor")
+public abstract class StageEvent extends Event {
+
+    @Label("Request Id")
+    @Description("Id of request timing, 0 if the stage ran outside of a request")
+    long requestId;
+
+    private final transient Stage stage;
+    private transient long startNanos;
+
+    protected StageEvent(Stage stage) {
+        this.stage = stage;
+    }
+
+    public void start() {
+        begin();
+        startNanos = System.nanoTime();
+        requestId = RequestTiming.currentId();
+    }
+
+    public void finish() {
+        RequestTiming.record(stage, startNanos);
+        commit();
+    }
+}
@@ -0,0 +1,31 @@
+package com.task.crypto.advisor.timing;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The `UploadMergeEvent` class is a JFR event of merging uploaded series into the stored series of a cryptocurrency.
+ */
+@Name("com.task.crypto.advisor.UploadMerge")
+@Label("Upload Merge")
+public class UploadMergeEvent extends StageEvent {
+
+    @Label("Symbol")
+    String symbol;
+
+    @Label("Uploaded Rows")
+    long uploadedRows;
+
+    @Label("Added Rows")
+    long addedRows;
+
+    public UploadMergeEvent() {
+        super(Stage.UPLOAD_MERGE);
+    }
+
+    public void setMerged(String symbol, long uploadedRows, long addedRows) {
+        this.symbol = symbol;
+        this.uploadedRows = uploadedRows;
+        this.addedRows = addedRows;
+    }
+}
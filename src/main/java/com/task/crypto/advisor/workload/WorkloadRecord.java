@@ -0,0 +1,63 @@
+package com.task.crypto.advisor.workload;
+
+import java.util.Base64;
+
+/**
+ * The `WorkloadRecord` record describes one request to a controller as a line of the workload log:
+ * tab separated epoch millis the request started at, HTTP method, endpoint pattern, request uri with query,
+ * principal name, response status, duration in microseconds, request content length, name of the uploaded file
+ * and Base64 encoded body of JSON requests. Missing principal, file name and body are written as '-'.
+ */
+public record WorkloadRecord(long timestamp, String method, String endpoint, String uri, String principal,
+                             int status, long durationMicros, long contentLength, String fileName, byte[] body) {
+
+    private static final String NONE = "-";
+    private static final int FIELDS = 10;
+
+    /**
+     * Parses line of the workload log.
+     *
+     * @param line The line written by `format()`.
+     * @return Parsed record.
+     * @throws IllegalArgumentException if the line is not a workload record.
+     */
+    public static WorkloadRecord parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Invalid workload record " + line);
+        }
+        return new WorkloadRecord(
+                Long.parseLong(fields[0]),
+                fields[1],
+                fields[2],
+                fields[3],
+                fromField(fields[4]),
+                Integer.parseInt(fields[5]),
+                Long.parseLong(fields[6]),
+                Long.parseLong(fields[7]),
+                fromField(fields[8]),
+                NONE.equals(fields[9]) ? null : Base64.getDecoder().decode(fields[9]));
+    }
+
+    public String format() {
+        return String.join("\t",
+                Long.toString(timestamp),
+                method,
+                toField(endpoint),
+                toField(uri),
+                toField(principal),
+                Integer.toString(status),
+                Long.toString(durationMicros),
+                Long.toString(contentLength),
+                toField(fileName),
+                body == null ? NONE : Base64.getEncoder().encodeToString(body));
+    }
+
+    private static String toField(String value) {
+        return value == null || value.isEmpty() ? NONE : value.replaceAll("[\t\r\n]", " ");
+    }
+
+    private static String fromField(String field) {
+        return NONE.equals(field) ? null : field;
+    }
+}
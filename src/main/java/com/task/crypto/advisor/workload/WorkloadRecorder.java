@@ -0,0 +1,116 @@
+package com.task.crypto.advisor.workload;
+
+import com.task.crypto.advisor.configurations.WorkloadRecordingProperties;
+import com.task.crypto.advisor.metrics.Metrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `WorkloadRecorder` class appends records of requests to the workload log file.
+ * Requests only put records into a bounded queue, a single 'workload-recorder' thread writes them
+ * and flushes the file whenever the queue is drained. Records arriving while the queue is full are dropped,
+ * so recording never blocks requests.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.workload-recording", name = "enabled")
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadRecorder {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final WorkloadRecordingProperties workloadRecordingProperties;
+    private final MeterRegistry meterRegistry;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private BlockingQueue<WorkloadRecord> queue;
+    private BufferedWriter writer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws IOException {
+        queue = new ArrayBlockingQueue<>(workloadRecordingProperties.queueCapacity());
+        Path file = Path.of(workloadRecordingProperties.file()).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        FunctionCounter.builder(Metrics.WORKLOAD_RECORDS, written, LongAdder::sum)
+                .description("Records of requests in the workload log")
+                .tag("result", "written")
+                .register(meterRegistry);
+        FunctionCounter.builder(Metrics.WORKLOAD_RECORDS, dropped, LongAdder::sum)
+                .description("Records of requests in the workload log")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        running = true;
+        writerThread = new Thread(this::writeRecords, "workload-recorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Recording workload to {}", file);
+    }
+
+    /**
+     * Queues the record to be written, drops it if the queue is full.
+     *
+     * @param workloadRecord The record of a request.
+     */
+    public void record(WorkloadRecord workloadRecord) {
+        if (!queue.offer(workloadRecord)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes records queued before the call and closes the log file.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        writer.close();
+    }
+
+    private void writeRecords() {
+        List<WorkloadRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (running || !queue.isEmpty()) {
+                WorkloadRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                do {
+                    for (WorkloadRecord workloadRecord : batch) {
+                        writer.write(workloadRecord.format());
+                        writer.newLine();
+                    }
+                    written.add(batch.size());
+                    batch.clear();
+                } while (queue.drainTo(batch, BATCH_SIZE) > 0);
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.error("Workload recording stopped, log couldn't be written", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.task.crypto.advisor.workload;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * The `WorkloadRecordingFilter` class records requests to statistics, upload, export and authentication controllers
+ * with WorkloadRecorder. The filter is added to the security filter chain after authentication and before
+ * authorization, so the principal is the authenticated one and requests rejected as unauthorized are recorded too,
+ * requests with invalid credentials are rejected before the filter and are not recorded.
+ * Endpoint is the matched handler pattern, or the request path if the request didn't reach a handler.
+ * Bodies of JSON requests are recorded as far as the handler has read them, bodies of at least 1 MiB are not recorded.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadRecordingFilter extends OncePerRequestFilter {
+
+    private static final List<String> RECORDED_PATHS = List.of("/statistics/", "/upload/", "/export/", "/api/auth/");
+    private static final String FILE_PART = "file";
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final WorkloadRecorder workloadRecorder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return RECORDED_PATHS.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Principal principal = request.getUserPrincipal();
+        ContentCachingRequestWrapper jsonRequest = isJson(request) ? new ContentCachingRequestWrapper(request, MAX_BODY_BYTES) : null;
+        try {
+            filterChain.doFilter(jsonRequest == null ? request : jsonRequest, response);
+        } finally {
+            workloadRecorder.record(new WorkloadRecord(
+                    timestamp,
+                    request.getMethod(),
+                    getEndpoint(request),
+                    request.getQueryString() == null ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString(),
+                    principal == null ? null : principal.getName(),
+                    response.getStatus(),
+                    (System.nanoTime() - start) / 1000,
+                    Math.max(0, request.getContentLengthLong()),
+                    getFileName(request),
+                    getBody(jsonRequest)));
+        }
+    }
+
+    private boolean isJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private byte[] getBody(ContentCachingRequestWrapper jsonRequest) {
+        if (jsonRequest == null) {
+            return null;
+        }
+        byte[] body = jsonRequest.getContentAsByteArray();
+        return body.length == 0 || body.length >= MAX_BODY_BYTES ? null : body;
+    }
+
+    private String getEndpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? request.getRequestURI() : pattern.toString();
+    }
+
+    private String getFileName(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return null;
+        }
+        try {
+            Part part = request.getPart(FILE_PART);
+            return part == null ? null : part.getSubmittedFileName();
+        } catch (IOException | ServletException | IllegalStateException e) {
+            log.debug("Couldn't obtain name of uploaded file", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+create table if not exists `rate_limit_bucket` (
+    `bucket_key` varchar(512) not null primary key,
+    `theoretical_arrival` bigint not null
+);
@@ -0,0 +1,3 @@
+insert into `authority` ("authority_name") VALUES ('AUTHORITY_METRICS');
+
+insert into `role_authority` ("role_id", "authority_id") VALUES (2,4);
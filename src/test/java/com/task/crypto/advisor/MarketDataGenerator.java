@@ -0,0 +1,179 @@
+package com.task.crypto.advisor;
+
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * The `MarketDataGenerator` class generates csv price files of 'timestamp,symbol,price' layout accepted by upload validation.
+ * Prices of every cryptocurrency follow a geometric random walk of the given annual volatility from a start price
+ * between 0.01 and 50000, with fraction digits keeping about 6 significant digits.
+ * Ticks are spaced by `tickInterval` with a jitter of up to half of it and cover `history` ending at `end`.
+ * `duplicateRatio` share of ticks is followed by a tick of the same timestamp, `outOfOrderRatio` share of ticks,
+ * at most a half, is written after the next tick.
+ * Files are generated from `seed`, so the same configuration always produces the same data relative to `end`.
+ * Files are named as legacy files of CryptoSeriesStorage, so a generated directory can be used as 'csv.target-dir'.
+ */
+@Getter
+@Builder
+public class MarketDataGenerator {
+
+    private static final double MILLIS_PER_YEAR = 365.25 * 24 * 60 * 60 * 1000;
+    private static final int SIGNIFICANT_DIGITS = 6;
+    private static final long[] POWERS_OF_10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    @Builder.Default
+    private final int symbolCount = 5;
+    @Builder.Default
+    private final String symbolPrefix = "SYM";
+    @Builder.Default
+    private final Duration tickInterval = Duration.ofMinutes(1);
+    @Builder.Default
+    private final Duration history = Duration.ofDays(30);
+    private final Instant end;
+    @Builder.Default
+    private final double duplicateRatio = 0;
+    @Builder.Default
+    private final double outOfOrderRatio = 0;
+    @Builder.Default
+    private final double volatility = 0.8;
+    @Builder.Default
+    private final long seed = 42;
+
+    /**
+     * Writes a '&lt;SYMBOL&gt;_values.csv' file of every cryptocurrency into the directory, files are written in parallel.
+     *
+     * @param dir Existing directory to write files to.
+     * @return Paths of written files in order of cryptocurrencies.
+     * @throws IOException if a file couldn't be written.
+     */
+    public List<Path> generate(Path dir) throws IOException {
+        Instant generationEnd = end == null ? Instant.now() : end;
+        try {
+            return IntStream.range(0, symbolCount)
+                    .parallel()
+                    .mapToObj(index -> {
+                        Path file = dir.resolve(getSymbol(index) + CryptoSeriesStorage.VALUES_SUFFIX + CryptoSeriesStorage.CSV_SUFFIX);
+                        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                            write(index, generationEnd, writer);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return file;
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes csv content of the cryptocurrency.
+     *
+     * @param index  Index of the cryptocurrency, from 0 to `symbolCount` - 1.
+     * @param end    Instant all ticks are before.
+     * @param writer Writer of the content, it is not closed.
+     * @return Number of written data rows.
+     * @throws IOException if the content couldn't be written.
+     */
+    public long write(int index, Instant end, Writer writer) throws IOException {
+        return new SymbolWriter(getSymbol(index), new Random(seed * 31 + index), writer).write(end);
+    }
+
+    public String getSymbol(int index) {
+        return symbolPrefix + index;
+    }
+
+    /**
+     * @return Number of ticks of every cryptocurrency excluding duplicates.
+     */
+    public long getTicksPerSymbol() {
+        return history.toMillis() / tickInterval.toMillis();
+    }
+
+    private class SymbolWriter {
+
+        private final String symbol;
+        private final Random random;
+        private final Writer writer;
+        private final int fractionDigits;
+        private final double tickSigma;
+        // A delayed tick is written together with the next one, which can't be delayed,
+        // so a tick is delayed with probability keeping delayed share of all ticks at `outOfOrderRatio`.
+        private final double delayProbability;
+        private double price;
+        private long rows;
+        private boolean pending;
+        private long pendingTimestamp;
+        private long pendingPrice;
+
+        SymbolWriter(String symbol, Random random, Writer writer) {
+            this.symbol = symbol;
+            this.random = random;
+            this.writer = writer;
+            this.price = Math.pow(10, -2 + random.nextDouble() * (2 + Math.log10(50_000)));
+            this.fractionDigits = Math.max(0, Math.min(POWERS_OF_10.length - 1,
+                    SIGNIFICANT_DIGITS - 1 - (int) Math.floor(Math.log10(price))));
+            this.tickSigma = volatility * Math.sqrt(tickInterval.toMillis() / MILLIS_PER_YEAR);
+            this.delayProbability = outOfOrderRatio / (1 - outOfOrderRatio);
+        }
+
+        long write(Instant end) throws IOException {
+            long interval = tickInterval.toMillis();
+            long ticks = getTicksPerSymbol();
+            long start = end.toEpochMilli() - ticks * interval;
+            writer.write("timestamp,symbol,price\n");
+            for (long i = 0; i < ticks; i++) {
+                long timestamp = start + i * interval + (interval > 1 ? random.nextLong(interval / 2) : 0);
+                price *= Math.exp(tickSigma * random.nextGaussian() - tickSigma * tickSigma / 2);
+                long unscaledPrice = Math.max(1, Math.round(price * POWERS_OF_10[fractionDigits]));
+                if (pending) {
+                    writeTick(timestamp, unscaledPrice);
+                    writeTick(pendingTimestamp, pendingPrice);
+                    pending = false;
+                } else if (i < ticks - 1 && random.nextDouble() < delayProbability) {
+                    pending = true;
+                    pendingTimestamp = timestamp;
+                    pendingPrice = unscaledPrice;
+                } else {
+                    writeTick(timestamp, unscaledPrice);
+                }
+            }
+            return rows;
+        }
+
+        private void writeTick(long timestamp, long unscaledPrice) throws IOException {
+            writeRow(timestamp, unscaledPrice);
+            if (random.nextDouble() < duplicateRatio) {
+                writeRow(timestamp, Math.max(1, unscaledPrice + random.nextInt(3) - 1));
+            }
+        }
+
+        private void writeRow(long timestamp, long unscaledPrice) throws IOException {
+            writer.write(Long.toString(timestamp));
+            writer.write(',');
+            writer.write(symbol);
+            writer.write(',');
+            writer.write(Long.toString(unscaledPrice / POWERS_OF_10[fractionDigits]));
+            if (fractionDigits > 0) {
+                writer.write('.');
+                String fraction = Long.toString(unscaledPrice % POWERS_OF_10[fractionDigits] + POWERS_OF_10[fractionDigits]);
+                writer.write(fraction, 1, fractionDigits);
+            }
+            writer.write('\n');
+            rows++;
+        }
+    }
+}
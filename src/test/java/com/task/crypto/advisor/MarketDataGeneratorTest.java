@@ -0,0 +1,90 @@
+package com.task.crypto.advisor;
+
+import com.task.crypto.advisor.parsers.CryptoCsvParser;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketDataGeneratorTest {
+
+    private static final Instant END = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Generated files should pass upload validation")
+    void generateValidFiles(@TempDir Path directory) throws IOException {
+        MarketDataGenerator generator = MarketDataGenerator.builder()
+                .symbolCount(3)
+                .tickInterval(Duration.ofSeconds(10))
+                .history(Duration.ofDays(1))
+                .duplicateRatio(0.05)
+                .outOfOrderRatio(0.05)
+                .build();
+
+        List<Path> files = generator.generate(directory);
+
+        assertEquals(3, files.size());
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(directory.resolve("SYM" + i + "_values.csv"), files.get(i));
+            CryptoSeries series = CryptoCsvParser.parse(Files.newInputStream(files.get(i)));
+            assertEquals("SYM" + i, series.getSymbol());
+            assertTrue(series.size() > generator.getTicksPerSymbol());
+            assertTrue(series.timestampAt(series.size() - 1) < System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("Duplicate and out of order ticks should follow configured ratios")
+    void followRatios() throws IOException {
+        MarketDataGenerator generator = MarketDataGenerator.builder()
+                .tickInterval(Duration.ofSeconds(1))
+                .history(Duration.ofHours(10))
+                .duplicateRatio(0.1)
+                .outOfOrderRatio(0.2)
+                .build();
+        StringWriter writer = new StringWriter();
+
+        long rows = generator.write(0, END, writer);
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals(rows, lines.length - 1);
+        int duplicates = 0;
+        int outOfOrder = 0;
+        for (int i = 2; i < lines.length; i++) {
+            long previous = Long.parseLong(lines[i - 1].split(",")[0]);
+            long current = Long.parseLong(lines[i].split(",")[0]);
+            if (current == previous) {
+                duplicates++;
+            } else if (current < previous) {
+                outOfOrder++;
+            }
+            assertTrue(current < END.toEpochMilli());
+        }
+        assertEquals(0.1, (double) duplicates / generator.getTicksPerSymbol(), 0.01);
+        assertEquals(0.2, (double) outOfOrder / generator.getTicksPerSymbol(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Same configuration should generate same data")
+    void generateReproducibleData() throws IOException {
+        MarketDataGenerator generator = MarketDataGenerator.builder().history(Duration.ofDays(1)).build();
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+
+        generator.write(1, END, first);
+        generator.write(1, END, second);
+
+        assertEquals(first.toString(), second.toString());
+    }
+}
@@ -0,0 +1,49 @@
+package com.task.crypto.advisor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.task.crypto.advisor.TestUtils.getAdminToken;
+import static com.task.crypto.advisor.TestUtils.getUserToken;
+import static com.task.crypto.advisor.TestUtils.performRequestWithToken;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,prometheus",
+        "management.metrics.distribution.percentiles-histogram.crypto=true"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Prometheus endpoint should expose histograms of pipeline timers to admin")
+    void scrapePipelineMetrics() throws Exception {
+        performRequestWithToken(mockMvc, get("/statistics/normalized-values"), getUserToken(mockMvc))
+                .andExpect(status().isOk());
+
+        performRequestWithToken(mockMvc, get("/actuator/prometheus"), getUserToken(mockMvc))
+                .andExpect(status().isForbidden());
+        performRequestWithToken(mockMvc, get("/actuator/prometheus"), getAdminToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("crypto_data_aggregation_seconds_bucket{result=\"miss\"")))
+                .andExpect(content().string(containsString("crypto_statistics_fanout_seconds_count")));
+    }
+
+    @Test
+    @DisplayName("Health endpoint should be available without token")
+    void checkHealthAnonymously() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -1,6 +1,10 @@
 package com.task.crypto.advisor;
 
+import com.task.crypto.advisor.configurations.CsvStorageProperties;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import com.task.crypto.advisor.storage.CsvSegmentConverter;
 import org.apache.tomcat.util.http.fileupload.FileUtils;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
@@ -30,6 +34,7 @@ public final class TestUtils {
         for (File file : Objects.requireNonNull(new File(COPY_DIRECTORY).listFiles())) {
             Files.copy(file.toPath(), initialDirectory.toPath().resolve(file.toPath().getFileName()));
         }
+        new CryptoSeriesStorage(new CsvStorageProperties(null, INITIAL_DIRECTORY), new CsvSegmentConverter(), new NoOpCacheManager()).migrateLegacyCsv();
     }
 
     public static String getUserToken(MockMvc mockMvc) throws Exception {
@@ -0,0 +1,56 @@
+package com.task.crypto.advisor.aspects;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.crypto.advisor.dtos.StatisticsQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.task.crypto.advisor.TestUtils.getAdminToken;
+import static com.task.crypto.advisor.TestUtils.getUserToken;
+import static com.task.crypto.advisor.TestUtils.performRequestWithToken;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"application.rate-limit.enabled=true", "application.rate-limit.tiers.AUTHORITY_WRITE=1"})
+@AutoConfigureMockMvc
+class RateLimitAspectTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Batch requests should spend their weighted cost from the bucket of the token subject and get 429 once it's spent")
+    void limitBatchByWeightedCost() throws Exception {
+        String userToken = getUserToken(mockMvc);
+        String adminToken = getAdminToken(mockMvc);
+        List<StatisticsQuery> costing19 = Collections.nCopies(180, StatisticsQuery.builder().crypto("TEST1").build());
+        List<StatisticsQuery> costing2 = List.of(StatisticsQuery.builder().crypto("TEST1").build(), StatisticsQuery.builder().crypto("test2").build());
+        List<StatisticsQuery> costing1 = List.of(StatisticsQuery.builder().crypto("TEST1").build());
+
+        batch(costing19, userToken).andExpect(status().isOk());
+        batch(costing2, userToken).andExpect(status().isTooManyRequests());
+        batch(costing1, userToken).andExpect(status().isOk());
+        batch(costing1, userToken).andExpect(status().isTooManyRequests());
+
+        batch(costing19, adminToken).andExpect(status().isOk());
+        batch(costing1, adminToken).andExpect(status().isOk());
+    }
+
+    private ResultActions batch(List<StatisticsQuery> queries, String token) throws Exception {
+        return performRequestWithToken(mockMvc, post("/statistics/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(queries)), token);
+    }
+}
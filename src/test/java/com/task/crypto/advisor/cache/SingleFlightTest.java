@@ -0,0 +1,120 @@
+package com.task.crypto.advisor.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("Concurrent loads of the same key should run loader once")
+    void coalesceConcurrentLoads() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.load("TEST1", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "value";
+            })));
+            while (singleFlight.getInFlight() == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.load("TEST1", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            while (singleFlight.getCoalesced() < CALLERS - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(CALLERS - 1, singleFlight.getCoalesced());
+            assertEquals(0, singleFlight.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Completed load should not be reused by later calls")
+    void loadAgainAfterCompletion() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load("TEST1", loads::incrementAndGet);
+
+        assertEquals(2, singleFlight.load("TEST1", loads::incrementAndGet));
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+    @Test
+    @DisplayName("Failed load should be rethrown to caller and forgotten")
+    void propagateFailure() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> singleFlight.load("TEST1", () -> {
+            throw failure;
+        })));
+        assertEquals("value", singleFlight.load("TEST1", () -> "value"));
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Failure of an interrupted caller should not be handed to callers waiting for its load")
+    void reloadAfterInterruptedLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> interrupted = executor.submit(() -> singleFlight.load("TEST1", () -> {
+                await(new CountDownLatch(1));
+                throw new IllegalStateException("interrupted");
+            }));
+            while (singleFlight.getInFlight() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<String> waiting = executor.submit(() -> singleFlight.load("TEST1", () -> "value"));
+            while (singleFlight.getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            interrupted.cancel(true);
+
+            assertEquals("value", waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(0, singleFlight.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.task.crypto.advisor.configurations;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheConfigTest {
+
+    @Test
+    @DisplayName("Series cache should be bounded by heap bytes of series and record statistics")
+    void boundSeriesCacheByHeapBytes() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        long maximumWeight = series("TEST0", 3).getHeapBytes() * 3 / 2;
+        new CacheConfig().caffeineCacheManagerCustomizer(new CaffeineCacheProperties(Map.of(
+                "cryptoSeries", new CaffeineCacheProperties.Spec(null, maximumWeight, null, Duration.ofHours(1)))))
+                .customize(cacheManager);
+        CaffeineCache cache = (CaffeineCache) Objects.requireNonNull(cacheManager.getCache("cryptoSeries"));
+        Cache<Object, Object> nativeCache = cache.getNativeCache();
+
+        cache.put("TEST1", series("TEST1", 3));
+        cache.put("TEST2", series("TEST2", 3));
+        cache.get("TEST3");
+        nativeCache.cleanUp();
+
+        assertEquals(1, nativeCache.estimatedSize());
+        assertEquals(1, nativeCache.stats().evictionCount());
+        assertTrue(nativeCache.stats().missCount() > 0);
+    }
+
+    private static CryptoSeries series(String symbol, int size) {
+        CryptoSeries.Builder builder = CryptoSeries.builder(symbol);
+        for (int i = 0; i < size; i++) {
+            builder.add(i, BigDecimal.ONE);
+        }
+        return builder.build();
+    }
+}
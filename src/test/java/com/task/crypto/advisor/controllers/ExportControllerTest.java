@@ -0,0 +1,100 @@
+package com.task.crypto.advisor.controllers;
+
+import com.task.crypto.advisor.services.CryptoDataService;
+import com.task.crypto.advisor.storage.SegmentFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.task.crypto.advisor.TestUtils.getUserToken;
+import static com.task.crypto.advisor.TestUtils.performRequestWithToken;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CryptoDataService cryptoDataService;
+
+    @Test
+    @DisplayName("Should throw 401 on unauthenticated request")
+    void unauthenticatedRequest() throws Exception {
+        mockMvc.perform(get("/export/TEST1"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("exportTicks() should stream ticks of requested period as segment file")
+    void exportTicks(@TempDir Path directory) throws Exception {
+        String token = getUserToken(mockMvc);
+        MockHttpServletResponse response = performRequestWithToken(mockMvc, get("/export/test1"), token)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn().getResponse();
+        Path exported = directory.resolve("TEST1.seg");
+        Files.write(exported, response.getContentAsByteArray());
+        assertEquals(cryptoDataService.getCryptoEntries("TEST1"), SegmentFile.read(exported, "TEST1").toEntries());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLengthLong());
+
+        byte[] period = performRequestWithToken(mockMvc, get("/export/TEST1").param("from", "2022-01-02").param("to", "2022-01-30"), token)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        Files.write(exported, period);
+        assertEquals(1, SegmentFile.read(exported, "TEST1").size());
+    }
+
+    @Test
+    @DisplayName("exportTicks() should resume export from the requested byte of the same content")
+    void resumeExport() throws Exception {
+        String token = getUserToken(mockMvc);
+        MockHttpServletResponse full = performRequestWithToken(mockMvc, get("/export/TEST1"), token)
+                .andReturn().getResponse();
+        byte[] content = full.getContentAsByteArray();
+        String etag = full.getHeader(HttpHeaders.ETAG);
+
+        byte[] resumed = performRequestWithToken(mockMvc, get("/export/TEST1")
+                .header(HttpHeaders.RANGE, "bytes=30-").header(HttpHeaders.IF_RANGE, etag), token)
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 30-" + (content.length - 1) + "/" + content.length))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(Arrays.copyOfRange(content, 30, content.length), resumed);
+
+        performRequestWithToken(mockMvc, get("/export/TEST1")
+                .header(HttpHeaders.RANGE, "bytes=30-").header(HttpHeaders.IF_RANGE, "\"changed\""), token)
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, content.length));
+        performRequestWithToken(mockMvc, get("/export/TEST1").header(HttpHeaders.RANGE, "bytes=" + content.length + "-"), token)
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length));
+    }
+
+    @Test
+    @DisplayName("Should return error codes for corrupted input or nonexistent data")
+    void corruptedArguments() throws Exception {
+        String token = getUserToken(mockMvc);
+        performRequestWithToken(mockMvc, get("/export/randomCryptoName"), token)
+                .andExpect(status().isNotFound());
+        performRequestWithToken(mockMvc, get("/export/TEST1").param("from", "2022-01-20").param("to", "2022-01-02"), token)
+                .andExpect(status().isNotFound());
+        performRequestWithToken(mockMvc, get("/export/TEST1").param("from", "01-01-asdasd"), token)
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -3,6 +3,7 @@ package com.task.crypto.advisor.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.task.crypto.advisor.dtos.CryptoStats;
 import com.task.crypto.advisor.dtos.NormalizedRange;
+import com.task.crypto.advisor.dtos.StatisticsQuery;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
@@ -20,6 +22,8 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static com.task.crypto.advisor.TestUtils.getUserToken;
@@ -28,6 +32,7 @@ import static org.hamcrest.Matchers.aMapWithSize;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -100,6 +105,109 @@ class StatisticsControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("getDailyCandles() should return daily candles of requested period")
+    @Order(3)
+    void getDailyCandles() throws Exception {
+        performRequestWithToken(mockMvc, get("/statistics/candles/test1"), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].date", is("2022-01-01")))
+                .andExpect(jsonPath("$[0].open").value(BigDecimal.valueOf(50)))
+                .andExpect(jsonPath("$[0].high").value(BigDecimal.valueOf(100)))
+                .andExpect(jsonPath("$[0].low").value(BigDecimal.valueOf(50)))
+                .andExpect(jsonPath("$[0].close").value(BigDecimal.valueOf(100)))
+                .andExpect(jsonPath("$[0].ticks", is(2)))
+                .andExpect(jsonPath("$[1].date", is("2022-01-02")))
+                .andExpect(jsonPath("$[1].close").value(BigDecimal.valueOf(150)))
+                .andExpect(jsonPath("$[1].ticks", is(1)));
+        performRequestWithToken(mockMvc, get("/statistics/candles/TEST1").param("dateFrom", "2022-01-02").param("dateTo", "2022-01-30"), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].date", is("2022-01-02")));
+    }
+
+    @Test
+    @DisplayName("getDownsampledSeries() should return series of the finest resolution fitting requested points")
+    @Order(3)
+    void getDownsampledSeries() throws Exception {
+        performRequestWithToken(mockMvc, get("/statistics/series/test1"), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.crypto", is("test1")))
+                .andExpect(jsonPath("$.resolution", is("RAW")))
+                .andExpect(jsonPath("$.downsampling", is("LTTB")))
+                .andExpect(jsonPath("$.points", hasSize(3)))
+                .andExpect(jsonPath("$.points[0].price").value(BigDecimal.valueOf(50)))
+                .andExpect(jsonPath("$.points[2].price").value(BigDecimal.valueOf(150)));
+        performRequestWithToken(mockMvc, get("/statistics/series/TEST1").param("points", "2").param("downsampling", "LTTB"), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution", is("RAW")))
+                .andExpect(jsonPath("$.downsampling", is("LTTB")))
+                .andExpect(jsonPath("$.points", hasSize(2)))
+                .andExpect(jsonPath("$.points[0].price").value(BigDecimal.valueOf(50)))
+                .andExpect(jsonPath("$.points[1].price").value(BigDecimal.valueOf(150)));
+        performRequestWithToken(mockMvc, get("/statistics/series/TEST1").param("points", "2").param("downsampling", "NONE"), getUserToken(mockMvc))
+                .andExpect(status().isNotFound());
+        performRequestWithToken(mockMvc, get("/statistics/series/TEST1").param("points", "3").param("downsampling", "NONE"), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution", is("RAW")))
+                .andExpect(jsonPath("$.downsampling", is("NONE")))
+                .andExpect(jsonPath("$.points", hasSize(3)));
+        performRequestWithToken(mockMvc, get("/statistics/series/TEST1").param("dateFrom", "2022-01-02"), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points", hasSize(1)));
+    }
+
+
+    @Test
+    @DisplayName("getBatchStatistics() should answer all queries grouped by crypto in one streamed array")
+    @Order(3)
+    void getBatchStatistics() throws Exception {
+        List<StatisticsQuery> queries = List.of(
+                StatisticsQuery.builder().crypto("test1").build(),
+                StatisticsQuery.builder().crypto("TEST2").dateFrom(LocalDate.of(2022, 1, 2)).build(),
+                StatisticsQuery.builder().crypto("TEST1").dateFrom(LocalDate.of(2022, 1, 2)).dateTo(LocalDate.of(2022, 1, 30)).build(),
+                StatisticsQuery.builder().crypto("randomCryptoName").build(),
+                StatisticsQuery.builder().crypto("TEST1").dateFrom(LocalDate.of(2023, 1, 1)).dateTo(LocalDate.of(2023, 1, 2)).build(),
+                StatisticsQuery.builder().crypto("TEST1").dateFrom(LocalDate.of(2022, 1, 20)).dateTo(LocalDate.of(2022, 1, 2)).build(),
+                StatisticsQuery.builder().build());
+        performRequestWithToken(mockMvc, post("/statistics/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(queries)), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(7)))
+                .andExpect(jsonPath("$[0].index", is(5)))
+                .andExpect(jsonPath("$[0].error").exists())
+                .andExpect(jsonPath("$[1].index", is(6)))
+                .andExpect(jsonPath("$[2].index", is(0)))
+                .andExpect(jsonPath("$[2].symbol", is("TEST1")))
+                .andExpect(jsonPath("$[2].dateFrom", is("2022-01-01")))
+                .andExpect(jsonPath("$[2].dateTo", is("2022-01-02")))
+                .andExpect(jsonPath("$[2].min").value(BigDecimal.valueOf(50)))
+                .andExpect(jsonPath("$[2].max").value(BigDecimal.valueOf(150)))
+                .andExpect(jsonPath("$[2].error").doesNotExist())
+                .andExpect(jsonPath("$[3].index", is(2)))
+                .andExpect(jsonPath("$[3].oldest").value(BigDecimal.valueOf(150)))
+                .andExpect(jsonPath("$[4].index", is(4)))
+                .andExpect(jsonPath("$[4].error").exists())
+                .andExpect(jsonPath("$[5].index", is(1)))
+                .andExpect(jsonPath("$[5].symbol", is("TEST2")))
+                .andExpect(jsonPath("$[5].newest").value(BigDecimal.valueOf(200)))
+                .andExpect(jsonPath("$[6].index", is(3)))
+                .andExpect(jsonPath("$[6].symbol", is("RANDOMCRYPTONAME")))
+                .andExpect(jsonPath("$[6].error").exists());
+    }
+
+    @Test
+    @DisplayName("getBatchStatistics() should reject batches of more than 1000 queries before streaming")
+    @Order(3)
+    void rejectOversizedBatch() throws Exception {
+        List<StatisticsQuery> queries = Collections.nCopies(1001, StatisticsQuery.builder().crypto("TEST1").build());
+        performRequestWithToken(mockMvc, post("/statistics/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(queries)), getUserToken(mockMvc))
+                .andExpect(status().isBadRequest());
+    }
 
     @ParameterizedTest(name = "Should return NormalizedRange.class for existing data")
     @MethodSource("getNormalizedRangeAndDateRequested")
@@ -174,7 +282,13 @@ class StatisticsControllerTest {
         return Stream.of(
                 Arguments.of(get("/statistics/highest-normalized-range/2023-01-01/2023-01-02"), status().isNotFound()),
                 Arguments.of(get("/statistics/highest-normalized-range/01-01-asdasd/gsdfg-02-2022"), status().isBadRequest()),
-                Arguments.of(get("/statistics/highest-normalized-range/2022-01-20/2022-01-02"), status().isNotFound())
+                Arguments.of(get("/statistics/highest-normalized-range/2022-01-20/2022-01-02"), status().isNotFound()),
+                Arguments.of(get("/statistics/candles/randomCryptoName"), status().isNotFound()),
+                Arguments.of(get("/statistics/candles/TEST1").param("dateFrom", "2022-01-20").param("dateTo", "2022-01-02"), status().isNotFound()),
+                Arguments.of(get("/statistics/candles/TEST1").param("dateFrom", "01-01-asdasd"), status().isBadRequest()),
+                Arguments.of(get("/statistics/series/randomCryptoName"), status().isNotFound()),
+                Arguments.of(get("/statistics/series/TEST1").param("points", "1"), status().isNotFound()),
+                Arguments.of(get("/statistics/series/TEST1").param("downsampling", "cubic"), status().isBadRequest())
         );
     }
 
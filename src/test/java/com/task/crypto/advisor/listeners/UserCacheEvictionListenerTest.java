@@ -0,0 +1,60 @@
+package com.task.crypto.advisor.listeners;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserCacheEvictionListenerTest {
+
+    private Cache cache;
+    private UserCacheEvictionListener listener;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("users");
+        cache = cacheManager.getCache("users");
+        listener = new UserCacheEvictionListener(cacheManager);
+        ReflectionTestUtils.setField(listener, "usersCacheName", "users");
+        cache.put("testUser", "details");
+    }
+
+    @Test
+    @DisplayName("Cached users should be cleared once after commit of the transaction changing them")
+    void evictAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.evictUsers(new Object());
+            listener.evictUsers(new Object());
+
+            assertNotNull(cache.get("testUser"));
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+            assertNull(cache.get("testUser"));
+            assertFalse(TransactionSynchronizationManager.hasResource(listener));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Cached users should be cleared immediately outside of a transaction")
+    void evictWithoutTransaction() {
+        listener.evictUsers(new Object());
+
+        assertNull(cache.get("testUser"));
+    }
+}
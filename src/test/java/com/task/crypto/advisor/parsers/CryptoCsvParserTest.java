@@ -0,0 +1,102 @@
+package com.task.crypto.advisor.parsers;
+
+import com.task.crypto.advisor.exceptions.CryptoValuesCsvValidationException;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoCsvParserTest {
+
+    @Test
+    @DisplayName("Rows should be parsed into sorted series keeping price scales")
+    void parse() throws IOException {
+        CryptoSeries series = CryptoCsvParser.parse(stream("""
+                Timestamp,Symbol,Price\r
+                1641078000000,TEST1,151.30\r
+                1641016800000,TEST1,50\r
+                1641063600000,TEST1,0.1702"""));
+
+        assertEquals("TEST1", series.getSymbol());
+        assertEquals(3, series.size());
+        assertEquals(1641016800000L, series.timestampAt(0));
+        assertEquals(BigDecimal.valueOf(50), series.priceAt(0));
+        assertEquals(new BigDecimal("0.1702"), series.priceAt(1));
+        assertEquals(new BigDecimal("151.30"), series.priceAt(2));
+    }
+
+    @Test
+    @DisplayName("Header only content should be empty series of the given symbol")
+    void parseHeaderOnly() throws IOException {
+        CryptoSeries series = CryptoCsvParser.parse(stream("timestamp,symbol,price\n"), "TEST1");
+
+        assertEquals("TEST1", series.getSymbol());
+        assertTrue(series.isEmpty());
+        assertThrows(CryptoValuesCsvValidationException.class, () -> CryptoCsvParser.parse(stream("timestamp,symbol,price\n")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "time,symbol,price\n1,TEST1,1",
+            "timestamp,symbol,price\n1,TEST1",
+            "timestamp,symbol,price\n1,TEST1,1,1",
+            "timestamp,symbol,price\n1,TEST1,1\n\n2,TEST1,1",
+            "timestamp,symbol,price\n-1,TEST1,1",
+            "timestamp,symbol,price\n99999999999999,TEST1,1",
+            "timestamp,symbol,price\n99999999999999999999,TEST1,1",
+            "timestamp,symbol,price\n1,TEST1,1\n2,TEST2,1",
+            "timestamp,symbol,price\n1,TEST1,1\n2,TEST,1",
+            "timestamp,symbol,price\n1,../TEST1,1",
+            "timestamp,symbol,price\n1,TEST1,.5",
+            "timestamp,symbol,price\n1,TEST1,1.5.5",
+            "timestamp,symbol,price\n1,TEST1,1e5",
+            "timestamp,symbol,price\n1,TEST1,1234567890123456789"
+    })
+    @DisplayName("Content violating constraints should fail validation")
+    void parseInvalid(String content) {
+        assertThrows(CryptoValuesCsvValidationException.class, () -> CryptoCsvParser.parse(stream(content)));
+    }
+
+    @Test
+    @DisplayName("Prices not fitting into the largest scale of the file together should fail validation")
+    void parseMismatchedScales() {
+        CryptoValuesCsvValidationException exception = assertThrows(CryptoValuesCsvValidationException.class,
+                () -> CryptoCsvParser.parse(stream("""
+                        timestamp,symbol,price
+                        1641016800000,TEST1,99999999999
+                        1641020400000,TEST1,0.00000001""")));
+
+        assertTrue(exception.getMessage().contains("row 2"));
+    }
+
+    @Test
+    @DisplayName("Rows spanning read buffer boundaries should be parsed")
+    void parseLargeContent() throws IOException {
+        StringBuilder content = new StringBuilder("timestamp,symbol,price\n");
+        for (int i = 0; i < 20_000; i++) {
+            content.append(1641016800000L + i).append(",TEST1,").append(i).append(".25\n");
+        }
+
+        CryptoSeries series = CryptoCsvParser.parse(stream(content.toString()), "TEST1");
+
+        assertEquals(20_000, series.size());
+        assertEquals(new BigDecimal("19999.25"), series.priceAt(19_999));
+        assertEquals(0, series.minPricePosition(0, series.size()));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
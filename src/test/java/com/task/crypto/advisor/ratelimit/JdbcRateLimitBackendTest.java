@@ -0,0 +1,239 @@
+package com.task.crypto.advisor.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.task.crypto.advisor.configurations.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcRateLimitBackendTest {
+
+    private static final BucketLimit LIMIT = new BucketLimit(20, 20, TimeUnit.MINUTES.toNanos(1));
+    private final AtomicLong ticks = new AtomicLong();
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger statements = new AtomicInteger();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:rate_limit;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db.migration/V1_2__create_rate_limit_bucket.sql")).execute(dataSource);
+        jdbcTemplate = new CountingJdbcTemplate(dataSource);
+        jdbcTemplate.update("delete from rate_limit_bucket");
+        statements.set(0);
+    }
+
+    @Test
+    @DisplayName("Replicas should share budget of a client")
+    void shareBudgetBetweenReplicas() {
+        JdbcRateLimitBackend first = createReplica();
+        JdbcRateLimitBackend second = createReplica();
+        int permitted = 0;
+
+        for (int i = 0; i < 30; i++) {
+            if (first.tryAcquire("user", LIMIT, 1)) {
+                permitted++;
+            }
+            if (second.tryAcquire("user", LIMIT, 1)) {
+                permitted++;
+            }
+        }
+
+        assertEquals(20, permitted);
+        assertTrue(createReplica().tryAcquire("admin", LIMIT, 1));
+    }
+
+    @Test
+    @DisplayName("Tokens should be leased in batches and spent without database round trips")
+    void leaseTokensInBatches() {
+        JdbcRateLimitBackend replica = createReplica();
+        assertTrue(replica.tryAcquire("user", LIMIT, 1));
+        long leasedArrival = getArrival("user");
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(replica.tryAcquire("user", LIMIT, 1));
+        }
+
+        assertEquals(leasedArrival, getArrival("user"));
+        assertEquals(clock.millis() * 1_000_000L + 5 * LIMIT.emissionInterval(), leasedArrival);
+    }
+
+    @Test
+    @DisplayName("Spent leases should expire and shared bucket should refill")
+    void refillAfterExpiredLeases() {
+        JdbcRateLimitBackend replica = createReplica();
+        for (int i = 0; i < 20; i++) {
+            assertTrue(replica.tryAcquire("user", LIMIT, 1));
+        }
+        assertFalse(replica.tryAcquire("user", LIMIT, 1));
+
+        ticks.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        clock.advance(Duration.ofSeconds(6));
+        assertTrue(replica.tryAcquire("user", LIMIT, 2));
+        assertFalse(replica.tryAcquire("user", LIMIT, 1));
+    }
+
+    @Test
+    @DisplayName("Unspent tokens of an expired lease should be credited back by the next lease")
+    void creditUnspentTokensOnNextLease() {
+        JdbcRateLimitBackend replica = createReplica();
+        assertTrue(replica.tryAcquire("user", LIMIT, 1));
+
+        ticks.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        assertTrue(replica.tryAcquire("user", LIMIT, 1));
+
+        assertEquals(clock.millis() * 1_000_000L + 6 * LIMIT.emissionInterval(), getArrival("user"));
+    }
+
+    @Test
+    @DisplayName("Unspent tokens of an evicted lease should be credited back to the shared bucket")
+    void creditUnspentTokensOnEviction() {
+        JdbcRateLimitBackend replica = createReplica();
+        assertTrue(replica.tryAcquire("user", LIMIT, 1));
+
+        ticks.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        replica.cleanUp();
+
+        assertEquals(clock.millis() * 1_000_000L + LIMIT.emissionInterval(), getArrival("user"));
+    }
+
+    @Test
+    @DisplayName("Sparse requests under the limit should be permitted with default lease settings")
+    void permitSparseRequests() {
+        JdbcRateLimitBackend replica = createReplica(10);
+
+        for (int i = 0; i < 30; i++) {
+            assertTrue(replica.tryAcquire("user", LIMIT, 1), "request " + i);
+            ticks.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+            clock.advance(Duration.ofMillis(1500));
+        }
+    }
+
+    @Test
+    @DisplayName("Leases of replicas a client doesn't come back to should be credited back to other replicas")
+    void creditLeasesOfIdleReplicas() {
+        JdbcRateLimitBackend first = createReplica(10);
+        JdbcRateLimitBackend second = createReplica(10);
+        JdbcRateLimitBackend third = createReplica(10);
+        assertTrue(first.tryAcquire("user", LIMIT, 1));
+        assertTrue(second.tryAcquire("user", LIMIT, 1));
+        assertFalse(third.tryAcquire("user", LIMIT, 1));
+
+        ticks.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        clock.advance(Duration.ofSeconds(3));
+        first.cleanUp();
+        second.cleanUp();
+
+        assertTrue(third.tryAcquire("user", LIMIT, 1));
+    }
+
+    @Test
+    @DisplayName("Denied requests should be answered by empty lease without database round trips until it expires")
+    void denyWithoutDatabaseRoundTrips() {
+        JdbcRateLimitBackend replica = createReplica();
+        for (int i = 0; i < 20; i++) {
+            assertTrue(replica.tryAcquire("user", LIMIT, 1));
+        }
+        assertFalse(replica.tryAcquire("user", LIMIT, 1));
+        int leaseStatements = statements.get();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(replica.tryAcquire("user", LIMIT, 1));
+        }
+        assertEquals(leaseStatements, statements.get());
+
+        ticks.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        clock.advance(Duration.ofSeconds(6));
+        assertTrue(replica.tryAcquire("user", LIMIT, 1));
+        assertTrue(statements.get() > leaseStatements);
+    }
+
+    @Test
+    @DisplayName("Full buckets should be removed from store")
+    void cleanUpFullBuckets() {
+        JdbcRateLimitBackend replica = createReplica();
+        replica.tryAcquire("user", LIMIT, 1);
+
+        replica.cleanUp();
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from rate_limit_bucket", Integer.class));
+        clock.advance(Duration.ofMinutes(1));
+        replica.cleanUp();
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from rate_limit_bucket", Integer.class));
+    }
+
+    private JdbcRateLimitBackend createReplica() {
+        return createReplica(5);
+    }
+
+    private JdbcRateLimitBackend createReplica(int leaseTokens) {
+        return new JdbcRateLimitBackend(jdbcTemplate, new RateLimitProperties(100, null, leaseTokens, Duration.ofSeconds(1)),
+                ticks::get, clock, Runnable::run, Scheduler.disabledScheduler());
+    }
+
+    private long getArrival(String bucket) {
+        return jdbcTemplate.queryForObject("select theoretical_arrival from rate_limit_bucket where bucket_key = ?", Long.class, bucket);
+    }
+
+    private final class CountingJdbcTemplate extends JdbcTemplate {
+
+        private CountingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            statements.incrementAndGet();
+            return super.queryForList(sql, elementType, args);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            statements.incrementAndGet();
+            return super.update(sql, args);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2023-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.task.crypto.advisor.ratelimit;
+
+import com.task.crypto.advisor.configurations.RateLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimitBackendTest {
+
+    private static final BucketLimit LIMIT = new BucketLimit(3, 3, TimeUnit.MINUTES.toNanos(1));
+    private final AtomicLong time = new AtomicLong();
+    private final LocalRateLimitBackend backend = new LocalRateLimitBackend(
+            new RateLimitProperties(100, null, 10, Duration.ofSeconds(1)), time::get);
+
+    @Test
+    @DisplayName("Bucket should expire only after it is refilled completely")
+    void expireRefilledBuckets() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(backend.tryAcquire("127.0.0.1", LIMIT, 1));
+        }
+
+        time.set(TimeUnit.SECONDS.toNanos(30));
+        assertEquals(1, backend.getBucketCount());
+        assertTrue(backend.tryAcquire("127.0.0.1", LIMIT, 1));
+        assertFalse(backend.tryAcquire("127.0.0.1", LIMIT, 1));
+
+        time.set(TimeUnit.SECONDS.toNanos(200));
+        assertEquals(0, backend.getBucketCount());
+    }
+}
@@ -0,0 +1,42 @@
+package com.task.crypto.advisor.ratelimit;
+
+import com.task.crypto.advisor.dtos.StatisticsQuery;
+import com.task.crypto.advisor.services.CryptoDataService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatisticsCostsTest {
+
+    private final CryptoDataService cryptoDataService = mock(CryptoDataService.class);
+    private final StatisticsCosts statisticsCosts = new StatisticsCosts(cryptoDataService);
+
+    @Test
+    @DisplayName("Scanning all cryptocurrencies should cost a token per stored cryptocurrency")
+    void symbolsScanned() {
+        when(cryptoDataService.getCryptos()).thenReturn(Set.of("TEST1", "TEST2", "TEST3"));
+
+        assertEquals(3, statisticsCosts.symbolsScanned());
+    }
+
+    @Test
+    @DisplayName("Batch should cost a token per distinct cryptocurrency and a token per 10 queries")
+    void batch() {
+        List<StatisticsQuery> queries = new ArrayList<>(Collections.nCopies(24, StatisticsQuery.builder().crypto("test1").build()));
+        queries.add(StatisticsQuery.builder().crypto("TEST1").build());
+        queries.add(StatisticsQuery.builder().crypto("TEST2").build());
+        queries.add(StatisticsQuery.builder().build());
+        queries.add(null);
+
+        assertEquals(4, statisticsCosts.batch(queries));
+        assertEquals(1, statisticsCosts.batch(List.of()));
+    }
+}
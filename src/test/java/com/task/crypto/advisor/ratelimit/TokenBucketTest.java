@@ -0,0 +1,95 @@
+package com.task.crypto.advisor.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Bucket should permit burst of its capacity and refill one token per emission interval")
+    void burstAndRefill() {
+        TokenBucket bucket = new TokenBucket(new BucketLimit(5, 5, 60 * SECOND), 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(0));
+        }
+        assertFalse(bucket.tryAcquire(0));
+        assertEquals(12 * SECOND, bucket.nanosUntilAvailable(0));
+        assertFalse(bucket.tryAcquire(12 * SECOND - 1));
+        assertTrue(bucket.tryAcquire(12 * SECOND));
+        assertFalse(bucket.tryAcquire(12 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Bucket should not permit more than capacity across refill period boundary")
+    void noBurstAcrossPeriodBoundary() {
+        TokenBucket bucket = new TokenBucket(new BucketLimit(5, 5, 60 * SECOND), 0);
+        int permitted = 0;
+
+        for (long now = 59 * SECOND; now <= 61 * SECOND; now += SECOND / 10) {
+            if (bucket.tryAcquire(now)) {
+                permitted++;
+            }
+        }
+
+        assertEquals(5, permitted);
+    }
+
+    @Test
+    @DisplayName("Idle bucket should be refilled only up to its capacity")
+    void refillUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(new BucketLimit(2, 1, SECOND), 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertEquals(2 * SECOND, bucket.nanosUntilFull(0));
+
+        long later = 3600 * SECOND;
+        assertEquals(0, bucket.nanosUntilFull(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+    }
+
+    @Test
+    @DisplayName("Bucket should take all requested tokens or none")
+    void acquireSeveralTokens() {
+        TokenBucket bucket = new TokenBucket(new BucketLimit(10, 10, 10 * SECOND), 0);
+
+        assertFalse(bucket.tryAcquire(0, 11));
+        assertTrue(bucket.tryAcquire(0, 7));
+        assertFalse(bucket.tryAcquire(0, 4));
+        assertTrue(bucket.tryAcquire(0, 3));
+        assertTrue(bucket.tryAcquire(2 * SECOND, 2));
+    }
+
+    @Test
+    @DisplayName("Concurrent acquisitions should not take more tokens than capacity")
+    void concurrentAcquisitions() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(new BucketLimit(100, 1, 60 * SECOND), 0);
+        AtomicInteger permitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryAcquire(0)) {
+                    permitted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(100, permitted.get());
+    }
+}
@@ -0,0 +1,95 @@
+package com.task.crypto.advisor.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2023-01-01T00:00:00Z");
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+
+    @Test
+    @DisplayName("Repeated token should be verified once")
+    void cacheVerifiedToken() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        Jwt jwt = jwt("token", NOW.plus(Duration.ofHours(4)));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("token"));
+        assertSame(jwt, decoder.decode("token"));
+
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    @DisplayName("Token should be verified again after its expiration")
+    void verifyExpiredToken() {
+        MutableClock clock = new MutableClock();
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, clock);
+        when(delegate.decode("token")).thenReturn(jwt("token", NOW.plus(Duration.ofMinutes(1))));
+        decoder.decode("token");
+
+        clock.instant = NOW.plus(Duration.ofMinutes(1));
+        when(delegate.decode("token")).thenThrow(new BadJwtException("Jwt expired"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+    }
+
+    @Test
+    @DisplayName("Invalid token should not be cached")
+    void notCacheInvalidToken() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(delegate.decode(anyString())).thenThrow(new BadJwtException("Signed JWT rejected"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+
+        verify(delegate, times(2)).decode("forged");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.task.crypto.advisor.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = spy(new BCryptPasswordEncoder(4));
+    private final CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, 10, Duration.ofMinutes(5));
+
+    @Test
+    @DisplayName("Repeated successful check should be verified by delegate once")
+    void cacheSuccessfulCheck() {
+        String encoded = encoder.encode("password");
+
+        assertTrue(encoder.matches("password", encoded));
+        assertTrue(encoder.matches("password", encoded));
+
+        verify(delegate, times(1)).matches("password", encoded);
+    }
+
+    @Test
+    @DisplayName("Failed checks should not be cached")
+    void notCacheFailedCheck() {
+        String encoded = encoder.encode("password");
+
+        assertFalse(encoder.matches("wrong", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+
+        verify(delegate, times(2)).matches("wrong", encoded);
+    }
+
+    @Test
+    @DisplayName("Check of changed password should not match cached one")
+    void notMatchChangedPassword() {
+        assertTrue(encoder.matches("password", encoder.encode("password")));
+
+        assertFalse(encoder.matches("password", encoder.encode("changed")));
+    }
+}
@@ -0,0 +1,137 @@
+package com.task.crypto.advisor.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtKeysTest {
+
+    private static final int ES256_SIGNATURE_LENGTH = 86;
+    private static final int RS256_SIGNATURE_LENGTH = 342;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Decoder should accept tokens of current and previous keys")
+    void acceptRotatedKeys() throws Exception {
+        KeyPair ecKeyPair = generate("EC", 256);
+        KeyPair rsaKeyPair = generate("RSA", 2048);
+        JWK ecKey = JwtKeys.toJwk(SignatureAlgorithm.ES256, JwtKeys.readPublicKey(writePem("ec-public.pem", "PUBLIC KEY", ecKeyPair.getPublic())),
+                JwtKeys.readPrivateKey(writePem("ec-private.pem", "PRIVATE KEY", ecKeyPair.getPrivate())));
+        JWK rsaKey = JwtKeys.toJwk(SignatureAlgorithm.RS256, rsaKeyPair.getPublic(), rsaKeyPair.getPrivate());
+        JwtDecoder decoder = JwtKeys.decoder(List.of(ecKey, JwtKeys.toJwk(writePem("rsa-public.pem", "PUBLIC KEY", rsaKeyPair.getPublic()))));
+
+        assertEquals("user", decoder.decode(encode(ecKey, SignatureAlgorithm.ES256)).getSubject());
+        assertEquals("user", decoder.decode(encode(rsaKey, SignatureAlgorithm.RS256)).getSubject());
+    }
+
+    @Test
+    @DisplayName("ES256 tokens should carry 64 bytes signature instead of 256 bytes of RS256 with 2048 bit key")
+    void signatureLengths() throws Exception {
+        KeyPair ecKeyPair = generate("EC", 256);
+        KeyPair rsaKeyPair = generate("RSA", 2048);
+
+        String ecToken = encode(JwtKeys.toJwk(SignatureAlgorithm.ES256, ecKeyPair.getPublic(), ecKeyPair.getPrivate()), SignatureAlgorithm.ES256);
+        String rsaToken = encode(JwtKeys.toJwk(SignatureAlgorithm.RS256, rsaKeyPair.getPublic(), rsaKeyPair.getPrivate()), SignatureAlgorithm.RS256);
+
+        assertEquals(ES256_SIGNATURE_LENGTH, signature(ecToken).length());
+        assertEquals(RS256_SIGNATURE_LENGTH, signature(rsaToken).length());
+        assertEquals(RS256_SIGNATURE_LENGTH - ES256_SIGNATURE_LENGTH, rsaToken.length() - ecToken.length());
+    }
+
+    @Test
+    @DisplayName("Decoder should reject tokens of unknown keys")
+    void rejectUnknownKey() throws Exception {
+        KeyPair ecKeyPair = generate("EC", 256);
+        KeyPair otherKeyPair = generate("EC", 256);
+        JwtDecoder decoder = JwtKeys.decoder(List.of(JwtKeys.toJwk(SignatureAlgorithm.ES256, ecKeyPair.getPublic(), null)));
+
+        String token = encode(JwtKeys.toJwk(SignatureAlgorithm.ES256, otherKeyPair.getPublic(), otherKeyPair.getPrivate()), SignatureAlgorithm.ES256);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    @DisplayName("Key of other family or curve than algorithm should be rejected")
+    void rejectMismatchedKey() throws GeneralSecurityException {
+        KeyPair rsaKeyPair = generate("RSA", 2048);
+        KeyPair p384KeyPair = generate("EC", 384);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> JwtKeys.toJwk(SignatureAlgorithm.ES256, rsaKeyPair.getPublic(), rsaKeyPair.getPrivate()));
+        assertThrows(IllegalArgumentException.class,
+                () -> JwtKeys.toJwk(SignatureAlgorithm.ES256, p384KeyPair.getPublic(), p384KeyPair.getPrivate()));
+    }
+
+    @Test
+    @DisplayName("Previous EC keys should be accepted with the algorithm of their curve")
+    void acceptPreviousKeysOfTheirCurve() throws Exception {
+        KeyPair p384KeyPair = generate("EC", 384);
+        KeyPair p521KeyPair = generate("EC", 521);
+        JWK p384Key = JwtKeys.toJwk(writePem("p384-public.pem", "PUBLIC KEY", p384KeyPair.getPublic()));
+        JWK p521Key = JwtKeys.toJwk(writePem("p521-public.pem", "PUBLIC KEY", p521KeyPair.getPublic()));
+        JwtDecoder decoder = JwtKeys.decoder(List.of(p384Key, p521Key));
+
+        assertEquals("ES384", p384Key.getAlgorithm().getName());
+        assertEquals("ES512", p521Key.getAlgorithm().getName());
+        assertEquals("user", decoder.decode(encode(JwtKeys.toJwk(SignatureAlgorithm.ES384, p384KeyPair.getPublic(), p384KeyPair.getPrivate()), SignatureAlgorithm.ES384)).getSubject());
+        assertEquals("user", decoder.decode(encode(JwtKeys.toJwk(SignatureAlgorithm.ES512, p521KeyPair.getPublic(), p521KeyPair.getPrivate()), SignatureAlgorithm.ES512)).getSubject());
+    }
+
+    private static String encode(JWK jwk, SignatureAlgorithm algorithm) {
+        Instant now = Instant.now();
+        JwtClaimsSet claimsSet = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plus(4, ChronoUnit.HOURS))
+                .subject("user")
+                .build();
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claimsSet))
+                .getTokenValue();
+    }
+
+    private static String signature(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+
+    private static KeyPair generate(String algorithm, int size) throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+        generator.initialize(size);
+        return generator.generateKeyPair();
+    }
+
+    private FileSystemResource writePem(String name, String type, Key key) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(key.getEncoded())
+                + "\n-----END " + type + "-----\n";
+        return new FileSystemResource(Files.writeString(directory.resolve(name), pem));
+    }
+}
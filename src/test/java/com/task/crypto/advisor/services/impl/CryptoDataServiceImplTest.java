@@ -1,27 +1,50 @@
 package com.task.crypto.advisor.services.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.task.crypto.advisor.configurations.CacheConfig;
+import com.task.crypto.advisor.configurations.CaffeineCacheProperties;
+import com.task.crypto.advisor.configurations.CsvStorageProperties;
 import com.task.crypto.advisor.entities.csv.CryptoData;
 import com.task.crypto.advisor.entities.csv.CryptoEntry;
+import com.task.crypto.advisor.entities.csv.DateRange;
 import com.task.crypto.advisor.exceptions.CryptoDataNotFoundException;
+import com.task.crypto.advisor.exceptions.CryptoStatisticException;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.CryptoSeriesStorage;
+import com.task.crypto.advisor.storage.CsvSegmentConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -62,6 +85,135 @@ class CryptoDataServiceImplTest {
         assertEquals(expected, cryptoDataService.getCryptoData(crypto, LocalDate.now().minusYears(5), LocalDate.now()));
     }
 
+    @Test
+    @DisplayName("Cached data should be served until refresh swaps in data of updated series")
+    void refreshCryptoData(@TempDir Path directory) {
+        CryptoSeriesStorage storage = new CryptoSeriesStorage(new CsvStorageProperties(null, directory.toString()), new CsvSegmentConverter(), new NoOpCacheManager());
+        CryptoDataServiceImpl service = createService(storage, new SimpleMeterRegistry());
+        LocalDate date = LocalDate.of(2022, 1, 1);
+        CryptoSeries stored = storage.save(CryptoSeries.builder("TEST9")
+                .add(toEpochMilli(date), BigDecimal.valueOf(50))
+                .add(toEpochMilli(date.plusDays(2)), BigDecimal.valueOf(100))
+                .build());
+
+        assertEquals(BigDecimal.valueOf(100), service.getCryptoData("test9", date, date.plusDays(5)).max().getPrice());
+
+        storage.append(stored, CryptoSeries.builder("TEST9").add(toEpochMilli(date.plusDays(1)), BigDecimal.valueOf(200)).build());
+
+        assertEquals(BigDecimal.valueOf(100), service.getCryptoData("test9", date, date.plusDays(5)).max().getPrice());
+
+        service.refreshCryptoData("TEST9");
+
+        CryptoData refreshed = service.getCryptoData("test9", date, date.plusDays(5));
+        assertEquals("test9", refreshed.crypto());
+        assertEquals(BigDecimal.valueOf(200), refreshed.max().getPrice());
+        assertEquals(date.plusDays(1), refreshed.max().getDate());
+    }
+
+    @Test
+    @DisplayName("Date ranges covering the same stored ticks should share cached data")
+    void shareCryptoDataOfEquivalentRanges(@TempDir Path directory) {
+        CryptoSeriesStorage storage = new CryptoSeriesStorage(new CsvStorageProperties(null, directory.toString()), new CsvSegmentConverter(), new NoOpCacheManager());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CryptoDataServiceImpl service = createService(storage, meterRegistry);
+        LocalDate date = LocalDate.of(2022, 1, 1);
+        storage.save(CryptoSeries.builder("TEST9")
+                .add(toEpochMilli(date), BigDecimal.valueOf(50))
+                .add(toEpochMilli(date.plusDays(1)), BigDecimal.valueOf(100))
+                .build());
+
+        CryptoData data = service.getCryptoData("TEST9", date.minusYears(5), LocalDate.now());
+
+        assertEquals(data, service.getCryptoData("TEST9", date, date.plusDays(1)));
+        assertEquals(data, service.getCryptoData("TEST9", date.minusDays(1), date.plusDays(3)));
+        assertEquals("test9", service.getCryptoData("test9", date, date.plusDays(2)).crypto());
+        assertThrows(CryptoStatisticException.class, () -> service.getCryptoData("TEST9", date.plusDays(2), date.plusDays(3)));
+        assertEquals(3, meterRegistry.get("crypto.data.ranges").tag("result", "hit").functionCounter().count());
+        assertEquals(0.6, meterRegistry.get("crypto.data.ranges.hit.ratio").gauge().value());
+        assertEquals(3, meterRegistry.get("crypto.data.aggregation").tag("result", "hit").timer().count());
+        assertEquals(1, meterRegistry.get("crypto.data.aggregation").tag("result", "miss").timer().count());
+    }
+
+    @Test
+    @DisplayName("All date ranges of a batch should be answered in order, ranges without data with null")
+    void getCryptoDataOfRanges(@TempDir Path directory) {
+        CryptoSeriesStorage storage = new CryptoSeriesStorage(new CsvStorageProperties(null, directory.toString()), new CsvSegmentConverter(), new NoOpCacheManager());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CryptoDataServiceImpl service = createService(storage, meterRegistry);
+        LocalDate date = LocalDate.of(2022, 1, 1);
+        storage.save(CryptoSeries.builder("TEST9")
+                .add(toEpochMilli(date), BigDecimal.valueOf(50))
+                .add(toEpochMilli(date.plusDays(1)), BigDecimal.valueOf(100))
+                .build());
+
+        List<CryptoData> data = service.getCryptoData("test9", List.of(
+                new DateRange(date, date.plusDays(1)),
+                new DateRange(date.plusDays(1), date.plusDays(3)),
+                new DateRange(date.plusDays(2), date.plusDays(3)),
+                new DateRange(date.minusDays(1), date.plusDays(1))));
+
+        assertEquals(4, data.size());
+        assertEquals(BigDecimal.valueOf(50), data.get(0).min().getPrice());
+        assertEquals(BigDecimal.valueOf(100), data.get(1).min().getPrice());
+        assertNull(data.get(2));
+        assertEquals(data.get(0), data.get(3));
+        assertEquals(1, meterRegistry.get("crypto.data.ranges").tag("result", "hit").functionCounter().count());
+        assertThrows(CryptoDataNotFoundException.class, () -> service.getCryptoData("TEST8", List.of(new DateRange(date, date))));
+    }
+
+    @Test
+    @DisplayName("Every date range should be a separate cache entry and only ranges of the uploaded crypto should be refreshed")
+    void cacheCryptoDataPerRange(@TempDir Path directory) {
+        CryptoSeriesStorage storage = new CryptoSeriesStorage(new CsvStorageProperties(null, directory.toString()), new CsvSegmentConverter(), new NoOpCacheManager());
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        new CacheConfig().caffeineCacheManagerCustomizer(new CaffeineCacheProperties(Map.of(
+                "cryptoData", new CaffeineCacheProperties.Spec(100L, null, Duration.ofHours(1), null))))
+                .customize(cacheManager);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CryptoDataServiceImpl service = createService(storage, cacheManager, meterRegistry);
+        Cache<Object, Object> nativeCache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache("cryptoData"))).getNativeCache();
+        LocalDate date = LocalDate.of(2022, 1, 1);
+        CryptoSeries stored = storage.save(CryptoSeries.builder("TEST9")
+                .add(toEpochMilli(date), BigDecimal.valueOf(50))
+                .add(toEpochMilli(date.plusDays(2)), BigDecimal.valueOf(100))
+                .build());
+        storage.save(CryptoSeries.builder("TEST8").add(toEpochMilli(date), BigDecimal.valueOf(10)).build());
+
+        service.getCryptoData("TEST9", List.of(
+                new DateRange(date, date),
+                new DateRange(date, date.plusDays(2)),
+                new DateRange(date.plusDays(2), date.plusDays(2))));
+        service.getCryptoData("TEST8", date, date);
+        nativeCache.cleanUp();
+        assertEquals(4, nativeCache.estimatedSize());
+
+        storage.append(stored, CryptoSeries.builder("TEST9").add(toEpochMilli(date.plusDays(1)), BigDecimal.valueOf(200)).build());
+        service.refreshCryptoData("TEST9");
+
+        assertEquals(BigDecimal.valueOf(200), service.getCryptoData("TEST9", date, date.plusDays(2)).max().getPrice());
+        assertEquals(BigDecimal.valueOf(50), service.getCryptoData("TEST9", date, date).max().getPrice());
+        assertEquals(BigDecimal.valueOf(10), service.getCryptoData("TEST8", date, date).max().getPrice());
+        assertEquals(3, meterRegistry.get("crypto.data.ranges").tag("result", "hit").functionCounter().count());
+        nativeCache.cleanUp();
+        assertEquals(4, nativeCache.estimatedSize());
+    }
+
+    private static CryptoDataServiceImpl createService(CryptoSeriesStorage storage, MeterRegistry meterRegistry) {
+        return createService(storage, new ConcurrentMapCacheManager(), meterRegistry);
+    }
+
+    private static CryptoDataServiceImpl createService(CryptoSeriesStorage storage, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        CryptoDataServiceImpl service = new CryptoDataServiceImpl(storage, cacheManager, meterRegistry);
+        ReflectionTestUtils.setField(service, "cryptoDataCacheName", "cryptoData");
+        ReflectionTestUtils.setField(service, "cryptoPyramidsCacheName", "cryptoPyramids");
+        service.registerMetrics();
+        return service;
+    }
+
+    private static long toEpochMilli(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     @Test
     @Order(3)
     @DisplayName("Should throw exception on unexciting crypto name")
@@ -1,8 +1,21 @@
 package com.task.crypto.advisor.services.impl;
 
+import com.task.crypto.advisor.configurations.StatisticsProperties;
+import com.task.crypto.advisor.dtos.BatchStatistics;
 import com.task.crypto.advisor.dtos.CryptoStats;
+import com.task.crypto.advisor.dtos.DownsampledSeries;
+import com.task.crypto.advisor.dtos.Downsampling;
 import com.task.crypto.advisor.dtos.NormalizedRange;
+import com.task.crypto.advisor.dtos.StatisticsQuery;
+import com.task.crypto.advisor.entities.csv.CryptoData;
+import com.task.crypto.advisor.entities.csv.CryptoEntry;
 import com.task.crypto.advisor.exceptions.CryptoStatisticException;
+import com.task.crypto.advisor.exceptions.StatisticsTimeoutException;
+import com.task.crypto.advisor.services.CryptoDataService;
+import com.task.crypto.advisor.storage.CryptoSeries;
+import com.task.crypto.advisor.storage.Resolution;
+import com.task.crypto.advisor.storage.SeriesPyramid;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
@@ -15,10 +28,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 @SpringBootTest
 class CryptoStatisticsServiceImplTest {
 
@@ -72,6 +97,118 @@ class CryptoStatisticsServiceImplTest {
         Assertions.assertThrows(CryptoStatisticException.class, () -> cryptoStatisticsService.getBiggestNormalizedRangeForDate(LocalDate.of(2022, 3, 5), LocalDate.of(2022, 4, 5)));
     }
 
+    @Test
+    @DisplayName("Unfinished computations should be cancelled when the deadline expires")
+    void cancelOnDeadline() throws InterruptedException {
+        CryptoDataService cryptoDataService = mock(CryptoDataService.class);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(cryptoDataService.getCryptos()).thenReturn(Set.of("TEST1", "SLOW"));
+        when(cryptoDataService.getCryptoData(eq("TEST1"), any(), any())).thenReturn(cryptoData("TEST1", 50, 100));
+        when(cryptoDataService.getCryptoData(eq("SLOW"), any(), any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return cryptoData("SLOW", 50, 100);
+        });
+        CryptoStatisticsServiceImpl service = createService(cryptoDataService, Duration.ofMillis(200));
+
+        Assertions.assertThrows(StatisticsTimeoutException.class, service::getNormalizedRangeForAllCryptos);
+        Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        service.shutdownExecutor();
+    }
+
+    @Test
+    @DisplayName("Computations not fitting into the executor queue should be rejected instead of run by the caller")
+    void rejectOnSaturatedExecutor() {
+        CryptoDataService cryptoDataService = mock(CryptoDataService.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cryptoDataService.getCryptos()).thenReturn(Set.of("TEST1", "TEST2", "TEST3"));
+        when(cryptoDataService.getCryptoData(any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return cryptoData("TEST1", 50, 100);
+        });
+        CryptoStatisticsServiceImpl service = new CryptoStatisticsServiceImpl(cryptoDataService, new StatisticsProperties(1, 1, Duration.ofSeconds(10)), new SimpleMeterRegistry());
+        service.startExecutor();
+
+        Assertions.assertThrows(StatisticsTimeoutException.class, service::getNormalizedRangeForAllCryptos);
+        release.countDown();
+        service.shutdownExecutor();
+    }
+
+    @Test
+    @DisplayName("Equal normalized ranges should be ordered by symbol")
+    void orderEqualRangesBySymbol() {
+        CryptoDataService cryptoDataService = mock(CryptoDataService.class);
+        when(cryptoDataService.getCryptos()).thenReturn(Set.of("TEST3", "TEST1", "TEST2"));
+        when(cryptoDataService.getCryptoData(eq("TEST1"), any(), any())).thenReturn(cryptoData("TEST1", 50, 100));
+        when(cryptoDataService.getCryptoData(eq("TEST2"), any(), any())).thenReturn(cryptoData("TEST2", 50, 200));
+        when(cryptoDataService.getCryptoData(eq("TEST3"), any(), any())).thenReturn(cryptoData("TEST3", 10, 40));
+        CryptoStatisticsServiceImpl service = createService(cryptoDataService, Duration.ofSeconds(10));
+
+        Assertions.assertEquals(List.of("TEST2", "TEST3", "TEST1"),
+                service.getNormalizedRangeForAllCryptos().stream().map(NormalizedRange::getSymbol).toList());
+        Assertions.assertEquals("TEST2",
+                service.getBiggestNormalizedRangeForDate(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 2)).getSymbol());
+        service.shutdownExecutor();
+    }
+
+    @Test
+    @DisplayName("Failure of one crypto in batch should be answered by errors of its queries")
+    void answerBatchFailuresWithErrors() {
+        CryptoDataService cryptoDataService = mock(CryptoDataService.class);
+        when(cryptoDataService.getCryptoData(eq("TEST1"), anyList())).thenReturn(List.of(cryptoData("TEST1", 50, 100)));
+        when(cryptoDataService.getCryptoData(eq("BROKEN"), anyList())).thenThrow(new IllegalStateException("broken"));
+        CryptoStatisticsServiceImpl service = createService(cryptoDataService, Duration.ofSeconds(10));
+        List<BatchStatistics> results = new ArrayList<>();
+
+        service.getBatchStatistics(List.of(
+                StatisticsQuery.builder().crypto("broken").build(),
+                StatisticsQuery.builder().crypto("test1").build()), results::add);
+
+        Assertions.assertEquals(List.of(0, 1), results.stream().map(BatchStatistics::getIndex).toList());
+        Assertions.assertNotNull(results.get(0).getError());
+        Assertions.assertNull(results.get(1).getError());
+        service.shutdownExecutor();
+    }
+
+    @Test
+    @DisplayName("Range not fitting requested points even at weekly resolution should be reduced only with LTTB")
+    void downsampleLongRange() {
+        CryptoDataService cryptoDataService = mock(CryptoDataService.class);
+        CryptoSeries.Builder builder = CryptoSeries.builder("TEST1");
+        long start = LocalDate.of(2020, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (int day = 0; day < 730; day++) {
+            builder.add(start + TimeUnit.DAYS.toMillis(day) + TimeUnit.HOURS.toMillis(12), BigDecimal.valueOf(100 + day % 7));
+        }
+        when(cryptoDataService.getSeriesPyramid("TEST1")).thenReturn(SeriesPyramid.build(builder.build(), ZoneId.systemDefault()));
+        CryptoStatisticsServiceImpl service = createService(cryptoDataService, Duration.ofSeconds(10));
+        LocalDate dateFrom = LocalDate.of(2020, 1, 1);
+        LocalDate dateTo = LocalDate.of(2021, 12, 31);
+
+        DownsampledSeries reduced = service.getDownsampledSeries("TEST1", dateFrom, dateTo, 10, Downsampling.LTTB);
+
+        Assertions.assertEquals(Resolution.WEEK, reduced.getResolution());
+        Assertions.assertEquals(Downsampling.LTTB, reduced.getDownsampling());
+        Assertions.assertEquals(10, reduced.getPoints().size());
+        Assertions.assertThrows(CryptoStatisticException.class,
+                () -> service.getDownsampledSeries("TEST1", dateFrom, dateTo, 10, Downsampling.NONE));
+        service.shutdownExecutor();
+    }
+
+    private static CryptoStatisticsServiceImpl createService(CryptoDataService cryptoDataService, Duration deadline) {
+        CryptoStatisticsServiceImpl service = new CryptoStatisticsServiceImpl(cryptoDataService, new StatisticsProperties(2, 16, deadline), new SimpleMeterRegistry());
+        service.startExecutor();
+        return service;
+    }
+
+    private static CryptoData cryptoData(String crypto, long min, long max) {
+        CryptoEntry minEntry = new CryptoEntry("1641016800000", crypto, BigDecimal.valueOf(min));
+        CryptoEntry maxEntry = new CryptoEntry("1641078000000", crypto, BigDecimal.valueOf(max));
+        return new CryptoData(crypto, minEntry, maxEntry, minEntry, maxEntry, minEntry.getDate(), maxEntry.getDate());
+    }
+
     static Stream<Arguments> getStatisticsByNameArguments() {
         return Stream.of(
                 Arguments.of("TEST1",
@@ -0,0 +1,71 @@
+package com.task.crypto.advisor.services.impl;
+
+import com.task.crypto.advisor.aspects.annotations.RateLimited;
+import com.task.crypto.advisor.configurations.RateLimitProperties;
+import com.task.crypto.advisor.ratelimit.LocalRateLimitBackend;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitServiceImplTest {
+
+    private final RateLimitProperties rateLimitProperties = new RateLimitProperties(100,
+            Map.of("AUTHORITY_WRITE", 5, "authority_read", 1), 10, Duration.ofSeconds(1));
+    private final RateLimitServiceImpl rateLimitService = new RateLimitServiceImpl(rateLimitProperties,
+            new LocalRateLimitBackend(rateLimitProperties));
+    private final RateLimited classLimit = LimitedController.class.getAnnotation(RateLimited.class);
+
+    @Test
+    @DisplayName("Clients and scopes should have separate buckets")
+    void separateBuckets() throws NoSuchMethodException {
+        RateLimited methodLimit = LimitedController.class.getMethod("limited").getAnnotation(RateLimited.class);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimitService.tryAcquire("127.0.0.1", List.of(), LimitedController.class, classLimit, 1));
+        }
+        assertFalse(rateLimitService.tryAcquire("127.0.0.1", List.of(), LimitedController.class, classLimit, 1));
+        assertTrue(rateLimitService.tryAcquire("127.0.0.2", List.of(), LimitedController.class, classLimit, 1));
+        assertTrue(rateLimitService.tryAcquire("127.0.0.1", List.of(), LimitedController.class.getMethod("limited"), methodLimit, 1));
+        assertFalse(rateLimitService.tryAcquire("127.0.0.1", List.of(), LimitedController.class.getMethod("limited"), methodLimit, 1));
+    }
+
+    @Test
+    @DisplayName("Limits should be multiplied by the biggest tier of client scopes")
+    void tieredLimits() {
+        assertEquals(5, rateLimitService.getTier(List.of("AUTHORITY_READ", "AUTHORITY_WRITE")));
+        assertEquals(1, rateLimitService.getTier(List.of("authority_read", "UNKNOWN")));
+        assertTrue(rateLimitService.tryAcquire("admin", List.of("AUTHORITY_WRITE"), LimitedController.class, classLimit, 15));
+        assertFalse(rateLimitService.tryAcquire("admin", List.of("AUTHORITY_WRITE"), LimitedController.class, classLimit, 1));
+    }
+
+    @Test
+    @DisplayName("Requests should take tokens by their cost")
+    void weightedRequests() {
+        assertTrue(rateLimitService.tryAcquire("user", List.of(), LimitedController.class, classLimit, 2));
+        assertFalse(rateLimitService.tryAcquire("user", List.of(), LimitedController.class, classLimit, 2));
+        assertTrue(rateLimitService.tryAcquire("user", List.of(), LimitedController.class, classLimit, 1));
+    }
+
+    @Test
+    @DisplayName("Requests costing more than bucket capacity should take the full bucket")
+    void capCostByCapacity() {
+        assertTrue(rateLimitService.tryAcquire("user", List.of(), LimitedController.class, classLimit, 4));
+        assertFalse(rateLimitService.tryAcquire("user", List.of(), LimitedController.class, classLimit, 1));
+        assertTrue(rateLimitService.tryAcquire("admin", List.of("AUTHORITY_WRITE"), LimitedController.class, classLimit, 100));
+    }
+
+    @RateLimited(capacity = 3, refillTokens = 3)
+    static class LimitedController {
+
+        @RateLimited(capacity = 1, refillTokens = 1)
+        public void limited() {
+        }
+    }
+}
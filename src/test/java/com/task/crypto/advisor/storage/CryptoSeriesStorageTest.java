@@ -0,0 +1,221 @@
+package com.task.crypto.advisor.storage;
+
+import com.task.crypto.advisor.configurations.CsvStorageProperties;
+import com.task.crypto.advisor.exceptions.CryptoValuesCsvValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoSeriesStorageTest {
+
+    @TempDir
+    Path directory;
+
+    private CryptoSeriesStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new CryptoSeriesStorage(new CsvStorageProperties(null, directory.toString()), new CsvSegmentConverter(), new NoOpCacheManager());
+    }
+
+    @Test
+    @DisplayName("Uploads should be written as delta segments and merged on load and compaction")
+    void appendAndCompact() throws IOException {
+        CryptoSeries stored = storage.save(series(1, 3, 5));
+        CryptoSeries newer = storage.append(stored, series(7, 8));
+        CryptoSeries overlapping = storage.append(newer, series(2, 4));
+
+        assertEquals(Set.of("TEST1_values.seg", "TEST1_values.1.seg", "TEST1_values.2.seg", "TEST1_daily.roll"), fileNames());
+        assertEquals(series(1, 2, 3, 4, 5, 7, 8).toEntries(), overlapping.toEntries());
+        assertEquals(overlapping.toEntries(), storage.load("test1").toEntries());
+
+        assertEquals(2, storage.compact("TEST1"));
+
+        assertEquals(Set.of("TEST1_values.seg", "TEST1_daily.roll"), fileNames());
+        assertEquals(overlapping.toEntries(), storage.load("TEST1").toEntries());
+        assertEquals(Set.of("TEST1"), storage.getSymbols());
+    }
+
+    @Test
+    @DisplayName("Cached series should be replaced by series of every upload")
+    void cacheUploadedSeries() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CryptoSeriesStorage cachedStorage = new CryptoSeriesStorage(new CsvStorageProperties(null, directory.toString()), new CsvSegmentConverter(), cacheManager);
+        CryptoSeries stored = cachedStorage.save(series(1, 3));
+        cacheManager.getCache("cryptoSeries").clear();
+        CryptoSeries loaded = cachedStorage.load("test1");
+
+        assertSame(loaded, cachedStorage.load("TEST1"));
+
+        CryptoSeries merged = cachedStorage.append(loaded, series(2));
+
+        assertSame(merged, cachedStorage.load("TEST1"));
+        assertEquals(series(1, 2, 3).toEntries(), merged.toEntries());
+        assertEquals(stored.toEntries(), loaded.toEntries());
+    }
+
+    @Test
+    @DisplayName("Upload not fitting into scale of stored prices should be rejected without leaving a delta segment")
+    void appendMismatchedScales() throws IOException {
+        CryptoSeries stored = storage.save(CryptoSeries.builder("TEST1").add(1, new BigDecimal("60000.00")).build());
+        CryptoSeries uploaded = CryptoSeries.builder("TEST1").add(2, new BigDecimal("0.00000000000000001")).build();
+
+        assertThrows(CryptoValuesCsvValidationException.class, () -> storage.append(stored, uploaded));
+
+        assertEquals(Set.of("TEST1_values.seg", "TEST1_daily.roll"), fileNames());
+        assertEquals(stored.toEntries(), storage.load("TEST1").toEntries());
+
+        CryptoSeries merged = storage.append(storage.load("TEST1"), series(3));
+
+        assertEquals(merged.toEntries(), storage.load("TEST1").toEntries());
+        assertEquals(2, merged.size());
+    }
+
+    @Test
+    @DisplayName("Cached rollups of other cryptocurrencies should be kept on upload")
+    void cacheRollupsPerSymbol() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CryptoSeriesStorage cachedStorage = new CryptoSeriesStorage(new CsvStorageProperties(null, directory.toString()), new CsvSegmentConverter(), cacheManager);
+        cachedStorage.save(series(1, 3));
+        cachedStorage.save(CryptoSeries.builder("TEST2").add(1, BigDecimal.TEN).build());
+        DailyRollup otherRollup = cachedStorage.loadRollup(cachedStorage.load("TEST2"));
+
+        CryptoSeries saved = cachedStorage.save(series(1, 2, 3));
+        CryptoSeries merged = cachedStorage.append(saved, series(4));
+
+        assertSame(otherRollup, cachedStorage.loadRollup(cachedStorage.load("TEST2")));
+        DailyRollup rollup = cachedStorage.loadRollup(merged);
+        assertSame(rollup, cacheManager.getCache("cryptoRollups").get("TEST1", DailyRollup.class));
+        assertEquals(4, rollup.getTickCount());
+    }
+
+    @Test
+    @DisplayName("Series mapped from segment files should hold no heap for columns")
+    void weighHeapBytes() {
+        CryptoSeries saved = storage.save(series(1, 2, 3));
+        CryptoSeries loaded = storage.load("TEST1");
+
+        assertTrue(saved.getHeapBytes() >= 3L * (2 * Long.BYTES + 1));
+        assertEquals(0, loaded.getHeapBytes());
+
+        loaded.minPricePosition(0, loaded.size());
+
+        assertTrue(loaded.getHeapBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Legacy csv files should be migrated to segments once and kept renamed")
+    void migrateLegacyCsv() throws IOException {
+        Files.writeString(directory.resolve("TEST1_values.csv"), "timestamp,symbol,price\n3,TEST1,30\n1,TEST1,10\n");
+
+        assertEquals(Set.of(), storage.getSymbols());
+        assertEquals(1, storage.migrateLegacyCsv());
+
+        assertEquals(Set.of("TEST1_values.seg", "TEST1_values.csv.migrated"), fileNames());
+        assertEquals(series(1, 3).toEntries(), storage.load("TEST1").toEntries());
+        assertEquals(0, storage.migrateLegacyCsv());
+    }
+
+    @Test
+    @DisplayName("Deltas already merged into base segment should be ignored")
+    void skipCompactedDeltas() throws IOException {
+        CryptoSeries stored = storage.save(series(1));
+        storage.append(stored, series(2));
+        Path delta = directory.resolve("TEST1_values.1.seg");
+        byte[] content = Files.readAllBytes(delta);
+        storage.compact("TEST1");
+        Files.write(delta, content);
+
+        assertEquals(series(1, 2).toEntries(), storage.load("TEST1").toEntries());
+
+        storage.append(storage.load("TEST1"), series(3));
+
+        assertEquals(series(1, 2, 3).toEntries(), storage.load("TEST1").toEntries());
+    }
+
+    @Test
+    @DisplayName("Daily rollup should be kept up to date with stored ticks and rebuilt if it doesn't cover them")
+    void maintainDailyRollup() throws IOException {
+        long day = Duration.ofDays(1).toMillis();
+        CryptoSeries stored = storage.save(series(day, day + 1, 3 * day));
+        CryptoSeries merged = storage.append(stored, series(2 * day, 3 * day + 1));
+        Path rollupFile = directory.resolve("TEST1_daily.roll");
+
+        DailyRollup rollup = DailyRollupFile.read(rollupFile, "TEST1");
+        assertTrue(rollup.covers(merged, ZoneId.systemDefault()));
+        assertEquals(3, rollup.size());
+        assertEquals(BigDecimal.valueOf((3 * day + 1) * 10), rollup.getCloses().priceAt(2));
+
+        Files.delete(rollupFile);
+        assertEquals(5, storage.loadRollup(storage.load("TEST1")).getTickCount());
+        assertTrue(Files.exists(rollupFile));
+    }
+
+    @Test
+    @DisplayName("Exported slices should be segments of sliced ticks, transferred from base segment if it holds all ticks")
+    void exportSlices() throws IOException {
+        CryptoSeries stored = storage.save(series(1, 3, 5, 7));
+        CryptoSeries merged = storage.append(stored, series(2, 8));
+
+        try (SegmentExport fromFile = storage.export(stored, 1, 3)) {
+            assertFalse(fromFile.isFileTransfer());
+        }
+        storage.compact("TEST1");
+        byte[] exported;
+        try (SegmentExport fromFile = storage.export(merged, 1, 5)) {
+            assertTrue(fromFile.isFileTransfer());
+            exported = transfer(fromFile, 0, fromFile.length());
+        }
+        try (SegmentExport fromSeries = SegmentExport.of(merged, 1, 5, 1)) {
+            assertArrayEquals(exported, transfer(fromSeries, 0, fromSeries.length()));
+            assertArrayEquals(Arrays.copyOfRange(exported, 29, 61), transfer(fromSeries, 29, 32));
+        }
+        Path exportedFile = directory.resolve("exported.seg");
+        Files.write(exportedFile, exported);
+        assertEquals(series(2, 3, 5, 7).toEntries(), SegmentFile.read(exportedFile, "TEST1").toEntries());
+        assertEquals(1, SegmentFile.readGeneration(exportedFile));
+    }
+
+    private Set<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    private static byte[] transfer(SegmentExport export, long position, long count) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        export.transferTo(position, count, Channels.newChannel(output));
+        return output.toByteArray();
+    }
+
+    private static CryptoSeries series(long... timestamps) {
+        CryptoSeries.Builder builder = CryptoSeries.builder("TEST1");
+        for (long timestamp : timestamps) {
+            builder.add(timestamp, BigDecimal.valueOf(timestamp * 10));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.task.crypto.advisor.storage;
+
+import com.task.crypto.advisor.entities.csv.CryptoEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoSeriesTest {
+
+    @Test
+    @DisplayName("Builder should sort ticks by timestamp keeping insertion order of equal timestamps")
+    void buildSortsTicks() {
+        CryptoSeries series = CryptoSeries.builder("TEST1")
+                .add(3L, BigDecimal.valueOf(30))
+                .add(1L, new BigDecimal("10.5"))
+                .add(2L, BigDecimal.valueOf(20))
+                .add(1L, new BigDecimal("11"))
+                .build();
+
+        assertEquals(List.of(
+                new CryptoEntry("1", "TEST1", new BigDecimal("10.5")),
+                new CryptoEntry("1", "TEST1", new BigDecimal("11")),
+                new CryptoEntry("2", "TEST1", BigDecimal.valueOf(20)),
+                new CryptoEntry("3", "TEST1", BigDecimal.valueOf(30))
+        ), series.toEntries());
+    }
+
+    @Test
+    @DisplayName("Prices with different scales should be comparable as unscaled longs and restored exactly")
+    void pricesKeepScale() {
+        CryptoSeries series = CryptoSeries.builder("TEST1")
+                .add(1L, BigDecimal.valueOf(50))
+                .add(2L, new BigDecimal("0.1702"))
+                .add(3L, new BigDecimal("151.3"))
+                .build();
+
+        assertEquals(4, series.getScale());
+        assertTrue(series.unscaledPriceAt(1) < series.unscaledPriceAt(0));
+        assertTrue(series.unscaledPriceAt(0) < series.unscaledPriceAt(2));
+        assertEquals(BigDecimal.valueOf(50), series.priceAt(0));
+        assertEquals(new BigDecimal("0.1702"), series.priceAt(1));
+        assertEquals(new BigDecimal("151.3"), series.priceAt(2));
+    }
+
+    @Test
+    @DisplayName("lowerBound() should return first index not older than timestamp")
+    void lowerBound() {
+        CryptoSeries series = CryptoSeries.builder("TEST1")
+                .add(10L, BigDecimal.ONE)
+                .add(20L, BigDecimal.ONE)
+                .add(20L, BigDecimal.ONE)
+                .add(30L, BigDecimal.ONE)
+                .build();
+
+        assertEquals(0, series.lowerBound(5L));
+        assertEquals(1, series.lowerBound(20L));
+        assertEquals(3, series.lowerBound(21L));
+        assertEquals(4, series.lowerBound(31L));
+    }
+
+    @Test
+    @DisplayName("Index should return earliest min and max positions for any slice")
+    void minAndMaxPositions() {
+        long[] prices = {5, 3, 8, 3, 9, 1, 9, 4};
+        CryptoSeries series = seriesOf(prices, 0);
+
+        for (int from = 0; from < prices.length; from++) {
+            for (int to = from + 1; to <= prices.length; to++) {
+                assertEquals(scanMin(prices, from, to), series.minPricePosition(from, to));
+                assertEquals(scanMax(prices, from, to), series.maxPricePosition(from, to));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Merging newer ticks should append them and keep older snapshot unchanged")
+    void mergeAppendsNewerTicks() {
+        CryptoSeries initial = seriesOf(new long[]{5, 3, 8}, 0);
+        CryptoSeries appended = initial.merge(seriesOf(new long[]{1, 9}, 3));
+        CryptoSeries appendedAgain = appended.merge(seriesOf(new long[]{0}, 5));
+
+        assertEquals(3, initial.size());
+        assertEquals(1, initial.minPricePosition(0, 3));
+        assertEquals(2, initial.maxPricePosition(0, 3));
+        assertEquals(5, appended.size());
+        assertEquals(3, appended.minPricePosition(0, 5));
+        assertEquals(4, appended.maxPricePosition(0, 5));
+        assertEquals(5, appendedAgain.minPricePosition(0, 6));
+        assertEquals(3, appended.minPricePosition(0, 5));
+    }
+
+    @Test
+    @DisplayName("Appended ticks should be indexed whether the index was built before, outgrown or never built")
+    void appendKeepsIndexConsistent() {
+        Random random = new Random(42);
+        long[] prices = new long[2000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = random.nextInt(50);
+        }
+        CryptoSeries series = seriesOf(Arrays.copyOf(prices, 10), 0);
+        CryptoSeries first = series;
+        int size = 10;
+        while (size < prices.length) {
+            int added = Math.min(prices.length - size, 1 + random.nextInt(100));
+            series = series.merge(seriesOf(Arrays.copyOfRange(prices, size, size + added), size));
+            size += added;
+            if (random.nextBoolean()) {
+                int from = random.nextInt(size);
+                int to = from + 1 + random.nextInt(size - from);
+                assertEquals(scanMin(prices, from, to), series.minPricePosition(from, to));
+                assertEquals(scanMax(prices, from, to), series.maxPricePosition(from, to));
+            }
+        }
+        assertEquals(scanMin(prices, 0, prices.length), series.minPricePosition(0, prices.length));
+        assertEquals(scanMax(prices, 0, 10), first.maxPricePosition(0, 10));
+    }
+
+    @Test
+    @DisplayName("Appending to series never queried for min or max should not build its index")
+    void appendDoesNotBuildIndex() {
+        CryptoSeries series = seriesOf(new long[]{5, 3, 8}, 0);
+        long columnBytes = series.getHeapBytes();
+        for (int i = 0; i < 100; i++) {
+            series = series.merge(seriesOf(new long[]{i}, 3 + i));
+        }
+        long grownColumnBytes = series.getHeapBytes();
+
+        series.minPricePosition(0, series.size());
+
+        assertEquals(0, grownColumnBytes % (2 * Long.BYTES + 1));
+        assertTrue(grownColumnBytes >= columnBytes);
+        assertTrue(series.getHeapBytes() > grownColumnBytes);
+    }
+
+    @Test
+    @DisplayName("Merging overlapping ticks should produce time-sorted series with stored ticks first on equal timestamps")
+    void mergeOverlappingTicks() {
+        CryptoSeries merged = seriesOf(new long[]{5, 3, 8}, 0).merge(CryptoSeries.builder("TEST1")
+                .add(1L, new BigDecimal("0.5"))
+                .build());
+
+        assertEquals(4, merged.size());
+        assertEquals(1L, merged.timestampAt(2));
+        assertEquals(BigDecimal.valueOf(3), merged.priceAt(1));
+        assertEquals(new BigDecimal("0.5"), merged.priceAt(2));
+        assertEquals(BigDecimal.valueOf(8), merged.priceAt(3));
+        assertEquals(2, merged.minPricePosition(0, 4));
+    }
+
+    private static CryptoSeries seriesOf(long[] prices, long firstTimestamp) {
+        CryptoSeries.Builder builder = CryptoSeries.builder("TEST1");
+        for (int i = 0; i < prices.length; i++) {
+            builder.add(firstTimestamp + i, BigDecimal.valueOf(prices[i]));
+        }
+        return builder.build();
+    }
+
+    private static int scanMin(long[] prices, int from, int to) {
+        int result = from;
+        for (int i = from; i < to; i++) {
+            if (prices[i] < prices[result]) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    private static int scanMax(long[] prices, int from, int to) {
+        int result = from;
+        for (int i = from; i < to; i++) {
+            if (prices[i] > prices[result]) {
+                result = i;
+            }
+        }
+        return result;
+    }
+}
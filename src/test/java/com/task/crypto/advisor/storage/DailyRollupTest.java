@@ -0,0 +1,106 @@
+package com.task.crypto.advisor.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyRollupTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Kiev");
+
+    @Test
+    @DisplayName("Ticks should be rolled up into candles of days of the zone")
+    void buildDailyCandles() {
+        CryptoSeries series = CryptoSeries.builder("TEST1")
+                .add(at(2022, 1, 1, 0, 0), BigDecimal.valueOf(50))
+                .add(at(2022, 1, 1, 8, 0), new BigDecimal("100.50"))
+                .add(at(2022, 1, 1, 12, 0), BigDecimal.valueOf(20))
+                .add(at(2022, 1, 1, 18, 0), new BigDecimal("100.5"))
+                .add(at(2022, 1, 1, 23, 59), BigDecimal.valueOf(20))
+                .add(at(2022, 1, 3, 10, 0), new BigDecimal("0.001"))
+                .build();
+
+        DailyRollup rollup = DailyRollup.build(series, ZONE);
+
+        assertEquals(List.of(
+                        "2022-01-01 " + at(2022, 1, 1, 0, 0) + "=50 " + at(2022, 1, 1, 8, 0) + "=100.50 "
+                                + at(2022, 1, 1, 12, 0) + "=20 " + at(2022, 1, 1, 23, 59) + "=20 5",
+                        "2022-01-03 " + at(2022, 1, 3, 10, 0) + "=0.001 " + at(2022, 1, 3, 10, 0) + "=0.001 "
+                                + at(2022, 1, 3, 10, 0) + "=0.001 " + at(2022, 1, 3, 10, 0) + "=0.001 1"),
+                candles(rollup));
+        assertEquals(6, rollup.getTickCount());
+        assertTrue(rollup.covers(series, ZONE));
+        assertFalse(rollup.covers(series, ZoneId.of("UTC")));
+        assertEquals(1, rollup.lowerBound(at(2022, 1, 2, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Merged rollups should be equal to rollup of merged series")
+    void mergeRollups() {
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 20; attempt++) {
+            CryptoSeries stored = randomSeries(random, 200);
+            CryptoSeries uploaded = randomSeries(random, 50);
+
+            DailyRollup merged = DailyRollup.build(stored, ZONE).merge(DailyRollup.build(uploaded, ZONE));
+
+            CryptoSeries mergedSeries = stored.merge(uploaded);
+            assertEquals(candles(DailyRollup.build(mergedSeries, ZONE)), candles(merged));
+            assertTrue(merged.covers(mergedSeries, ZONE));
+        }
+    }
+
+    @Test
+    @DisplayName("Written rollup should be read back into equal rollup")
+    void writeAndRead(@TempDir Path directory) throws IOException {
+        DailyRollup rollup = DailyRollup.build(randomSeries(new Random(7), 500), ZONE);
+        Path path = directory.resolve("TEST1_daily.roll");
+
+        DailyRollupFile.write(path, rollup);
+        DailyRollup read = DailyRollupFile.read(path, "TEST1");
+
+        assertEquals(candles(rollup), candles(read));
+        assertEquals(ZONE, read.getZone());
+        assertEquals(rollup.getTickCount(), read.getTickCount());
+    }
+
+    private static CryptoSeries randomSeries(Random random, int size) {
+        CryptoSeries.Builder builder = CryptoSeries.builder("TEST1");
+        long start = at(2022, 3, 20, 0, 0);
+        for (int i = 0; i < size; i++) {
+            long timestamp = start + random.nextLong(20L * 24 * 3600 * 1000);
+            builder.add(timestamp, BigDecimal.valueOf(random.nextInt(100), random.nextInt(3)));
+        }
+        return builder.build();
+    }
+
+    private static List<String> candles(DailyRollup rollup) {
+        List<String> candles = new ArrayList<>();
+        for (int day = 0; day < rollup.size(); day++) {
+            candles.add(rollup.dayAt(day) + " " + tick(rollup.getOpens(), day) + " " + tick(rollup.getHighs(), day) + " "
+                    + tick(rollup.getLows(), day) + " " + tick(rollup.getCloses(), day) + " " + rollup.ticksAt(day));
+        }
+        return candles;
+    }
+
+    private static String tick(CryptoSeries series, int index) {
+        return series.timestampAt(index) + "=" + series.priceAt(index).toPlainString();
+    }
+
+    private static long at(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,57 @@
+package com.task.crypto.advisor.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SegmentFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Written segment should be mapped back into equal series")
+    void writeAndRead() throws IOException {
+        CryptoSeries series = CryptoSeries.builder("TEST1")
+                .add(1641016800000L, BigDecimal.valueOf(50))
+                .add(1641063600000L, new BigDecimal("0.1702"))
+                .add(1641078000000L, new BigDecimal("151.3"))
+                .build();
+        Path path = directory.resolve("TEST1_values.seg");
+
+        SegmentFile.write(path, series);
+        CryptoSeries mapped = SegmentFile.read(path, "TEST1");
+
+        assertEquals(series.toEntries(), mapped.toEntries());
+        assertEquals(1, mapped.minPricePosition(0, 3));
+        assertEquals(2, mapped.maxPricePosition(0, 3));
+    }
+
+    @Test
+    @DisplayName("Appending to mapped series should copy its columns")
+    void appendToMappedSeries() throws IOException {
+        Path path = directory.resolve("TEST1_values.seg");
+        SegmentFile.write(path, CryptoSeries.builder("TEST1").add(1L, BigDecimal.TEN).build());
+
+        CryptoSeries merged = SegmentFile.read(path, "TEST1").merge(CryptoSeries.builder("TEST1").add(2L, BigDecimal.ONE).build());
+
+        assertEquals(2, merged.size());
+        assertEquals(1, merged.minPricePosition(0, 2));
+    }
+
+    @Test
+    @DisplayName("Reading file of other format should fail")
+    void readCorruptedFile() throws IOException {
+        Path path = Files.writeString(directory.resolve("TEST1_values.seg"), "timestamp,symbol,price");
+
+        assertThrows(IOException.class, () -> SegmentFile.read(path, "TEST1"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.task.crypto.advisor.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesPyramidTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Kiev");
+
+    @Test
+    @DisplayName("Every level should hold the earliest min and max ticks of its buckets")
+    void buildLevels() {
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 10; attempt++) {
+            CryptoSeries series = randomSeries(random, 3000);
+
+            SeriesPyramid pyramid = SeriesPyramid.build(series, ZONE);
+
+            assertEquals(series, pyramid.getLevel(Resolution.RAW));
+            for (Resolution resolution : Resolution.values()) {
+                if (resolution != Resolution.RAW) {
+                    assertEquals(extremes(series, resolution), ticks(pyramid.getLevel(resolution)), resolution.name());
+                }
+            }
+            assertTrue(pyramid.covers(series, ZONE));
+            assertFalse(pyramid.covers(series, ZoneId.of("UTC")));
+            assertFalse(pyramid.covers(randomSeries(random, 10), ZONE));
+        }
+    }
+
+    @Test
+    @DisplayName("Finest level fitting the number of ticks should be selected")
+    void selectResolution() {
+        CryptoSeries.Builder builder = CryptoSeries.builder("TEST1");
+        long start = at(2022, 1, 3, 0, 0);
+        for (int i = 0; i < 14 * 24 * 60; i++) {
+            builder.add(start + i * 60_000L, BigDecimal.valueOf(i % 100));
+        }
+        SeriesPyramid pyramid = SeriesPyramid.build(builder.build(), ZONE);
+        long end = at(2022, 1, 17, 0, 0);
+
+        assertEquals(Resolution.RAW, pyramid.select(start, end, 14 * 24 * 60));
+        assertEquals(Resolution.RAW, pyramid.select(start, start + 3_600_000, 60));
+        assertEquals(Resolution.HOUR, pyramid.select(start, end, 14 * 24 * 2));
+        assertEquals(Resolution.DAY, pyramid.select(start, end, 28));
+        assertEquals(Resolution.WEEK, pyramid.select(start, end, 4));
+        assertEquals(Resolution.WEEK, pyramid.select(start, end, 1));
+        assertEquals(14 * 24 * 2 + 14 * 2 + 2 * 2 + 14 * 24 * 60, pyramid.getDownsampledSize());
+    }
+
+    @Test
+    @DisplayName("LTTB should keep the first, the last and outstanding ticks")
+    void downsampleLargestTriangles() {
+        CryptoSeries.Builder builder = CryptoSeries.builder("TEST1");
+        for (int i = 0; i < 1000; i++) {
+            builder.add(i * 1000L, BigDecimal.valueOf(i == 500 ? 1000 : 10 + i % 2));
+        }
+        CryptoSeries series = builder.build();
+
+        int[] positions = LargestTriangleThreeBuckets.downsample(series, 100, 900, 20);
+
+        assertEquals(20, positions.length);
+        assertEquals(100, positions[0]);
+        assertEquals(899, positions[19]);
+        assertTrue(Arrays.binarySearch(positions, 500) >= 0);
+        for (int i = 1; i < positions.length; i++) {
+            assertTrue(positions[i - 1] < positions[i]);
+        }
+        assertArrayEquals(new int[]{5, 6, 7}, LargestTriangleThreeBuckets.downsample(series, 5, 8, 20));
+        assertArrayEquals(new int[]{5, 7}, LargestTriangleThreeBuckets.downsample(series, 5, 8, 2));
+        assertArrayEquals(new int[0], LargestTriangleThreeBuckets.downsample(series, 5, 5, 20));
+    }
+
+    private static List<String> extremes(CryptoSeries series, Resolution resolution) {
+        List<String> extremes = new ArrayList<>();
+        int start = 0;
+        while (start < series.size()) {
+            long bucketEnd = resolution.bucketEnd(series.timestampAt(start), ZONE);
+            int end = start;
+            int min = start;
+            int max = start;
+            while (end < series.size() && series.timestampAt(end) < bucketEnd) {
+                if (series.priceAt(end).compareTo(series.priceAt(min)) < 0) {
+                    min = end;
+                }
+                if (series.priceAt(end).compareTo(series.priceAt(max)) > 0) {
+                    max = end;
+                }
+                end++;
+            }
+            extremes.add(tick(series, Math.min(min, max)));
+            if (min != max) {
+                extremes.add(tick(series, Math.max(min, max)));
+            }
+            start = end;
+        }
+        return extremes;
+    }
+
+    private static CryptoSeries randomSeries(Random random, int size) {
+        CryptoSeries.Builder builder = CryptoSeries.builder("TEST1");
+        long start = at(2022, 3, 10, 0, 0);
+        for (int i = 0; i < size; i++) {
+            long range = i % 2 == 0 ? 40L * 24 * 3600 * 1000 : 3L * 3600 * 1000;
+            builder.add(start + random.nextLong(range), BigDecimal.valueOf(random.nextInt(100), random.nextInt(3)));
+        }
+        return builder.build();
+    }
+
+    private static List<String> ticks(CryptoSeries series) {
+        List<String> ticks = new ArrayList<>();
+        for (int i = 0; i < series.size(); i++) {
+            ticks.add(tick(series, i));
+        }
+        return ticks;
+    }
+
+    private static String tick(CryptoSeries series, int index) {
+        return series.timestampAt(index) + "=" + series.priceAt(index).toPlainString();
+    }
+
+    private static long at(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,48 @@
+package com.task.crypto.advisor.timing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.task.crypto.advisor.TestUtils.getAdminToken;
+import static com.task.crypto.advisor.TestUtils.getUserToken;
+import static com.task.crypto.advisor.TestUtils.performRequestWithToken;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "application.rate-limit.enabled=true")
+@AutoConfigureMockMvc
+class ServerTimingFilterTest {
+
+    private static final String HIGHEST_NORMALIZED_RANGE = "/statistics/highest-normalized-range/2022-01-01/2022-01-02";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Stages of request should be returned in Server-Timing header to client with debug authority")
+    void returnServerTimingToDebugClient() throws Exception {
+        performRequestWithToken(mockMvc, get(HIGHEST_NORMALIZED_RANGE), getAdminToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER, allOf(
+                        containsString("auth;dur="),
+                        containsString("rate-limit;dur="),
+                        containsString("cache;dur="),
+                        containsString("aggregate;dur="),
+                        containsString("total;dur="))));
+    }
+
+    @Test
+    @DisplayName("Server-Timing header should not be returned to client without debug authority")
+    void hideServerTimingFromOtherClients() throws Exception {
+        performRequestWithToken(mockMvc, get(HIGHEST_NORMALIZED_RANGE), getUserToken(mockMvc))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING_HEADER));
+    }
+}
@@ -0,0 +1,81 @@
+package com.task.crypto.advisor.timing;
+
+import com.task.crypto.advisor.services.impl.CsvValidationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageEventTest {
+
+    private static final String CSV = "timestamp,symbol,price\n1641009600000,BTC,46813.21\n1641020400000,BTC,46979.61\n";
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.stop();
+    }
+
+    @Test
+    @DisplayName("Stage should be recorded as JFR event of the request and added to its timing")
+    void recordParseEvent(@TempDir Path directory) throws Exception {
+        CsvValidationServiceImpl csvValidationService = new CsvValidationServiceImpl(new SimpleMeterRegistry());
+        csvValidationService.registerMetrics();
+        Path file = directory.resolve("recording.jfr");
+        RequestTiming timing;
+        try (Recording recording = new Recording()) {
+            recording.enable(ParseEvent.class);
+            recording.start();
+            timing = RequestTiming.start();
+            csvValidationService.readAndValidate(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.US_ASCII)));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("com.task.crypto.advisor.Parse", event.getEventType().getName());
+        assertEquals(timing.getId(), event.getLong("requestId"));
+        assertEquals("BTC", event.getString("symbol"));
+        assertEquals(2, event.getLong("rows"));
+        assertFalse(event.hasField("stage"));
+        assertEquals(1, timing.getCount(Stage.PARSE));
+        assertTrue(timing.getDuration(Stage.PARSE) > 0);
+        assertTrue(timing.toServerTiming().startsWith("parse;dur="));
+        assertTrue(timing.toServerTiming().contains(";desc=\"Csv parsing and validation\""));
+    }
+
+    @Test
+    @DisplayName("Wrapped tasks should record stages into timing of the request on other threads")
+    void carryTimingToOtherThreads() throws Exception {
+        RequestTiming timing = RequestTiming.start();
+        Callable<Long> task = RequestTiming.wrap(() -> {
+            RequestTiming.record(Stage.AGGREGATE, System.nanoTime());
+            return RequestTiming.currentId();
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(timing.getId(), executor.submit(task).get());
+            assertEquals(0, executor.submit(RequestTiming::currentId).get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, timing.getCount(Stage.AGGREGATE));
+    }
+}
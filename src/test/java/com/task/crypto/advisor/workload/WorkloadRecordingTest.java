@@ -0,0 +1,105 @@
+package com.task.crypto.advisor.workload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "application.workload-recording.enabled=true")
+class WorkloadRecordingTest {
+
+    private static final String BATCH_BODY = "[{\"crypto\":\"TEST1\"},{\"crypto\":\"TEST2\"}]";
+
+    @TempDir
+    static Path directory;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void workloadFile(DynamicPropertyRegistry registry) {
+        registry.add("application.workload-recording.file", () -> directory.resolve("workload.log").toString());
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Recorded requests should be replayed with latency per endpoint and cache hit ratios")
+    void recordAndReplay() throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String token = httpClient.send(HttpRequest.newBuilder(uri("/api/auth/token"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString("testUser:12345678".getBytes(StandardCharsets.UTF_8)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString()).body();
+        for (String path : List.of("/statistics/crypto-statistics/TEST1", "/statistics/crypto-statistics/test1", "/statistics/normalized-values")) {
+            httpClient.send(HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token).build(), HttpResponse.BodyHandlers.discarding());
+        }
+        httpClient.send(HttpRequest.newBuilder(uri("/statistics/normalized-values")).build(), HttpResponse.BodyHandlers.discarding());
+        httpClient.send(HttpRequest.newBuilder(uri("/statistics/batch"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BATCH_BODY))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        while (meterRegistry.get("workload.records").tag("result", "written").functionCounter().count() < 6) {
+            Thread.sleep(10);
+        }
+
+        List<WorkloadRecord> records = WorkloadReplayer.read(directory.resolve("workload.log"));
+
+        assertEquals(6, records.size());
+        assertEquals("/api/auth/token", records.get(0).endpoint());
+        assertEquals("testUser", records.get(0).principal());
+        assertEquals("/statistics/crypto-statistics/{crypto}", records.get(1).endpoint());
+        assertEquals("/statistics/crypto-statistics/test1", records.get(2).uri());
+        assertEquals(200, records.get(3).status());
+        assertNull(records.get(4).principal());
+        assertEquals(401, records.get(4).status());
+        assertNull(records.get(4).body());
+        assertEquals("/statistics/batch", records.get(5).endpoint());
+        assertEquals(BATCH_BODY, new String(records.get(5).body(), StandardCharsets.UTF_8));
+
+        WorkloadReplayer.Report report = WorkloadReplayer.builder()
+                .baseUri(uri("/"))
+                .speedup(10)
+                .credential("testUser", "12345678")
+                .meterRegistry(meterRegistry)
+                .build()
+                .replay(records);
+
+        assertEquals(6, report.requests());
+        assertEquals(Map.of(200, 1L), report.endpoints().get("POST /api/auth/token").statuses());
+        assertEquals(Map.of(200, 2L), report.endpoints().get("GET /statistics/crypto-statistics/{crypto}").statuses());
+        assertEquals(Map.of(200, 1L, 401, 1L), report.endpoints().get("GET /statistics/normalized-values").statuses());
+        assertEquals(Map.of(200, 1L), report.endpoints().get("POST /statistics/batch").statuses());
+        WorkloadReplayer.EndpointStats stats = report.endpoints().get("GET /statistics/crypto-statistics/{crypto}");
+        assertTrue(stats.p50Millis() > 0 && stats.p50Millis() <= stats.p99Millis() && stats.p99Millis() <= stats.p999Millis());
+        assertTrue(report.cacheHitRatios().containsKey("cryptoData ranges"));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
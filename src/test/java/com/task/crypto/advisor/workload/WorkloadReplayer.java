@@ -0,0 +1,270 @@
+package com.task.crypto.advisor.workload;
+
+import com.task.crypto.advisor.AdvisorApplication;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Builder;
+import lombok.Singular;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The `WorkloadReplayer` class replays a workload log written by WorkloadRecorder against a running instance.
+ * Requests are sent asynchronously at their recorded offsets from the first request divided by `speedup`,
+ * so slow responses don't delay later requests. Latency is measured from the scheduled send time.
+ * Requests of principals with known passwords are sent with a bearer token obtained before the replay,
+ * authentication requests are sent with basic credentials, other requests are sent unauthenticated.
+ * JSON requests are sent with their recorded body.
+ * Uploads are sent with generated csv content of the recorded size for the cryptocurrency of the recorded file name.
+ * If registry of an instance running in the same JVM is given, hit ratios of its caches during the replay are reported.
+ * <p>
+ * The main method starts the application in this JVM and replays a log against it:
+ * {@code WorkloadReplayer <workload log> <speedup> [<user>:<password>...] [--<application property>=<value>...]}
+ */
+@Builder
+public class WorkloadReplayer {
+
+    private static final String AUTH_ENDPOINT_PREFIX = "/api/auth/";
+    private static final String TOKEN_PATH = "/api/auth/token";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String BOUNDARY = "workload-replayer-boundary";
+    private static final int CSV_ROW_LENGTH = 30;
+
+    private final URI baseUri;
+    @Builder.Default
+    private final double speedup = 1;
+    @Singular
+    private final Map<String, String> credentials;
+    private final MeterRegistry meterRegistry;
+    @Builder.Default
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        List<WorkloadRecord> records = read(Path.of(args[0]));
+        WorkloadReplayerBuilder builder = WorkloadReplayer.builder().speedup(Double.parseDouble(args[1]));
+        List<String> applicationArgs = new ArrayList<>(List.of("--server.port=0"));
+        for (String arg : Arrays.copyOfRange(args, 2, args.length)) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else {
+                builder.credential(arg.substring(0, arg.indexOf(':')), arg.substring(arg.indexOf(':') + 1));
+            }
+        }
+        try (ConfigurableApplicationContext context = SpringApplication.run(AdvisorApplication.class, applicationArgs.toArray(String[]::new))) {
+            Report report = builder
+                    .baseUri(URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")))
+                    .meterRegistry(context.getBean(MeterRegistry.class))
+                    .build()
+                    .replay(records);
+            System.out.println(report.format());
+        }
+    }
+
+    /**
+     * Reads records of the workload log sorted by start time.
+     */
+    public static List<WorkloadRecord> read(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(WorkloadRecord::parse)
+                    .sorted(Comparator.comparingLong(WorkloadRecord::timestamp))
+                    .toList();
+        }
+    }
+
+    /**
+     * Replays records and waits for all responses.
+     *
+     * @param records Records sorted by start time.
+     * @return Latency, throughput and cache hit ratios of the replay.
+     */
+    public Report replay(List<WorkloadRecord> records) throws IOException, InterruptedException {
+        Map<String, String> tokens = obtainTokens(records);
+        Map<String, Long> countersBefore = readCacheCounters();
+        Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch(records.size());
+        long start = System.nanoTime();
+        for (WorkloadRecord workloadRecord : records) {
+            long due = start + (long) ((workloadRecord.timestamp() - records.get(0).timestamp()) * 1_000_000 / speedup);
+            while (System.nanoTime() < due) {
+                LockSupport.parkNanos(due - System.nanoTime());
+            }
+            Latencies endpointLatencies = latencies.computeIfAbsent(workloadRecord.method() + " " + workloadRecord.endpoint(), key -> new Latencies());
+            httpClient.sendAsync(toRequest(workloadRecord, tokens), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        endpointLatencies.add(System.nanoTime() - due, response == null ? -1 : response.statusCode());
+                        completed.countDown();
+                    });
+        }
+        completed.await();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Map<String, Long> countersAfter = readCacheCounters();
+        return new Report(elapsed, records.size(), records.size() / Math.max(1e-9, elapsed.toNanos() / 1e9),
+                new TreeMap<>(latencies.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toStats(elapsed)))),
+                hitRatios(countersBefore, countersAfter));
+    }
+
+    private Map<String, String> obtainTokens(List<WorkloadRecord> records) throws IOException, InterruptedException {
+        Map<String, String> tokens = new HashMap<>();
+        for (WorkloadRecord workloadRecord : records) {
+            String principal = workloadRecord.principal();
+            if (principal != null && credentials.containsKey(principal) && !tokens.containsKey(principal)) {
+                HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve(TOKEN_PATH))
+                        .header("Authorization", basic(principal))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Couldn't obtain token of " + principal + ", status " + response.statusCode());
+                }
+                tokens.put(principal, response.body());
+            }
+        }
+        return tokens;
+    }
+
+    private HttpRequest toRequest(WorkloadRecord workloadRecord, Map<String, String> tokens) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(workloadRecord.uri()));
+        String principal = workloadRecord.principal();
+        if (principal != null && workloadRecord.endpoint().startsWith(AUTH_ENDPOINT_PREFIX) && credentials.containsKey(principal)) {
+            request.header("Authorization", basic(principal));
+        } else if (principal != null && tokens.containsKey(principal)) {
+            request.header("Authorization", "Bearer " + tokens.get(principal));
+        }
+        if (workloadRecord.fileName() != null) {
+            request.header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY);
+            return request.POST(HttpRequest.BodyPublishers.ofByteArray(uploadBody(workloadRecord))).build();
+        }
+        if (workloadRecord.body() != null) {
+            request.header("Content-Type", JSON_CONTENT_TYPE);
+            return request.method(workloadRecord.method(), HttpRequest.BodyPublishers.ofByteArray(workloadRecord.body())).build();
+        }
+        return request.method(workloadRecord.method(), HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private String basic(String principal) {
+        return "Basic " + Base64.getEncoder().encodeToString((principal + ":" + credentials.get(principal)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] uploadBody(WorkloadRecord workloadRecord) {
+        String fileName = workloadRecord.fileName();
+        String symbol = fileName.contains("_") ? fileName.substring(0, fileName.indexOf('_')) : fileName.replace(".csv", "");
+        Random random = new Random(workloadRecord.timestamp());
+        long now = System.currentTimeMillis();
+        StringBuilder csv = new StringBuilder("timestamp,symbol,price\n");
+        for (long row = 0; row < Math.max(1, workloadRecord.contentLength() / CSV_ROW_LENGTH); row++) {
+            csv.append(now - 1 - random.nextLong(TimeUnit.DAYS.toMillis(365))).append(',')
+                    .append(symbol).append(',')
+                    .append(random.nextInt(100_000)).append('.').append(random.nextInt(100)).append('\n');
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + fileName
+                + "\"\r\nContent-Type: text/csv\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(csv.toString().getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    /**
+     * Reads 'cache.gets' counters of every cache and 'crypto.data.ranges' counters, keyed by cache and result.
+     */
+    private Map<String, Long> readCacheCounters() {
+        Map<String, Long> counters = new HashMap<>();
+        if (meterRegistry == null) {
+            return counters;
+        }
+        for (FunctionCounter counter : meterRegistry.find("cache.gets").functionCounters()) {
+            counters.merge(counter.getId().getTag("cache") + "/" + counter.getId().getTag("result"), (long) counter.count(), Long::sum);
+        }
+        for (FunctionCounter counter : meterRegistry.find("crypto.data.ranges").functionCounters()) {
+            counters.merge("cryptoData ranges/" + counter.getId().getTag("result"), (long) counter.count(), Long::sum);
+        }
+        return counters;
+    }
+
+    private Map<String, Double> hitRatios(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Double> hitRatios = new TreeMap<>();
+        after.keySet().stream()
+                .map(key -> key.substring(0, key.lastIndexOf('/')))
+                .distinct()
+                .forEach(cache -> {
+                    long hits = after.getOrDefault(cache + "/hit", 0L) - before.getOrDefault(cache + "/hit", 0L);
+                    long misses = after.getOrDefault(cache + "/miss", 0L) - before.getOrDefault(cache + "/miss", 0L);
+                    if (hits + misses > 0) {
+                        hitRatios.put(cache, (double) hits / (hits + misses));
+                    }
+                });
+        return hitRatios;
+    }
+
+    public record Report(Duration elapsed, long requests, double throughput,
+                         Map<String, EndpointStats> endpoints, Map<String, Double> cacheHitRatios) {
+
+        public String format() {
+            StringBuilder report = new StringBuilder(String.format("Replayed %d requests in %d ms, %.1f requests/s%n",
+                    requests, elapsed.toMillis(), throughput));
+            report.append(String.format("%-60s %8s %10s %10s %10s %10s  %s%n", "Endpoint", "Count", "Req/s", "p50 ms", "p99 ms", "p999 ms", "Statuses"));
+            endpoints.forEach((endpoint, stats) -> report.append(String.format("%-60s %8d %10.1f %10.3f %10.3f %10.3f  %s%n",
+                    endpoint, stats.count(), stats.throughput(), stats.p50Millis(), stats.p99Millis(), stats.p999Millis(), stats.statuses())));
+            cacheHitRatios.forEach((cache, ratio) -> report.append(String.format("Cache %s hit ratio %.3f%n", cache, ratio)));
+            return report.toString();
+        }
+    }
+
+    public record EndpointStats(long count, double throughput, double p50Millis, double p99Millis, double p999Millis,
+                                Map<Integer, Long> statuses) {
+    }
+
+    private static class Latencies {
+
+        private long[] nanos = new long[64];
+        private int size;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        synchronized void add(long latencyNanos, int status) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latencyNanos;
+            statuses.merge(status, 1L, Long::sum);
+        }
+
+        synchronized EndpointStats toStats(Duration elapsed) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointStats(size, size / Math.max(1e-9, elapsed.toNanos() / 1e9),
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999), new TreeMap<>(statuses));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}